@@ -22,6 +22,7 @@ import com.google.common.net.HostAndPort;
 import com.orbitz.consul.Consul;
 import com.orbitz.consul.KeyValueClient;
 import com.orbitz.consul.model.kv.Value;
+import org.apache.tamaya.functions.RefreshAheadCache;
 import org.apache.tamaya.mutableconfig.ConfigChangeRequest;
 import org.apache.tamaya.mutableconfig.spi.MutablePropertySource;
 import org.apache.tamaya.spi.ChangeSupport;
@@ -30,8 +31,6 @@ import org.apache.tamaya.spisupport.propertysource.BasePropertySource;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -47,12 +46,9 @@ implements MutablePropertySource{
 
     private List<HostAndPort> consulBackends = new ArrayList<>();
 
-    /** The config cache used. */
-    private Map<String, PropertyValue> configMap = new ConcurrentHashMap<>();
-
-    private AtomicLong timeoutDuration = new AtomicLong(TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES));
-
-    private AtomicLong timeout = new AtomicLong();
+    /** The config cache used, containing all keys accessed so far. */
+    private final RefreshAheadCache<Map<String, PropertyValue>> cache =
+            new RefreshAheadCache<>("consul", this::reloadProperties, new ConcurrentHashMap<>());
 
 
     public AbstractConsulPropertySource(){
@@ -68,7 +64,7 @@ implements MutablePropertySource{
      * @return the current timeout, or 0 if no data has been loaded at all.
      */
     public long getValidUntil(){
-        return timeout.get();
+        return cache.getValidUntil();
     }
 
     /**
@@ -76,7 +72,7 @@ implements MutablePropertySource{
      * @return the timeout duration after which data will be reloaded.
      */
     public long getCachePeriod(){
-        return timeoutDuration.get();
+        return cache.getCachePeriod();
     }
 
     /**
@@ -84,7 +80,16 @@ implements MutablePropertySource{
      * @param millis the millis
      */
     public void setCacheTimeout(long millis){
-        this.timeoutDuration.set(millis);
+        this.cache.setCachePeriod(millis);
+    }
+
+    /**
+     * Get the cache used, e.g. for accessing the cache statistics or configuring the refresh ahead
+     * and staleness periods.
+     * @return the cache, never null.
+     */
+    public RefreshAheadCache<Map<String, PropertyValue>> getCache(){
+        return cache;
     }
 
     /**
@@ -130,24 +135,43 @@ implements MutablePropertySource{
     }
 
     /**
-     * Checks for a cache timeout and optionally reloads the data.
+     * Checks for a cache timeout and optionally reloads the data. Expired entries are reloaded in the
+     * background, see {@link RefreshAheadCache}.
      */
     public void checkRefresh(){
-        if(this.timeout.get() < System.currentTimeMillis()){
-            refresh();
-        }
+        cache.get();
     }
 
     /**
-     * Clears the cached entries.
+     * Reloads the cached entries.
      */
     public void refresh(){
-        this.configMap.clear();
+        cache.refresh();
+    }
+
+    /**
+     * Reloads all entries accessed so far from consul.
+     * @return the entries reloaded, or null, if no backend could be accessed, so the cached entries are kept.
+     */
+    private Map<String, PropertyValue> reloadProperties(){
+        Map<String, PropertyValue> configMap = new ConcurrentHashMap<>();
+        for(String key:cache.peek().keySet()){
+            try {
+                PropertyValue val = readValue(key);
+                if (val != null) {
+                    configMap.put(key, val);
+                }
+            }catch(IllegalStateException e){
+                LOG.log(Level.FINE, "Failed to reload consul entries, keeping cached entries.", e);
+                return null;
+            }
+        }
+        return configMap;
     }
 
     @Override
     public PropertyValue get(String key) {
-        checkRefresh();
+        Map<String, PropertyValue> configMap = cache.get();
         String reqKey = key;
         if(key.startsWith("[(META)")){
             reqKey = key.substring("[(META)".length());
@@ -163,10 +187,33 @@ implements MutablePropertySource{
                 reqKey = reqKey.substring(0,reqKey.length()-"].source".length());
             }
         }
-        PropertyValue val = this.configMap.get(reqKey);
+        PropertyValue val = configMap.get(reqKey);
         if(val!=null){
             return val;
         }
+        try {
+            val = readValue(reqKey);
+        }catch(IllegalStateException e){
+            LOG.log(Level.FINE, "Failed to read key from consul: " + reqKey, e);
+            return null;
+        }
+        if(val!=null){
+            // add to the current entries, the map read above may have been replaced by a reload meanwhile
+            cache.peek().put(reqKey, val);
+        }
+        return val;
+    }
+
+    /**
+     * Reads a value from the first consul backend available.
+     * @param reqKey the key, not null.
+     * @return the value, or null, if not found.
+     * @throws IllegalStateException if no backend could be accessed.
+     */
+    private PropertyValue readValue(String reqKey){
+        PropertyValue val = null;
+        boolean answered = false;
+        Exception failure = null;
         // check prefix, if key does not start with it, it is not part of our name space
         // if so, the prefix part must be removedProperties, so etcd can resolve without it
         for(HostAndPort hostAndPort: this.consulBackends){
@@ -174,6 +221,7 @@ implements MutablePropertySource{
                 Consul consul = Consul.builder().withHostAndPort(hostAndPort).build();
                 KeyValueClient kvClient = consul.keyValueClient();
                 Optional<Value> valueOpt = kvClient.getValue(prefix + reqKey);
+                answered = true;
                 if(!valueOpt.isPresent()) {
                     LOG.log(Level.FINE, "key not found in consul: " + prefix + reqKey);
                 }else{
@@ -191,18 +239,18 @@ implements MutablePropertySource{
                 }
             } catch(Exception e){
                 LOG.log(Level.FINE, "etcd access failed on " + hostAndPort + ", trying next...", e);
+                failure = e;
             }
         }
-        if(val!=null){
-            this.configMap.put(reqKey, val);
+        if(!answered){
+            throw new IllegalStateException("No consul backend available for key: " + prefix + reqKey, failure);
         }
         return val;
     }
 
     @Override
     public Map<String, PropertyValue> getProperties() {
-        checkRefresh();
-        return Collections.unmodifiableMap(configMap);
+        return Collections.unmodifiableMap(cache.get());
     }
 
     @Override
@@ -244,7 +292,7 @@ implements MutablePropertySource{
     protected String toStringValues() {
         return  super.toStringValues() +
                 "  prefix=" + prefix + '\n' +
-                "  cacheTimeout=" + timeout + '\n' +
+                "  cacheTimeout=" + cache.getValidUntil() + '\n' +
                 "  backends=" + this.consulBackends + '\n';
     }
 
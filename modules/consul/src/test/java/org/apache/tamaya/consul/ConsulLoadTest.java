@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tamaya.consul;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test harness for the consul property source, running against an in-process {@link MockConsulServer}.
+ * The test is only executed, if the key counts to be measured are configured, e.g.
+ * {@code -Dtamaya.loadtest.keys=10000,100000}. Optionally a server latency in milliseconds
+ * can be configured with {@code -Dtamaya.loadtest.latency=5}. Since consul is accessed per key,
+ * the cold start time is the time needed to read all keys once.
+ */
+public class ConsulLoadTest {
+
+    private static final int GET_ITERATIONS = 1_000_000;
+    private static final long REFRESH_DURATION = TimeUnit.SECONDS.toNanos(5);
+    private static int[] keyCounts;
+    private static long latency;
+
+    @BeforeClass
+    public static void setup() {
+        String keys = System.getProperty("tamaya.loadtest.keys");
+        if (keys != null) {
+            keyCounts = Arrays.stream(keys.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+            latency = Long.getLong("tamaya.loadtest.latency", 0L);
+        } else {
+            System.out.println("Disabling consul load tests, configure with -Dtamaya.loadtest.keys=10000,100000");
+        }
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        if (keyCounts == null) {
+            return;
+        }
+        for (int keyCount : keyCounts) {
+            try (MockConsulServer server = new MockConsulServer()) {
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < keyCount; i++) {
+                    values.put("load.key" + i, "value" + i);
+                }
+                server.putAll(values);
+                server.setLatency(latency);
+                measure(server, keyCount);
+            }
+        }
+    }
+
+    private void measure(MockConsulServer server, int keyCount) {
+        long start = System.nanoTime();
+        ConsulPropertySource propertySource = new ConsulPropertySource(
+                Collections.singletonList(server.getHostAndPort()));
+        for (int i = 0; i < keyCount; i++) {
+            propertySource.get("load.key" + i);
+        }
+        assertThat(propertySource.getProperties()).hasSize(keyCount);
+        long coldStart = System.nanoTime() - start;
+
+        long[] samples = new long[GET_ITERATIONS];
+        for (int i = 0; i < GET_ITERATIONS; i++) {
+            String key = "load.key" + ThreadLocalRandom.current().nextInt(keyCount);
+            long t = System.nanoTime();
+            propertySource.get(key);
+            samples[i] = System.nanoTime() - t;
+        }
+        Arrays.sort(samples);
+
+        int refreshes = 0;
+        start = System.nanoTime();
+        while (System.nanoTime() - start < REFRESH_DURATION) {
+            propertySource.refresh();
+            refreshes++;
+        }
+        double refreshRate = refreshes / ((System.nanoTime() - start) / 1_000_000_000d);
+
+        System.out.println(String.format("consul load test: keys=%d, coldStart=%dms, get p50=%dns, p99=%dns, " +
+                        "max=%dns, refresh=%.2f/s, cache=%s",
+                keyCount, TimeUnit.NANOSECONDS.toMillis(coldStart), samples[GET_ITERATIONS / 2],
+                samples[GET_ITERATIONS * 99 / 100], samples[GET_ITERATIONS - 1], refreshRate,
+                propertySource.getCache().getStatistics()));
+    }
+}
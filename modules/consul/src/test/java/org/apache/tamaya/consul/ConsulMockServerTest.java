@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tamaya.consul;
+
+import org.apache.tamaya.mutableconfig.ConfigChangeRequest;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the consul integration against an in-process {@link MockConsulServer}.
+ */
+public class ConsulMockServerTest {
+
+    private static MockConsulServer server;
+
+    @BeforeClass
+    public static void start() throws IOException {
+        server = new MockConsulServer();
+        server.put("k1", "v1");
+        server.put("k2", "v2");
+    }
+
+    @AfterClass
+    public static void stop() {
+        server.close();
+    }
+
+    @Test
+    public void testGet() {
+        ConsulPropertySource propertySource = new ConsulPropertySource(
+                Collections.singletonList(server.getHostAndPort()));
+        assertThat(propertySource.get("k1").getValue()).isEqualTo("v1");
+        assertThat(propertySource.get("k2").getValue()).isEqualTo("v2");
+        assertThat(propertySource.get("foo")).isNull();
+        assertThat(propertySource.getProperties()).containsKeys("k1", "k2");
+    }
+
+    @Test
+    public void testApplyChange() {
+        ConsulPropertySource propertySource = new ConsulPropertySource(
+                Collections.singletonList(server.getHostAndPort()));
+        ConfigChangeRequest request = new ConfigChangeRequest("testApplyChange");
+        request.put("k3", "v3");
+        propertySource.applyChange(request);
+        assertThat(server.get("k3")).isEqualTo("v3");
+        request = new ConfigChangeRequest("testApplyChange2");
+        request.remove("k3");
+        propertySource.applyChange(request);
+        assertThat(server.get("k3")).isNull();
+    }
+
+    @Test
+    public void testFailover() throws IOException {
+        try (MockConsulServer failing = new MockConsulServer()) {
+            failing.setFailureRate(1.0);
+            ConsulPropertySource propertySource = new ConsulPropertySource(
+                    Arrays.asList(failing.getHostAndPort(), server.getHostAndPort()));
+            assertThat(propertySource.get("k2").getValue()).isEqualTo("v2");
+            assertThat(failing.getRequestCount()).isGreaterThan(0L);
+        }
+    }
+
+    @Test
+    public void testRefreshDuringOutageKeepsEntries() throws IOException {
+        try (MockConsulServer outage = new MockConsulServer()) {
+            outage.put("k1", "v1");
+            ConsulPropertySource propertySource = new ConsulPropertySource(
+                    Collections.singletonList(outage.getHostAndPort()));
+            assertThat(propertySource.get("k1").getValue()).isEqualTo("v1");
+            outage.setFailureRate(1.0);
+            propertySource.refresh();
+            assertThat(propertySource.getProperties()).containsKeys("k1");
+            assertThat(propertySource.get("k1").getValue()).isEqualTo("v1");
+            assertThat(propertySource.getCache().getFailureCount()).isGreaterThan(0L);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tamaya.consul;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for a Consul agent, implementing the subset of the Consul HTTP API used
+ * by {@link AbstractConsulPropertySource}: {@code GET /v1/agent/self} (ping) and
+ * {@code GET/PUT/DELETE /v1/kv/...}. Latency and failures can be injected to test the behaviour
+ * of the property source.
+ */
+public final class MockConsulServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong index = new AtomicLong();
+    private final AtomicLong requestCount = new AtomicLong();
+    private volatile long latency;
+    private volatile double failureRate;
+
+    private static final class Entry {
+        final String value;
+        final long createIndex;
+        final long modifyIndex;
+
+        Entry(String value, long createIndex, long modifyIndex) {
+            this.value = value;
+            this.createIndex = createIndex;
+            this.modifyIndex = modifyIndex;
+        }
+    }
+
+    /**
+     * Starts a new server on a free local port.
+     * @throws IOException if the server cannot be started.
+     */
+    public MockConsulServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/agent/self", this::handleSelf);
+        server.createContext("/v1/status/leader", this::handleLeader);
+        server.createContext("/v1/kv", this::handleKeyValue);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Get the server address in the form {@code host:port}, as used by {@link ConsulPropertySource}.
+     * @return the address.
+     */
+    public String getHostAndPort() {
+        return "127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Sets the latency added to each request.
+     * @param millis the latency in milliseconds.
+     */
+    public void setLatency(long millis) {
+        this.latency = millis;
+    }
+
+    /**
+     * Sets the rate of requests failing. Failing requests are aborted without response, as with
+     * a crashed server.
+     * @param failureRate the rate, between 0 and 1.
+     */
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Get the number of requests received.
+     * @return the request count.
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Stores a value without going through HTTP.
+     * @param key the key, not null.
+     * @param value the value, not null.
+     */
+    public void put(String key, String value) {
+        long idx = index.incrementAndGet();
+        Entry prev = entries.get(key);
+        entries.put(key, new Entry(value, prev == null ? idx : prev.createIndex, idx));
+    }
+
+    /**
+     * Stores the given values without going through HTTP.
+     * @param values the values, not null.
+     */
+    public void putAll(Map<String, String> values) {
+        values.forEach(this::put);
+    }
+
+    /**
+     * Access a value stored.
+     * @param key the key, not null.
+     * @return the value, or null.
+     */
+    public String get(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : entry.value;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private boolean simulate(HttpExchange exchange) {
+        requestCount.incrementAndGet();
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            exchange.close();
+            return false;
+        }
+        return true;
+    }
+
+    private void handleSelf(HttpExchange exchange) throws IOException {
+        if (simulate(exchange)) {
+            send(exchange, 200, "{\"Config\":{\"NodeName\":\"mock\"},\"Member\":{\"Name\":\"mock\"}}");
+        }
+    }
+
+    private void handleLeader(HttpExchange exchange) throws IOException {
+        if (simulate(exchange)) {
+            send(exchange, 200, "\"" + getHostAndPort() + "\"");
+        }
+    }
+
+    private void handleKeyValue(HttpExchange exchange) throws IOException {
+        if (!simulate(exchange)) {
+            return;
+        }
+        String path = exchange.getRequestURI().getPath().substring("/v1/kv".length());
+        String key = path.startsWith("/") ? path.substring(1) : path;
+        switch (exchange.getRequestMethod()) {
+            case "GET":
+                Entry entry = entries.get(key);
+                if (entry == null) {
+                    send(exchange, 404, "");
+                } else {
+                    send(exchange, 200, "[{\"LockIndex\":0,\"Key\":\"" + escape(key) + "\",\"Flags\":0,\"Value\":\""
+                            + Base64.getEncoder().encodeToString(entry.value.getBytes(StandardCharsets.UTF_8))
+                            + "\",\"CreateIndex\":" + entry.createIndex + ",\"ModifyIndex\":" + entry.modifyIndex + "}]");
+                }
+                break;
+            case "PUT":
+                put(key, readBody(exchange));
+                send(exchange, 200, "true");
+                break;
+            case "DELETE":
+                entries.remove(key);
+                send(exchange, 200, "true");
+                break;
+            default:
+                send(exchange, 405, "");
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            int read;
+            while ((read = in.read(buf)) > 0) {
+                out.write(buf, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        if (bytes.length == 0) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
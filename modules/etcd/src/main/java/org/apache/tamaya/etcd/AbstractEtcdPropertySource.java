@@ -18,6 +18,7 @@
  */
 package org.apache.tamaya.etcd;
 
+import org.apache.tamaya.functions.RefreshAheadCache;
 import org.apache.tamaya.mutableconfig.ConfigChangeRequest;
 import org.apache.tamaya.mutableconfig.spi.MutablePropertySource;
 import org.apache.tamaya.spi.ChangeSupport;
@@ -25,8 +26,6 @@ import org.apache.tamaya.spi.PropertyValue;
 import org.apache.tamaya.spisupport.propertysource.BasePropertySource;
 
 import java.util.*;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -49,12 +48,9 @@ public abstract class AbstractEtcdPropertySource extends BasePropertySource
 
     private Map<String,String> metaData = new HashMap<>();
 
-    private AtomicLong timeoutDuration = new AtomicLong(TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES));
-
-    private AtomicLong timeout = new AtomicLong();
-
-    /** The Hazelcast config mapProperties used. */
-    private Map<String, PropertyValue> configMap = new HashMap<>();
+    /** The cache of the etcd config mapProperties used. */
+    private final RefreshAheadCache<Map<String, PropertyValue>> cache =
+            new RefreshAheadCache<>("etcd", this::loadProperties, Collections.emptyMap());
 
     public AbstractEtcdPropertySource(){
         this("etcd");
@@ -70,7 +66,7 @@ public abstract class AbstractEtcdPropertySource extends BasePropertySource
      * @return the current timeout, or 0 if no data has been loaded at all.
      */
     public long getValidUntil(){
-        return timeout.get();
+        return cache.getValidUntil();
     }
 
     /**
@@ -78,7 +74,7 @@ public abstract class AbstractEtcdPropertySource extends BasePropertySource
      * @return the timeout duration after which data will be reloaded.
      */
     public long getCachePeriod(){
-        return timeoutDuration.get();
+        return cache.getCachePeriod();
     }
 
     /**
@@ -86,7 +82,16 @@ public abstract class AbstractEtcdPropertySource extends BasePropertySource
      * @param millis the millis
      */
     public void setCacheTimeout(long millis){
-        this.timeoutDuration.set(millis);
+        this.cache.setCachePeriod(millis);
+    }
+
+    /**
+     * Get the cache used, e.g. for accessing the cache statistics or configuring the refresh ahead
+     * and staleness periods.
+     * @return the cache, never null.
+     */
+    public RefreshAheadCache<Map<String, PropertyValue>> getCache(){
+        return cache;
     }
 
     /**
@@ -130,24 +135,30 @@ public abstract class AbstractEtcdPropertySource extends BasePropertySource
     }
 
     /**
-     * Checks for a cache timeout and optionally reloads the data.
+     * Checks for a cache timeout and optionally reloads the data. Expired data is reloaded in the
+     * background, see {@link RefreshAheadCache}.
      */
     public void checkRefresh(){
-        if(this.timeout.get() < System.currentTimeMillis()){
-            refresh();
-        }
+        cache.get();
     }
 
     /**
      * Reloads the data and updated the cache timeouts.
      */
     public void refresh() {
+        cache.refresh();
+    }
+
+    /**
+     * Loads the data from the first etcd backend available.
+     * @return the data loaded, or null, if no backend could be accessed.
+     */
+    private Map<String, PropertyValue> loadProperties() {
         for(EtcdAccessor accessor: this.etcdBackends){
             try{
                 Map<String, String> props = accessor.getProperties(directory);
                 if(!props.containsKey("_ERROR")) {
-                    this.configMap = mapPrefix(props);
-                    this.timeout.set(System.currentTimeMillis() + timeoutDuration.get());
+                    return mapPrefix(props);
                 } else{
                     LOG.log(Level.FINE, "etcd error on " + accessor.getUrl() + ": " + props.get("_ERROR"));
                 }
@@ -155,6 +166,7 @@ public abstract class AbstractEtcdPropertySource extends BasePropertySource
                 LOG.log(Level.FINE, "etcd access failed on " + accessor.getUrl() + ", trying next...", e);
             }
         }
+        return null;
     }
 
     @Override
@@ -173,14 +185,12 @@ public abstract class AbstractEtcdPropertySource extends BasePropertySource
 
     @Override
     public PropertyValue get(String key) {
-        checkRefresh();
-        return configMap.get(key);
+        return cache.get().get(key);
     }
 
     @Override
     public Map<String, PropertyValue> getProperties() {
-        checkRefresh();
-        return configMap;
+        return cache.get();
     }
 
     @Override
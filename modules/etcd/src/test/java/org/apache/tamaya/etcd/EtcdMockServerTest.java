@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tamaya.etcd;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the etcd integration against an in-process {@link MockEtcdServer}.
+ */
+public class EtcdMockServerTest {
+
+    private static MockEtcdServer server;
+
+    @BeforeClass
+    public static void start() throws IOException {
+        server = new MockEtcdServer();
+        server.put("k1", "v1");
+        server.put("k2", "v2");
+    }
+
+    @AfterClass
+    public static void stop() {
+        server.close();
+    }
+
+    @Test
+    public void testAccessor() {
+        EtcdAccessor accessor = new EtcdAccessor(server.getUrl());
+        assertThat(accessor.getVersion()).contains("etcd");
+        assertThat(accessor.get("k1").get("k1")).isEqualTo("v1");
+        Map<String, String> result = accessor.set("k3", "v3");
+        assertThat(result.get("k3")).isEqualTo("v3");
+        assertThat(accessor.getProperties("")).containsEntry("k3", "v3");
+        result = accessor.delete("k3");
+        assertThat(result.get("_k3.prevNode.value")).isEqualTo("v3");
+        assertThat(accessor.get("k3").get("k3")).isNull();
+    }
+
+    @Test
+    public void testPropertySource() {
+        EtcdPropertySource propertySource = new EtcdPropertySource(server.getUrl());
+        assertThat(propertySource.getProperties()).containsKeys("k1", "k2");
+        assertThat(propertySource.get("k1").getValue()).isEqualTo("v1");
+        assertThat(propertySource.getCache().getRefreshCount()).isGreaterThan(0L);
+    }
+
+    @Test
+    public void testFailover() throws IOException {
+        try (MockEtcdServer failing = new MockEtcdServer()) {
+            failing.setFailureRate(1.0);
+            EtcdPropertySource propertySource = new EtcdPropertySource(failing.getUrl(), server.getUrl());
+            assertThat(propertySource.get("k2").getValue()).isEqualTo("v2");
+            assertThat(failing.getRequestCount()).isGreaterThan(0L);
+        }
+    }
+
+    @Test
+    public void testStaleDataServedDuringSlowRefresh() throws Exception {
+        try (MockEtcdServer slow = new MockEtcdServer()) {
+            slow.put("k1", "v1");
+            EtcdPropertySource propertySource = new EtcdPropertySource(slow.getUrl());
+            propertySource.setCacheTimeout(10L);
+            propertySource.getCache().setMaxStaleness(60_000L);
+            assertThat(propertySource.get("k1").getValue()).isEqualTo("v1");
+            slow.setLatency(1000L);
+            Thread.sleep(20L);
+            long start = System.currentTimeMillis();
+            assertThat(propertySource.get("k1").getValue()).isEqualTo("v1");
+            assertThat(System.currentTimeMillis() - start).isLessThan(500L);
+        }
+    }
+}
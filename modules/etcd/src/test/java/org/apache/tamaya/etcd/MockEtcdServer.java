@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tamaya.etcd;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for an etcd server, implementing the subset of the etcd v2 keys API used
+ * by {@link EtcdAccessor}: {@code GET /version}, and {@code GET/PUT/DELETE /v2/keys/...}. Latency and
+ * failures can be injected to test the behaviour of the property source.
+ */
+public final class MockEtcdServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final NavigableMap<String, Node> nodes = new ConcurrentSkipListMap<>();
+    private final AtomicLong index = new AtomicLong();
+    private final AtomicLong requestCount = new AtomicLong();
+    private volatile long latency;
+    private volatile double failureRate;
+
+    private static final class Node {
+        final String value;
+        final long createdIndex;
+        final long modifiedIndex;
+        final Integer ttl;
+
+        Node(String value, long createdIndex, long modifiedIndex, Integer ttl) {
+            this.value = value;
+            this.createdIndex = createdIndex;
+            this.modifiedIndex = modifiedIndex;
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * Starts a new server on a free local port.
+     * @throws IOException if the server cannot be started.
+     */
+    public MockEtcdServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/version", this::handleVersion);
+        server.createContext("/v2/keys", this::handleKeys);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Get the server URL, e.g. {@code http://127.0.0.1:4711}.
+     * @return the URL.
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Sets the latency added to each request.
+     * @param millis the latency in milliseconds.
+     */
+    public void setLatency(long millis) {
+        this.latency = millis;
+    }
+
+    /**
+     * Sets the rate of requests failing. Failing requests are aborted without response, as with
+     * a crashed server.
+     * @param failureRate the rate, between 0 and 1.
+     */
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Get the number of requests received.
+     * @return the request count.
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Stores a value without going through HTTP.
+     * @param key the key, not null.
+     * @param value the value, not null.
+     */
+    public void put(String key, String value) {
+        long idx = index.incrementAndGet();
+        Node prev = nodes.get(key);
+        nodes.put(key, new Node(value, prev==null?idx:prev.createdIndex, idx, null));
+    }
+
+    /**
+     * Stores the given values without going through HTTP.
+     * @param values the values, not null.
+     */
+    public void putAll(Map<String, String> values) {
+        values.forEach(this::put);
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        nodes.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private boolean simulate(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            exchange.close();
+            return false;
+        }
+        return true;
+    }
+
+    private void handleVersion(HttpExchange exchange) throws IOException {
+        if (simulate(exchange)) {
+            send(exchange, 200, "{\"etcdserver\":\"2.3.8\",\"etcdcluster\":\"2.3.0\"}");
+        }
+    }
+
+    private void handleKeys(HttpExchange exchange) throws IOException {
+        if (!simulate(exchange)) {
+            return;
+        }
+        String path = exchange.getRequestURI().getPath().substring("/v2/keys".length());
+        String key = path.startsWith("/") ? path.substring(1) : path;
+        switch (exchange.getRequestMethod()) {
+            case "GET":
+                handleGet(exchange, key);
+                break;
+            case "PUT":
+                handlePut(exchange, key);
+                break;
+            case "DELETE":
+                handleDelete(exchange, key);
+                break;
+            default:
+                send(exchange, 405, "{\"message\":\"method not allowed\"}");
+        }
+    }
+
+    private void handleGet(HttpExchange exchange, String key) throws IOException {
+        Node node = key.isEmpty() ? null : nodes.get(key);
+        if (node != null) {
+            StringBuilder b = new StringBuilder("{\"action\":\"get\",\"node\":");
+            appendNode(b, key, node);
+            send(exchange, 200, b.append('}').toString());
+            return;
+        }
+        String prefix = key.isEmpty() ? "" : key + "/";
+        NavigableMap<String, Node> children = prefix.isEmpty() ? nodes : nodes.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (!prefix.isEmpty() && children.isEmpty()) {
+            send(exchange, 404, "{\"errorCode\":100,\"message\":\"Key not found\",\"cause\":\"/" + escape(key)
+                    + "\",\"index\":" + index.get() + "}");
+            return;
+        }
+        StringBuilder b = new StringBuilder(64 + children.size() * 96);
+        b.append("{\"action\":\"get\",\"node\":{\"key\":\"/").append(escape(key)).append("\",\"dir\":true,\"nodes\":[");
+        boolean first = true;
+        for (Map.Entry<String, Node> en : children.entrySet()) {
+            if (!first) {
+                b.append(',');
+            }
+            first = false;
+            appendNode(b, en.getKey(), en.getValue());
+        }
+        send(exchange, 200, b.append("]}}").toString());
+    }
+
+    private void handlePut(HttpExchange exchange, String key) throws IOException {
+        Map<String, String> form = parseForm(readBody(exchange));
+        String value = form.get("value");
+        if (value == null) {
+            send(exchange, 400, "{\"errorCode\":209,\"message\":\"Value is Required in POST form\"}");
+            return;
+        }
+        Integer ttl = form.containsKey("ttl") ? Integer.valueOf(form.get("ttl")) : null;
+        long idx = index.incrementAndGet();
+        Node prev = nodes.get(key);
+        Node node = new Node(value, prev == null ? idx : prev.createdIndex, idx, ttl);
+        nodes.put(key, node);
+        StringBuilder b = new StringBuilder("{\"action\":\"set\",\"node\":");
+        appendNode(b, key, node);
+        if (prev != null) {
+            b.append(",\"prevNode\":");
+            appendNode(b, key, prev);
+        }
+        send(exchange, prev == null ? 201 : 200, b.append('}').toString());
+    }
+
+    private void handleDelete(HttpExchange exchange, String key) throws IOException {
+        Node prev = nodes.remove(key);
+        if (prev == null) {
+            send(exchange, 404, "{\"errorCode\":100,\"message\":\"Key not found\",\"cause\":\"/" + escape(key)
+                    + "\",\"index\":" + index.get() + "}");
+            return;
+        }
+        long idx = index.incrementAndGet();
+        StringBuilder b = new StringBuilder("{\"action\":\"delete\",\"node\":{\"key\":\"/").append(escape(key))
+                .append("\",\"modifiedIndex\":").append(idx)
+                .append(",\"createdIndex\":").append(prev.createdIndex).append("},\"prevNode\":");
+        appendNode(b, key, prev);
+        send(exchange, 200, b.append('}').toString());
+    }
+
+    private static void appendNode(StringBuilder b, String key, Node node) {
+        b.append("{\"key\":\"/").append(escape(key)).append("\",\"value\":\"").append(escape(node.value))
+                .append("\",\"modifiedIndex\":").append(node.modifiedIndex)
+                .append(",\"createdIndex\":").append(node.createdIndex);
+        if (node.ttl != null) {
+            b.append(",\"ttl\":").append(node.ttl);
+        }
+        b.append('}');
+    }
+
+    private static String escape(String value) {
+        StringBuilder b = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                if (b == null) {
+                    b = new StringBuilder(value.length() + 8).append(value, 0, i);
+                }
+                if (c == '"' || c == '\\') {
+                    b.append('\\').append(c);
+                } else {
+                    b.append(String.format("\\u%04x", (int) c));
+                }
+            } else if (b != null) {
+                b.append(c);
+            }
+        }
+        return b == null ? value : b.toString();
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            int read;
+            while ((read = in.read(buf)) > 0) {
+                out.write(buf, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> parseForm(String body) throws IOException {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int idx = pair.indexOf('=');
+            if (idx > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, idx), "UTF-8"),
+                        URLDecoder.decode(pair.substring(idx + 1), "UTF-8"));
+            }
+        }
+        return form;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -143,6 +143,20 @@ public final class PropertySourceChangeBuilder {
         return this;
     }
 
+    /**
+     * Records a single change, e.g. when the changed keys are already known and comparing the complete
+     * property sources is not necessary.
+     *
+     * @param key the changed key, not null.
+     * @param oldValue the previous value, or null, if the key was added.
+     * @param newValue the new value, or null, if the key was removed.
+     * @return the builder for chaining.
+     */
+    public PropertySourceChangeBuilder addChange(String key, String oldValue, String newValue) {
+        this.delta.put(key, new PropertyChangeEvent(this.source, Objects.requireNonNull(key), oldValue, newValue));
+        return this;
+    }
+
     /**
      * Get the current values, also considering any changes recorded within this change setCurrent.
      *
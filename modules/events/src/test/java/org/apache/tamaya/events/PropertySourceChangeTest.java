@@ -65,6 +65,22 @@ public class PropertySourceChangeTest {
         assertThat(change.getChanges()).isNotEmpty();
     }
 
+    @Test
+    public void testAddChange() throws Exception {
+        PropertySourceChange change = PropertySourceChangeBuilder.of(MY_PS)
+                .addChange("added", null, "a")
+                .addChange("updated", "b", "c")
+                .addChange("removed", "d", null)
+                .build();
+        assertThat(change.getChanges()).hasSize(3);
+        assertThat(change.isAdded("added")).isTrue();
+        assertThat(change.isUpdated("updated")).isTrue();
+        assertThat(change.isRemoved("removed")).isTrue();
+        assertThat(change.getAddedSize()).isEqualTo(1);
+        assertThat(change.getUpdatedSize()).isEqualTo(1);
+        assertThat(change.getRemovedSize()).isEqualTo(1);
+    }
+
     @Test
     public void testGetRemovedSize() throws Exception {
         PropertySourceChange change = PropertySourceChangeBuilder.of(MY_PS)
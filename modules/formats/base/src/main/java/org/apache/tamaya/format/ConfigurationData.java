@@ -39,6 +39,8 @@ public final class ConfigurationData {
     private final ConfigurationFormat format;
     /** The resource read. */
     private final String resource;
+    /** Flag, if the data is immutable. */
+    private final boolean immutable;
 
 
     /**
@@ -51,6 +53,7 @@ public final class ConfigurationData {
         this.format = Objects.requireNonNull(format);
         this.resource =Objects.requireNonNull(resource);
         this.data.addAll(Objects.requireNonNull(data));
+        this.immutable = false;
     }
 
     /**
@@ -63,6 +66,21 @@ public final class ConfigurationData {
         this.format = Objects.requireNonNull(format);
         this.resource =Objects.requireNonNull(resource);
         this.data.addAll(Arrays.asList(data));
+        this.immutable = false;
+    }
+
+    /**
+     * Constructor used for creating immutable instances.
+     * @param template the data to be copied, not null.
+     */
+    private ConfigurationData(ConfigurationData template){
+        this.format = template.format;
+        this.resource = template.resource;
+        for(PropertyValue value:template.data){
+            this.data.add(value.immutable());
+        }
+        this.data = Collections.unmodifiableList(this.data);
+        this.immutable = true;
     }
 
     /**
@@ -89,6 +107,26 @@ public final class ConfigurationData {
         return data;
     }
 
+    /**
+     * Get an immutable version of this data, hereby also making the contained values immutable.
+     * Immutable instances can be shared safely, e.g. by caching them.
+     * @return an immutable instance, never null.
+     */
+    public ConfigurationData immutable() {
+        if(immutable){
+            return this;
+        }
+        return new ConfigurationData(this);
+    }
+
+    /**
+     * Checks if this instance is immutable.
+     * @return true, if this instance and its data are immutable.
+     */
+    public boolean isImmutable() {
+        return immutable;
+    }
+
     /**
      * Checks if no properties are contained in this data item.
      *
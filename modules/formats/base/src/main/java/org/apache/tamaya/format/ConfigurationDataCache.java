@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Cache of parsed {@link ConfigurationData}, keyed by the resource's URL. An entry is reused as long as the
+ * resource is unchanged: local files are checked by their modification time and size first, so an unchanged
+ * file is not even read, all other resources (and touched files) are compared by a checksum of their content.
+ * Cached data is always {@link ConfigurationData#immutable() immutable}. The cache is bounded by the total
+ * size of the cached resources, the least recently used entries are evicted first.
+ *
+ * <p>Caching is optional, it is enabled by passing an instance to
+ * {@link ConfigurationFormats#setDataCache(ConfigurationDataCache)}.</p>
+ */
+public final class ConfigurationDataCache {
+
+    private static final Logger LOG = Logger.getLogger(ConfigurationDataCache.class.getName());
+
+    /** The default maximal size of all cached resources, in bytes. */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Parses the data of a resource, if it is not cached.
+     */
+    @FunctionalInterface
+    public interface Parser {
+        /**
+         * Parses the given data.
+         * @param resource the resource name, not null.
+         * @param data the resource's data, not null.
+         * @return the data parsed, or null.
+         * @throws IOException if parsing fails.
+         */
+        ConfigurationData parse(String resource, InputStreamFactory data) throws IOException;
+    }
+
+    /** A cached entry. */
+    private static final class Entry {
+        final ConfigurationData data;
+        final long checksum;
+        final int size;
+        volatile long lastModified;
+
+        Entry(ConfigurationData data, long checksum, int size, long lastModified) {
+            this.data = data;
+            this.checksum = checksum;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /** The entries, in access order. */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** The maximal size of the cached resources. */
+    private final long maxBytes;
+    /** The current size of the cached resources. */
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a new cache with a maximal size of {@link #DEFAULT_MAX_BYTES}.
+     */
+    public ConfigurationDataCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a new cache.
+     * @param maxBytes the maximal total size of the cached resources, in bytes.
+     */
+    public ConfigurationDataCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Reads the given URL, hereby returning the cached data, if the URL's content did not change.
+     * @param url the URL, not null.
+     * @param formats the formats acceptable, or empty for any format. Cached data read by other formats is ignored.
+     * @param parser the parser used, if the data is not cached, not null.
+     * @return the data, or null, if the parser could not read the data.
+     * @throws IOException if the URL cannot be read.
+     */
+    public ConfigurationData read(URL url, Collection<ConfigurationFormat> formats, Parser parser)
+            throws IOException {
+        String key = url.toExternalForm();
+        File file = toFile(url);
+        long lastModified = file == null ? 0L : file.lastModified();
+        Entry entry = getEntry(key, formats);
+        if (entry != null && lastModified != 0L && entry.lastModified == lastModified
+                && entry.size == file.length()) {
+            return hit(entry);
+        }
+        try (InputStreamFactory factory = InputStreamFactory.of(url)) {
+            CRC32 crc = new CRC32();
+            crc.update(factory.getByteBuffer());
+            long checksum = crc.getValue();
+            if (entry != null && entry.checksum == checksum && entry.size == factory.size()) {
+                entry.lastModified = lastModified;
+                return hit(entry);
+            }
+            synchronized (this) {
+                misses++;
+            }
+            ConfigurationData data = parser.parse(key, factory);
+            if (data != null) {
+                data = data.immutable();
+                put(key, new Entry(data, checksum, factory.size(), lastModified));
+            }
+            return data;
+        }
+    }
+
+    /**
+     * Reads the given URL using the given format, hereby returning the cached data, if the URL's content did
+     * not change.
+     * @param url the URL, not null.
+     * @param format the format, not null.
+     * @return the data, or null, if the format could not read the data.
+     * @throws IOException if the URL cannot be read.
+     */
+    public ConfigurationData read(URL url, ConfigurationFormat format) throws IOException {
+        return read(url, Collections.singletonList(format), (resource, data) -> {
+            try (InputStream is = data.createInputStream()) {
+                return format.readConfiguration(resource, is);
+            }
+        });
+    }
+
+    private synchronized Entry getEntry(String key, Collection<ConfigurationFormat> formats) {
+        Entry entry = entries.get(key);
+        if (entry != null && !formats.isEmpty() && !formats.contains(entry.data.getFormat())) {
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized ConfigurationData hit(Entry entry) {
+        hits++;
+        return entry.data;
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            bytes -= old.size;
+        }
+        if (entry.size > maxBytes) {
+            LOG.finest(() -> "Not caching " + key + ", it exceeds the maximal cache size.");
+            return;
+        }
+        entries.put(key, entry);
+        bytes += entry.size;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            bytes -= eldest.getValue().size;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private static File toFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (Exception e) {
+            LOG.log(Level.FINEST, "Not a local file: " + url, e);
+            return null;
+        }
+    }
+
+    /**
+     * Removes the entry of the given URL.
+     * @param url the URL, not null.
+     */
+    public synchronized void invalidate(URL url) {
+        Entry old = entries.remove(url.toExternalForm());
+        if (old != null) {
+            bytes -= old.size;
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Get the number of cached entries.
+     * @return the number of entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the total size of the cached resources.
+     * @return the size in bytes.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Get the maximal total size of the cached resources.
+     * @return the maximal size in bytes.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Access the cache statistics, containing the number of {@code hits}, {@code misses}, {@code evictions},
+     * {@code entries} and {@code bytes}.
+     * @return the statistics, never null.
+     */
+    public synchronized Map<String, Long> getStatistics() {
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        stats.put("entries", (long) entries.size());
+        stats.put("bytes", bytes);
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigurationDataCache" + getStatistics();
+    }
+}
@@ -28,10 +28,20 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.format.formats.BinaryConfigurationFormat;
 import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.ServiceContextManager;
 
@@ -47,6 +57,42 @@ public final class ConfigurationFormats {
 
     private ClassLoader classLoader;
 
+    /** The optional cache of data read from URLs. */
+    private volatile ConfigurationDataCache dataCache;
+
+    /**
+     * Holder of the default executors used by
+     * {@link #readConfigurationDataAsync(Collection, Collection, long, TimeUnit)}, created on first use.
+     */
+    private static final class AsyncSupport {
+        /** Reads the URLs, bounded by the number of processors, idle threads are released. */
+        static final ThreadPoolExecutor READERS;
+        /** Completes reads that did not finish within their timeout. */
+        static final ScheduledExecutorService TIMEOUTS;
+
+        static {
+            int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+            AtomicInteger count = new AtomicInteger();
+            READERS = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "tamaya-format-reader-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            READERS.allowCoreThreadTimeOut(true);
+            ScheduledThreadPoolExecutor timeouts = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "tamaya-format-reader-timeouts");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timeouts.setRemoveOnCancelPolicy(true);
+            TIMEOUTS = timeouts;
+        }
+
+        private AsyncSupport() {
+        }
+    }
+
     /**
      * Singleton constructor.
      */
@@ -125,8 +171,7 @@ public final class ConfigurationFormats {
      * @throws IOException if the resource cannot be read.
      */
     public ConfigurationData readConfigurationData(final URL url) throws IOException {
-        final List<ConfigurationFormat> formats = getFormats(url);
-        return readConfigurationData(url, formats.toArray(new ConfigurationFormat[formats.size()]));
+        return readConfigurationData(url, getFormats(url), true);
     }
 
     /**
@@ -150,7 +195,45 @@ public final class ConfigurationFormats {
      * @throws IOException if the resource cannot be read.
      */
     public ConfigurationData readConfigurationData(URL url, Collection<ConfigurationFormat> formats) throws IOException {
-        return readConfigurationData(url.toString(), url.openStream(), formats);
+        return readConfigurationData(url, formats, formats.isEmpty());
+    }
+
+    /**
+     * Reads the given URL, using the data cache, if configured.
+     *
+     * @param url     the url from where to read, not null.
+     * @param formats the formats to try.
+     * @param detect  if true, the formats are ordered by the format detected from the content.
+     * @return the ConfigurationData read, or null.
+     * @throws IOException if the resource cannot be read.
+     */
+    private ConfigurationData readConfigurationData(URL url, Collection<ConfigurationFormat> formats, boolean detect)
+            throws IOException {
+        ConfigurationDataCache cache = this.dataCache;
+        if(cache != null){
+            return cache.read(url, formats, (resource, data) -> readConfigurationData(resource, data, formats, detect));
+        }
+        try(InputStreamFactory isFactory = InputStreamFactory.of(url)) {
+            return readConfigurationData(url.toString(), isFactory, formats, detect);
+        }
+    }
+
+    /**
+     * Access the cache used for data read from URLs.
+     *
+     * @return the cache, or null, if caching is disabled.
+     */
+    public ConfigurationDataCache getDataCache() {
+        return dataCache;
+    }
+
+    /**
+     * Sets the cache used for data read from URLs. By default no cache is used.
+     *
+     * @param dataCache the cache, or null for disabling caching.
+     */
+    public void setDataCache(ConfigurationDataCache dataCache) {
+        this.dataCache = dataCache;
     }
 
     /**
@@ -184,6 +267,82 @@ public final class ConfigurationFormats {
         return dataRead;
     }
 
+    /**
+     * Reads the given URLs concurrently on a shared, bounded executor. The data read is returned in the
+     * order of the URLs. URLs that cannot be read, or are not read within the given timeout, are logged
+     * and skipped, so a single slow or unavailable resource does not block the others.
+     *
+     * @param urls    the urls from where to read, not null.
+     * @param formats the formats to try, if empty all known formats are tried.
+     * @param timeout the maximal time for reading a single URL, {@code 0} or less for no timeout.
+     * @param unit    the unit of the timeout, not null.
+     * @return the future {@link org.apache.tamaya.format.ConfigurationData} of the URLs successfully decoded
+     * by the given formats, never null.
+     */
+    public CompletableFuture<Collection<ConfigurationData>> readConfigurationDataAsync(
+            Collection<URL> urls, Collection<ConfigurationFormat> formats, long timeout, TimeUnit unit) {
+        return readConfigurationDataAsync(urls, formats, AsyncSupport.READERS, timeout, unit);
+    }
+
+    /**
+     * Reads the given URLs concurrently using the given executor. The data read is returned in the
+     * order of the URLs. URLs that cannot be read, or are not read within the given timeout, are logged
+     * and skipped. The timeout of a URL starts when its read starts, so reads waiting for a free executor
+     * thread do not time out. Note that a read timed out is not interrupted, it still occupies its executor
+     * thread until it finishes.
+     *
+     * @param urls     the urls from where to read, not null.
+     * @param formats  the formats to try, if empty all known formats are tried.
+     * @param executor the executor reading the URLs, not null.
+     * @param timeout  the maximal time for reading a single URL, {@code 0} or less for no timeout.
+     * @param unit     the unit of the timeout, not null.
+     * @return the future {@link org.apache.tamaya.format.ConfigurationData} of the URLs successfully decoded
+     * by the given formats, never null.
+     */
+    public CompletableFuture<Collection<ConfigurationData>> readConfigurationDataAsync(
+            Collection<URL> urls, Collection<ConfigurationFormat> formats, Executor executor,
+            long timeout, TimeUnit unit) {
+        Objects.requireNonNull(executor);
+        Objects.requireNonNull(unit);
+        final List<CompletableFuture<ConfigurationData>> reads = new ArrayList<>(urls.size());
+        for (final URL url : urls) {
+            final CompletableFuture<ConfigurationData> read = new CompletableFuture<>();
+            executor.execute(() -> {
+                // the timeout starts with the read, not while the read is still queued
+                ScheduledFuture<?> timer = timeout > 0 ? AsyncSupport.TIMEOUTS.schedule(() -> {
+                    if (read.complete(null)) {
+                        LOG.warning("Reading " + url.toExternalForm() + " did not finish within " + timeout + " "
+                                + unit + ", skipping it.");
+                    }
+                }, timeout, unit) : null;
+                try {
+                    read.complete(readConfigurationData(url, formats));
+                } catch (final Exception e) {
+                    LOG.log(Level.WARNING, "Error reading file: " + url.toExternalForm(), e);
+                    read.complete(null);
+                } catch (final Error e) {
+                    read.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    if (timer != null) {
+                        timer.cancel(false);
+                    }
+                }
+            });
+            reads.add(read);
+        }
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture[0])).thenApply(v -> {
+            final List<ConfigurationData> dataRead = new ArrayList<>(reads.size());
+            for (CompletableFuture<ConfigurationData> read : reads) {
+                ConfigurationData data = read.join();
+                if (data != null) {
+                    dataRead.add(data);
+                }
+            }
+            return dataRead;
+        });
+    }
+
     /**
      * Tries to read configuration data from a given URL, hereby explicitly trying all given formats in order.
      *
@@ -211,22 +370,48 @@ public final class ConfigurationFormats {
     public ConfigurationData readConfigurationData(String resource, InputStream inputStream,
                                                           Collection<ConfigurationFormat> formats) throws IOException {
         Objects.requireNonNull(resource, "Config resource required for traceability.");
+        try(InputStreamFactory isFactory = new InputStreamFactory(Objects.requireNonNull(inputStream))) {
+            return readConfigurationData(resource, isFactory, formats, formats.isEmpty());
+        }
+    }
+
+    /**
+     * Tries to read configuration data, hereby trying all given formats in order. All formats read
+     * from views on the same data, which is read only once. If the formats were not given explicitly, the
+     * formats matching the data's content are tried first.
+     *
+     * @param resource    a descriptive name for the resource, not null.
+     * @param isFactory   the factory providing the data, not null.
+     * @param formats     the formats to try, if empty all known formats are tried.
+     * @param detect      if true, the formats are ordered by the format detected from the content.
+     * @return the ConfigurationData read, or null.
+     */
+    private ConfigurationData readConfigurationData(String resource, InputStreamFactory isFactory,
+                                                    Collection<ConfigurationFormat> formats, boolean detect)
+            throws IOException {
         if(formats.isEmpty()){
             formats = getFormats();
         }
-        try(InputStreamFactory isFactory = new InputStreamFactory(Objects.requireNonNull(inputStream))) {
-            for (final ConfigurationFormat format : formats) {
-                try (InputStream is = isFactory.createInputStream()) {
-                    final ConfigurationData data = format.readConfiguration(resource, is);
-                    if (data != null) {
-                        return data;
-                    }
-                } catch (final Exception e) {
-                    LOG.log(Level.INFO,
-                            "Format " + format.getClass().getName() + " failed to read resource " + resource, e);
+        if(detect && formats.size() > 1){
+            formats = FormatSniffer.order(formats, isFactory.getByteBuffer());
+        }
+        Exception lastError = null;
+        for (final ConfigurationFormat format : formats) {
+            try (InputStream is = isFactory.createInputStream()) {
+                final ConfigurationData data = format.readConfiguration(resource, is);
+                if (data != null) {
+                    return data;
                 }
+            } catch (final Exception e) {
+                lastError = e;
+                LOG.log(Level.FINEST,
+                        "Format " + format.getClass().getName() + " failed to read resource " + resource, e);
             }
         }
+        if(lastError != null) {
+            LOG.info("No format could read resource " + resource + ", tried: " + formats + ", last error: "
+                    + lastError);
+        }
         return null;
     }
 
@@ -242,7 +427,7 @@ public final class ConfigurationFormats {
      * @throws IOException if the URL's stream can not be opened.
      */
     public PropertySource createPropertySource(URL url, ConfigurationFormat... formats)throws IOException{
-        return createPropertySource(url.toString(), url.openStream(), formats);
+        return createPropertySource(url, Arrays.asList(formats));
     }
 
     /**
@@ -257,7 +442,18 @@ public final class ConfigurationFormats {
      * @throws IOException if the URL's stream can not be opened.
      */
     public PropertySource createPropertySource(URL url, Collection<ConfigurationFormat> formats)throws IOException{
-        return createPropertySource(url.toString(), url.openStream(), formats);
+        for(ConfigurationFormat format:formats.isEmpty() ? getFormats(url) : formats){
+            if(format instanceof BinaryConfigurationFormat && format.accepts(url)){
+                // compiled configuration is read in place instead of being decoded completely.
+                return ((BinaryConfigurationFormat)format).createPropertySource(url);
+            }
+        }
+        final ConfigurationData data = readConfigurationData(url, formats, formats.isEmpty());
+        if (data != null) {
+            return new MappedConfigurationDataPropertySource(data);
+        }
+        throw new ConfigException("No matching format found for "+url+", tried: "+
+                (formats.isEmpty() ? getFormats() : formats));
     }
 
     /**
@@ -292,23 +488,22 @@ public final class ConfigurationFormats {
                                                        Collection<ConfigurationFormat> formats) {
         Objects.requireNonNull(resource, "Config resource required for traceability.");
         try(InputStreamFactory isFactory = new InputStreamFactory(Objects.requireNonNull(inputStream))) {
-            if(formats.isEmpty()){
-                formats = getFormats();
-            }
-            for (final ConfigurationFormat format : formats) {
-                try (InputStream is = isFactory.createInputStream()) {
-                    final ConfigurationData data = format.readConfiguration(resource, is);
-                    if (data != null) {
-                        return new MappedConfigurationDataPropertySource(data);
-                    }
-                } catch (final Exception e) {
-                    LOG.log(Level.INFO,
-                            "Format " + format.getClass().getName() + " failed to read resource " + resource, e);
-                }
-            }
+            return createPropertySource(resource, isFactory, formats);
         }catch(IOException ioe){
             throw new ConfigException("Failed to read from input stream for "+resource, ioe);
         }
+    }
+
+    private PropertySource createPropertySource(String resource, InputStreamFactory isFactory,
+                                                Collection<ConfigurationFormat> formats) throws IOException {
+        boolean detect = formats.isEmpty();
+        if(detect){
+            formats = getFormats();
+        }
+        final ConfigurationData data = readConfigurationData(resource, isFactory, formats, detect);
+        if (data != null) {
+            return new MappedConfigurationDataPropertySource(data);
+        }
         throw new ConfigException("No matching format found for "+resource+", tried: "+ formats);
     }
 
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format;
+
+import org.apache.tamaya.format.formats.BinaryConfiguration;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cheap detection of the probable format of configuration data, based on the first few hundred bytes. The
+ * result is used for ordering the formats to be tried, so in most cases the first format tried succeeds.
+ * Detection only inspects the first meaningful line, skipping a byte order mark, whitespace and comments:
+ * <ul>
+ *     <li>{@code <} (e.g. the XML prolog) hints to XML.</li>
+ *     <li>{@code {} hints to JSON, HJSON or HOCON.</li>
+ *     <li>{@code [name]} hints to an INI section, any other {@code [} to a JSON array.</li>
+ *     <li>{@code ---} or {@code %YAML} hints to YAML.</li>
+ *     <li>{@code key: value} hints to YAML, {@code key = value} to properties or INI.</li>
+ * </ul>
+ * Compiled configuration is detected by its magic number.
+ */
+final class FormatSniffer {
+
+    /** The maximal number of bytes inspected. */
+    static final int SNIFF_LENGTH = 512;
+
+    private static final List<String> BINARY = Collections.singletonList("binary");
+    private static final List<String> XML = Collections.singletonList("xml-properties");
+    private static final List<String> OBJECT = Arrays.asList("json", "hjson", "hocon");
+    private static final List<String> ARRAY = Arrays.asList("json", "hjson", "yaml");
+    private static final List<String> INI = Arrays.asList("ini", "properties");
+    private static final List<String> YAML = Collections.singletonList("yaml");
+    private static final List<String> YAML_MAPPING = Arrays.asList("yaml", "properties", "hocon");
+    private static final List<String> PROPERTIES = Arrays.asList("properties", "ini", "hocon");
+
+    private FormatSniffer() {
+    }
+
+    /**
+     * Evaluates the names of the probable formats of the given data.
+     *
+     * @param data the data, not null. The buffer's position is not changed.
+     * @return the names of the probable formats, most likely first, or an empty list, if unknown.
+     */
+    static List<String> sniff(ByteBuffer data) {
+        if (BinaryConfiguration.isBinary(data)) {
+            return BINARY;
+        }
+        String line = firstLine(data);
+        if (line == null) {
+            return Collections.emptyList();
+        }
+        char first = line.charAt(0);
+        if (first == '<') {
+            return XML;
+        }
+        if (first == '{') {
+            return OBJECT;
+        }
+        if (first == '[') {
+            int end = line.indexOf(']');
+            if (end > 1 && end == line.length() - 1 && isName(line, 1, end)) {
+                return INI;
+            }
+            return ARRAY;
+        }
+        if (line.startsWith("---") || line.startsWith("%YAML")) {
+            return YAML;
+        }
+        int colon = line.indexOf(':');
+        int equals = line.indexOf('=');
+        if (colon > 0 && (equals < 0 || colon < equals)
+                && (colon == line.length() - 1 || line.charAt(colon + 1) == ' ')) {
+            return YAML_MAPPING;
+        }
+        if (equals > 0) {
+            return PROPERTIES;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Orders the given formats, so the probable formats of the given data come first. The relative order of the
+     * remaining formats is kept.
+     *
+     * @param formats the formats, not null.
+     * @param data the data, not null.
+     * @return the ordered formats, never null.
+     */
+    static List<ConfigurationFormat> order(Collection<ConfigurationFormat> formats, ByteBuffer data) {
+        List<ConfigurationFormat> result = new ArrayList<>(formats);
+        List<String> probable = sniff(data);
+        if (probable.isEmpty() || result.size() < 2) {
+            return result;
+        }
+        List<ConfigurationFormat> ordered = new ArrayList<>(result.size());
+        for (String name : probable) {
+            for (ConfigurationFormat format : result) {
+                if (name.equals(format.getName())) {
+                    ordered.add(format);
+                }
+            }
+        }
+        for (ConfigurationFormat format : result) {
+            if (!ordered.contains(format)) {
+                ordered.add(format);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Extracts the first meaningful line, skipping a UTF-8 byte order mark, blank lines and comment lines.
+     */
+    private static String firstLine(ByteBuffer data) {
+        ByteBuffer buffer = data.duplicate();
+        int length = Math.min(buffer.remaining(), SNIFF_LENGTH);
+        StringBuilder b = new StringBuilder(length);
+        int start = buffer.position();
+        for (int i = 0; i < length; i++) {
+            b.append((char) (buffer.get(start + i) & 0xFF));
+        }
+        int pos = 0;
+        if (b.length() >= 3 && b.charAt(0) == 0xEF && b.charAt(1) == 0xBB && b.charAt(2) == 0xBF) {
+            pos = 3;
+        }
+        while (pos < b.length()) {
+            int end = b.indexOf("\n", pos);
+            if (end < 0) {
+                end = b.length();
+            }
+            String line = b.substring(pos, end).trim();
+            pos = end + 1;
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith(";") || line.startsWith("!")
+                    || line.startsWith("//")) {
+                continue;
+            }
+            return line;
+        }
+        return null;
+    }
+
+    private static boolean isName(String line, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c == '"' || c == '\'' || c == ',' || c == '{' || c == '[' || c == ']') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
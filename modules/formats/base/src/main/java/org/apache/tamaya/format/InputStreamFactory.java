@@ -19,13 +19,21 @@
 package org.apache.tamaya.format;
 
 import java.io.*;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Wrapper for a given {@link InputStream} to be able to close
- * it via the try-with-resources construct of Java 7.
+ * it via the try-with-resources construct of Java 7. The data is read only once, all streams created
+ * are read-only views on the same bytes. Larger local files can optionally be memory mapped instead of being
+ * copied into the heap, see {@link #of(URL, boolean)}.
  *
  * <h1>Usage example</h1>
  *
@@ -40,7 +48,12 @@ import java.util.logging.Logger;
 public class InputStreamFactory implements Closeable {
     private static final Logger LOG = Logger.getLogger(InputStreamFactory.class.getName());
 
-    private byte[] data;
+    /** The size of the chunks used to read streams of unknown size. */
+    private static final int CHUNK_SIZE = 8 * 1024;
+    /** The minimal size of files to be memory mapped, smaller files are read into the heap. */
+    private static final long MAPPING_THRESHOLD = 16 * 1024;
+
+    private ByteBuffer data;
 
     /**
      * Creates a new InputStreamFactory.
@@ -50,15 +63,8 @@ public class InputStreamFactory implements Closeable {
      */
     public InputStreamFactory(InputStream original) throws IOException {
         Objects.requireNonNull(original);
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        byte[] bytes = new byte[256];
         try {
-            int read = original.read(bytes);
-            while (read > 0) {
-                bos.write(bytes, 0, read);
-                read = original.read(bytes);
-            }
-            this.data = bos.toByteArray();
+            this.data = readFully(original);
         } finally {
             try {
                 original.close();
@@ -68,6 +74,91 @@ public class InputStreamFactory implements Closeable {
         }
     }
 
+    private InputStreamFactory(ByteBuffer data) {
+        this.data = data.asReadOnlyBuffer();
+    }
+
+    /**
+     * Creates a new InputStreamFactory for the given URL. The data is read into memory, so the factory does not
+     * depend on the resource after this call returns.
+     *
+     * @param url the URL to be read, not null.
+     * @return the new factory, never null.
+     * @throws IOException if the URL cannot be read.
+     */
+    public static InputStreamFactory of(URL url) throws IOException {
+        return of(url, false);
+    }
+
+    /**
+     * Creates a new InputStreamFactory for the given URL, optionally memory mapping larger local files instead
+     * of reading them into the heap. A mapping stays valid until it is garbage collected, even after the factory
+     * has been closed. Mapping should therefore only be used for files, which are not modified while in use: on
+     * Windows a mapped file cannot be replaced or deleted, and accessing a mapped file, which has been truncated
+     * meanwhile, fails with an {@link InternalError} or may even crash the JVM.
+     *
+     * @param url the URL to be read, not null.
+     * @param map true, to memory map local files of at least 16 KB.
+     * @return the new factory, never null.
+     * @throws IOException if the URL cannot be read.
+     */
+    public static InputStreamFactory of(URL url, boolean map) throws IOException {
+        Path file = toLocalFile(url);
+        if (file != null) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (map && size >= MAPPING_THRESHOLD) {
+                    return new InputStreamFactory(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+                }
+                if (size < Integer.MAX_VALUE) {
+                    ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                    while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                        // read until complete
+                    }
+                    buffer.flip();
+                    return new InputStreamFactory(buffer);
+                }
+            }
+        }
+        return new InputStreamFactory(url.openStream());
+    }
+
+    private static Path toLocalFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(url.toURI());
+        } catch (Exception e) {
+            LOG.log(Level.FINEST, "Not a local file: " + url, e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the stream into a single, growing buffer, without any intermediate copies.
+     *
+     * @param in the stream, not null.
+     * @return the data read.
+     * @throws IOException if reading fails.
+     */
+    private static ByteBuffer readFully(InputStream in) throws IOException {
+        int available = in.available();
+        byte[] buffer = new byte[available > 0 ? available + 1 : CHUNK_SIZE];
+        int length = 0;
+        int read = in.read(buffer, 0, buffer.length);
+        while (read > 0) {
+            length += read;
+            if (length == buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length * 2, buffer.length + CHUNK_SIZE)];
+                System.arraycopy(buffer, 0, grown, 0, length);
+                buffer = grown;
+            }
+            read = in.read(buffer, length, buffer.length - length);
+        }
+        return ByteBuffer.wrap(buffer, 0, length).asReadOnlyBuffer();
+    }
+
     /**
      * Creates a new InputStream with the same data as provided by the InputStream passed on factory creation.
      *
@@ -75,15 +166,95 @@ public class InputStreamFactory implements Closeable {
      * @throws IOException if no data is available.
      */
     public InputStream createInputStream() throws IOException {
-        byte[] bytes = this.data;
-        if (bytes == null) {
+        return new ByteBufferInputStream(getByteBuffer());
+    }
+
+    /**
+     * Access a read-only view on the data, e.g. for inspecting the content without copying it. Each call
+     * returns a new view with its own position.
+     *
+     * @return a read-only buffer, with the position at the start of the data.
+     * @throws IOException if no data is available.
+     */
+    public ByteBuffer getByteBuffer() throws IOException {
+        ByteBuffer buffer = this.data;
+        if (buffer == null) {
             throw new IOException("InputStreamFactory is closed.");
         }
-        return new ByteArrayInputStream(bytes);
+        return buffer.duplicate();
+    }
+
+    /**
+     * Get the number of bytes available.
+     *
+     * @return the size of the data, or {@code -1} if closed.
+     */
+    public int size() {
+        ByteBuffer buffer = this.data;
+        return buffer == null ? -1 : buffer.remaining();
     }
 
     @Override
     public void close() throws IOException {
         this.data = null;
     }
+
+    /**
+     * InputStream reading from a {@link ByteBuffer}, supporting mark and reset.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+        private int markPosition;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.markPosition = buffer.position();
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readlimit) {
+            markPosition = buffer.position();
+        }
+
+        @Override
+        public synchronized void reset() {
+            buffer.position(markPosition);
+        }
+    }
 }
@@ -22,9 +22,18 @@ import org.apache.tamaya.functions.Supplier;
 import org.apache.tamaya.spi.PropertyValue;
 import org.apache.tamaya.spisupport.propertysource.BasePropertySource;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,7 +44,7 @@ import java.util.logging.Logger;
  */
 public class MappedConfigurationDataPropertySource extends BasePropertySource {
     private static final Logger LOG = Logger.getLogger(MappedConfigurationDataPropertySource.class.getName());
-    private Map<String, PropertyValue> properties = new HashMap<>();
+    private volatile Map<String, PropertyValue> properties = Collections.emptyMap();
     private final Supplier<ConfigurationData> dataSupplier;
 
     /*
@@ -94,43 +103,62 @@ public class MappedConfigurationDataPropertySource extends BasePropertySource {
         meta.put("source", data.getResource());
         meta.put("timestamp",String.valueOf(System.currentTimeMillis()));
         try{
-            this.properties.putAll(populateData(data, meta));
+            this.properties = populateData(data, meta);
         }catch(Exception e){
             LOG.log(Level.INFO, "Failed to load property source: " + getName(), e);
-            if(this.properties==null) {
-                this.properties = new HashMap<>();
-            }
-            this.properties.put("[error]propertysource."+getName()+".exception",
+            Map<String, PropertyValue> errors = new HashMap<>();
+            errors.put("[error]propertysource."+getName()+".exception",
                     PropertyValue.createValue("[meta]propertysource."+getName()+".exception",
                             e.getLocalizedMessage()).setMeta("source",
                             data.getResource()));
-            this.properties.put("[error]propertysource."+getName()+".exception",
+            errors.put("[error]propertysource."+getName()+".exception",
                     PropertyValue.createValue("[meta]propertysource."+getName()+".state",
                             "ERROR").setMeta("source",
                             data.getResource()));
+            this.properties = errors;
         }
     }
 
     /**
-     * Method that copies and converts the properties read from the data instance
-     * provided.
+     * Method that converts the properties read from the data instance provided into a compact, immutable map.
+     * The leaf values are stored in sorted arrays and looked up by binary search, the metadata is held once per
+     * property source. The {@link PropertyValue} instances are only created on first access.
      * @param data the data returned from the format, not null.
      * @param meta the metadata to addPropertyValue.
      * @return the final properties to be included.
      */
     protected Map<String, PropertyValue> populateData(ConfigurationData data, Map<String, String> meta) {
-        Map<String, PropertyValue> result = new HashMap<>();
+        TreeMap<String, PropertyValue> leaves = new TreeMap<>();
         for(PropertyValue val:data.getData()) {
             if(!val.getKey().isEmpty()) {
-                addNode(val, result, meta);
+                collectLeaves(val, leaves);
+            }else {
+                for (PropertyValue child : val) {
+                    collectLeaves(child, leaves);
+                }
             }
+        }
+        return new FlatPropertyMap(leaves, meta);
+    }
+
+    private static void collectLeaves(PropertyValue val, Map<String, PropertyValue> leaves){
+        if(val.isLeaf()){
+            leaves.put(val.getQualifiedKey(), val);
+        }else{
             for(PropertyValue child:val) {
-                addNode(child, result, meta);
+                collectLeaves(child, leaves);
             }
         }
-        return result;
     }
 
+    /**
+     * Adds the leaves of the given value to the map, hereby adding the given metadata to each leaf.
+     * @param val the value, not null.
+     * @param map the target map, not null.
+     * @param meta the metadata to add.
+     * @deprecated no longer used by {@link #populateData(ConfigurationData, Map)}.
+     */
+    @Deprecated
     protected void addNode(PropertyValue val, Map<String, PropertyValue> map, Map<String, String> meta){
         if(val.isLeaf()){
             val.setMeta(meta);
@@ -142,6 +170,109 @@ public class MappedConfigurationDataPropertySource extends BasePropertySource {
         }
     }
 
+    /**
+     * Read-only map backed by a sorted key array and a value array. Values are created lazily on first access,
+     * only leaves with own metadata keep a reference to it, all others use the metadata of the property source.
+     */
+    private static final class FlatPropertyMap extends AbstractMap<String, PropertyValue> {
+        private final String[] keys;
+        private final String[] values;
+        private final Map<String, String>[] leafMeta;
+        private final Map<String, String> meta;
+        private final AtomicReferenceArray<PropertyValue> created;
+
+        @SuppressWarnings("unchecked")
+        FlatPropertyMap(SortedMap<String, PropertyValue> leaves, Map<String, String> meta) {
+            int size = leaves.size();
+            this.keys = new String[size];
+            this.values = new String[size];
+            Map<String, String>[] ownMeta = null;
+            // leaves typically carry the same metadata, so equal maps are shared.
+            Map<Map<String, String>, Map<String, String>> distinctMeta = new HashMap<>();
+            int i = 0;
+            for (Map.Entry<String, PropertyValue> en : leaves.entrySet()) {
+                keys[i] = en.getKey();
+                values[i] = en.getValue().getValue();
+                Map<String, String> valueMeta = en.getValue().getMeta();
+                if (valueMeta != null && !valueMeta.isEmpty()) {
+                    if (ownMeta == null) {
+                        ownMeta = new Map[size];
+                    }
+                    ownMeta[i] = distinctMeta.computeIfAbsent(new HashMap<>(valueMeta), Collections::unmodifiableMap);
+                }
+                i++;
+            }
+            this.leafMeta = ownMeta;
+            this.meta = Collections.unmodifiableMap(new HashMap<>(meta));
+            this.created = new AtomicReferenceArray<>(size);
+        }
+
+        private PropertyValue valueAt(int index) {
+            PropertyValue value = created.get(index);
+            if (value == null) {
+                value = PropertyValue.createValue(keys[index], values[index]);
+                if (leafMeta != null && leafMeta[index] != null) {
+                    value.setMeta(leafMeta[index]);
+                }
+                value.setMeta(meta);
+                if (!created.compareAndSet(index, null, value)) {
+                    value = created.get(index);
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public PropertyValue get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? null : valueAt(index);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && Arrays.binarySearch(keys, key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Set<Entry<String, PropertyValue>> entrySet() {
+            return new AbstractSet<Entry<String, PropertyValue>>() {
+                @Override
+                public Iterator<Entry<String, PropertyValue>> iterator() {
+                    return new Iterator<Entry<String, PropertyValue>>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, PropertyValue> next() {
+                            if (index >= keys.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int current = index++;
+                            return new SimpleImmutableEntry<>(keys[current], valueAt(current));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+    }
+
     @Override
     public PropertyValue get(String key) {
        return properties.get(key);
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format;
+
+import org.apache.tamaya.events.ConfigEventManager;
+import org.apache.tamaya.events.PropertySourceChangeBuilder;
+import org.apache.tamaya.spi.PropertyValue;
+import org.apache.tamaya.spi.ServiceContextManager;
+import org.apache.tamaya.spisupport.propertysource.BasePropertySource;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Property source reading an URL using the {@link ConfigurationFormat}s, which can be reloaded when the resource
+ * changes, e.g. triggered by a file watcher. On {@link #reload()} the new content is parsed and compared to the
+ * current properties, only if something changed the new state is swapped in. Values of unchanged keys keep
+ * their {@link PropertyValue} instances. If <i>tamaya-events</i> is available a
+ * {@link org.apache.tamaya.events.PropertySourceChange} containing only the changed keys is published.
+ *
+ * <p>Local files are only read, when their modification time or size changed. If reading or parsing fails,
+ * the current properties are kept.</p>
+ */
+public class ReloadableFormatPropertySource extends BasePropertySource {
+
+    private static final Logger LOG = Logger.getLogger(ReloadableFormatPropertySource.class.getName());
+
+    private static final boolean EVENTS_AVAILABLE = checkForEvents();
+
+    private final URL url;
+    private final List<ConfigurationFormat> formats;
+    private final ClassLoader classLoader;
+    private final File file;
+    private volatile State state = new State(null, Collections.emptyMap(), 0L, -1L);
+
+    /** The current state, replaced as a whole on changes. */
+    private static final class State {
+        final ConfigurationData data;
+        final Map<String, PropertyValue> properties;
+        final long lastModified;
+        final long length;
+
+        State(ConfigurationData data, Map<String, PropertyValue> properties, long lastModified, long length) {
+            this.data = data;
+            this.properties = properties;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Creates a new instance and loads the given resource.
+     *
+     * @param url the resource to read, not null.
+     * @param formats the formats to try, if none are given, all known formats are tried.
+     */
+    public ReloadableFormatPropertySource(URL url, ConfigurationFormat... formats) {
+        this(url, 0, Arrays.asList(formats), ServiceContextManager.getDefaultClassLoader());
+    }
+
+    /**
+     * Creates a new instance and loads the given resource.
+     *
+     * @param url the resource to read, not null.
+     * @param defaultOrdinal the default ordinal.
+     * @param formats the formats to try, if empty, all known formats are tried.
+     * @param classLoader the classloader used for accessing formats and publishing events, not null.
+     */
+    public ReloadableFormatPropertySource(URL url, int defaultOrdinal, Collection<ConfigurationFormat> formats,
+                                          ClassLoader classLoader) {
+        super(defaultOrdinal);
+        this.url = Objects.requireNonNull(url);
+        this.formats = Collections.unmodifiableList(new ArrayList<>(formats));
+        this.classLoader = Objects.requireNonNull(classLoader);
+        this.file = toFile(url);
+        setName(url.toString());
+        reload(false);
+    }
+
+    private static boolean checkForEvents() {
+        try{
+            Class.forName("org.apache.tamaya.events.ConfigEventManager");
+            return true;
+        } catch(Exception e){
+            LOG.finest("tamaya-events not installed, will not publish PropertySourceChange events.");
+            return false;
+        }
+    }
+
+    private static File toFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the resource again and applies the changes found.
+     *
+     * @return true, if any property has changed.
+     */
+    public boolean reload() {
+        return reload(true);
+    }
+
+    private boolean reload(boolean publish) {
+        Map<String, String[]> changes;
+        synchronized (this) {
+            State current = this.state;
+            long lastModified = file == null ? 0L : file.lastModified();
+            long length = file == null ? -1L : file.length();
+            if (file != null && current.data != null && lastModified == current.lastModified
+                    && length == current.length) {
+                return false;
+            }
+            ConfigurationData data;
+            try {
+                data = ConfigurationFormats.getInstance(classLoader).readConfigurationData(url, formats);
+            } catch (Exception e) {
+                LOG.log(Level.WARNING, "Failed to reload " + url + ", keeping current properties.", e);
+                return false;
+            }
+            if (data == null) {
+                LOG.warning("No matching format found for " + url + ", keeping current properties.");
+                return false;
+            }
+            if (data == current.data) {
+                // unchanged data returned from the data cache
+                this.state = new State(data, current.properties, lastModified, length);
+                return false;
+            }
+            changes = new HashMap<>();
+            Map<String, PropertyValue> properties = diff(current.properties, flatten(data), changes);
+            this.state = new State(data, properties, lastModified, length);
+        }
+        if (changes.isEmpty()) {
+            return false;
+        }
+        LOG.finest(() -> "Reloaded " + url + ", " + changes.size() + " properties changed.");
+        if (publish && EVENTS_AVAILABLE) {
+            publishChange(changes);
+        }
+        return true;
+    }
+
+    /**
+     * Compares the leaves read with the current properties. Values not changed are taken from the current
+     * properties, all others get the metadata of this property source.
+     * @param current the current properties, not null.
+     * @param leaves the leaves read, not null.
+     * @param changes the map where the changed keys are added with their old and new value.
+     * @return the new properties.
+     */
+    private Map<String, PropertyValue> diff(Map<String, PropertyValue> current, Map<String, PropertyValue> leaves,
+                                            Map<String, String[]> changes) {
+        Map<String, PropertyValue> properties = new HashMap<>(leaves.size() * 4 / 3 + 1);
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        for (Map.Entry<String, PropertyValue> en : leaves.entrySet()) {
+            PropertyValue previous = current.get(en.getKey());
+            String value = en.getValue().getValue();
+            if (previous != null && Objects.equals(previous.getValue(), value)) {
+                properties.put(en.getKey(), previous);
+            } else {
+                PropertyValue created = PropertyValue.createValue(en.getKey(), value);
+                if (en.getValue().getMeta() != null) {
+                    created.setMeta(en.getValue().getMeta());
+                }
+                created.setMeta("source", url.toString());
+                created.setMeta("timestamp", timestamp);
+                properties.put(en.getKey(), created);
+                changes.put(en.getKey(), new String[]{previous == null ? null : previous.getValue(), value});
+            }
+        }
+        for (Map.Entry<String, PropertyValue> en : current.entrySet()) {
+            if (!properties.containsKey(en.getKey())) {
+                changes.put(en.getKey(), new String[]{en.getValue().getValue(), null});
+            }
+        }
+        return Collections.unmodifiableMap(properties);
+    }
+
+    private static Map<String, PropertyValue> flatten(ConfigurationData data) {
+        Map<String, PropertyValue> leaves = new HashMap<>();
+        for (PropertyValue val : data.getData()) {
+            if (!val.getKey().isEmpty()) {
+                collectLeaves(val, leaves);
+            } else {
+                for (PropertyValue child : val) {
+                    collectLeaves(child, leaves);
+                }
+            }
+        }
+        return leaves;
+    }
+
+    private static void collectLeaves(PropertyValue val, Map<String, PropertyValue> leaves) {
+        if (val.isLeaf()) {
+            leaves.put(val.getQualifiedKey(), val);
+        } else {
+            for (PropertyValue child : val) {
+                collectLeaves(child, leaves);
+            }
+        }
+    }
+
+    private void publishChange(Map<String, String[]> changes) {
+        PropertySourceChangeBuilder builder = PropertySourceChangeBuilder.of(this);
+        for (Map.Entry<String, String[]> en : changes.entrySet()) {
+            builder.addChange(en.getKey(), en.getValue()[0], en.getValue()[1]);
+        }
+        ConfigEventManager.getInstance(classLoader).fireEvent(builder.build());
+    }
+
+    /**
+     * Access the resource read.
+     * @return the resource, never null.
+     */
+    public URL getUrl() {
+        return url;
+    }
+
+    @Override
+    public PropertyValue get(String key) {
+        return state.properties.get(key);
+    }
+
+    @Override
+    public Map<String, PropertyValue> getProperties() {
+        return state.properties;
+    }
+
+    @Override
+    protected String toStringValues() {
+        return super.toStringValues() +
+                "  url=" + url + '\n';
+    }
+}
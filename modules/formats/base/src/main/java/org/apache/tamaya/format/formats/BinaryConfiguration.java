@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format.formats;
+
+import org.apache.tamaya.format.InputStreamFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-only view on configuration compiled by {@link BinaryConfigurationCompiler}. The data is accessed in place,
+ * local files can optionally be memory mapped, so opening a file only reads its header. Keys are found by a binary search on
+ * the encoded key bytes, strings are only decoded when accessed and then kept.
+ * <p>The layout of the data (all numbers are big endian {@code int}s, if not stated otherwise) is:</p>
+ * <pre>
+ *  header     magic ({@value #MAGIC}), version ({@code short}), flags ({@code short}), entry count,
+ *             string count, meta count, string table position, meta table position, entry table position
+ *  strings    string count + 1 absolute offsets, followed by the UTF-8 encoded strings
+ *  meta       meta count + 1 absolute offsets of the (key string, value string) pairs of each meta entry
+ *  entries    entry count times (key string, value string or -1, meta entry or -1), sorted by the key bytes
+ * </pre>
+ */
+public final class BinaryConfiguration {
+
+    /** The magic number identifying compiled configuration, the bytes of {@code TBCF}. */
+    public static final int MAGIC = 0x54424346;
+    /** The current version of the layout. */
+    public static final short VERSION = 1;
+
+    static final int HEADER_SIZE = 32;
+    static final int ENTRY_SIZE = 12;
+
+    private final ByteBuffer data;
+    private final int entryCount;
+    private final int stringCount;
+    private final int metaCount;
+    private final int stringTable;
+    private final int metaTable;
+    private final int entryTable;
+    private final AtomicReferenceArray<String> strings;
+
+    private BinaryConfiguration(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (!isBinary(data)) {
+            throw new IOException("Not a compiled configuration.");
+        }
+        short version = data.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported compiled configuration version: " + version);
+        }
+        this.entryCount = data.getInt(8);
+        this.stringCount = data.getInt(12);
+        this.metaCount = data.getInt(16);
+        this.stringTable = data.getInt(20);
+        this.metaTable = data.getInt(24);
+        this.entryTable = data.getInt(28);
+        if (entryCount < 0 || stringCount < 0 || metaCount < 0 || stringTable < HEADER_SIZE
+                || (long) entryTable + (long) entryCount * ENTRY_SIZE > data.limit()) {
+            throw new IOException("Corrupt compiled configuration.");
+        }
+        this.strings = new AtomicReferenceArray<>(stringCount);
+    }
+
+    /**
+     * Creates a view on the given data.
+     *
+     * @param data the data, not null. The data is accessed relative to the buffer's position.
+     * @return the new instance, never null.
+     * @throws IOException if the data is not a compiled configuration.
+     */
+    public static BinaryConfiguration of(ByteBuffer data) throws IOException {
+        return new BinaryConfiguration(data.slice().asReadOnlyBuffer());
+    }
+
+    /**
+     * Creates a view on a copy of the data of the given URL.
+     *
+     * @param url the URL, not null.
+     * @return the new instance, never null.
+     * @throws IOException if the URL cannot be read or is not a compiled configuration.
+     */
+    public static BinaryConfiguration of(URL url) throws IOException {
+        return of(url, false);
+    }
+
+    /**
+     * Creates a view on the data of the given URL. Values are decoded lazily from the data, so when mapping a
+     * file, the file must not be modified as long as the instance is in use.
+     *
+     * @param url the URL, not null.
+     * @param map true, to memory map larger local files instead of copying them into the heap.
+     * @return the new instance, never null.
+     * @throws IOException if the URL cannot be read or is not a compiled configuration.
+     * @see InputStreamFactory#of(URL, boolean)
+     */
+    public static BinaryConfiguration of(URL url, boolean map) throws IOException {
+        try (InputStreamFactory factory = InputStreamFactory.of(Objects.requireNonNull(url), map)) {
+            return of(factory.getByteBuffer());
+        }
+    }
+
+    /**
+     * Checks if the given data starts with the {@link #MAGIC} number.
+     *
+     * @param data the data, not null. The buffer's position is not changed.
+     * @return true, if the data looks like a compiled configuration.
+     */
+    public static boolean isBinary(ByteBuffer data) {
+        int pos = data.position();
+        return data.limit() - pos >= HEADER_SIZE && data.getInt(pos) == MAGIC;
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Get the key of the given entry. Entries are sorted by their keys.
+     *
+     * @param index the entry index, {@code 0 <= index < size()}.
+     * @return the key, never null.
+     */
+    public String getKey(int index) {
+        return string(data.getInt(entry(index)));
+    }
+
+    /**
+     * Get the value of the given entry.
+     *
+     * @param index the entry index, {@code 0 <= index < size()}.
+     * @return the value, may be null.
+     */
+    public String getValue(int index) {
+        return string(data.getInt(entry(index) + 4));
+    }
+
+    /**
+     * Get the metadata of the given entry.
+     *
+     * @param index the entry index, {@code 0 <= index < size()}.
+     * @return the metadata, never null.
+     */
+    public Map<String, String> getMeta(int index) {
+        int meta = data.getInt(entry(index) + 8);
+        if (meta < 0) {
+            return Collections.emptyMap();
+        }
+        if (meta >= metaCount) {
+            throw new IllegalStateException("Corrupt compiled configuration, invalid meta index: " + meta);
+        }
+        int start = data.getInt(metaTable + meta * 4);
+        int end = data.getInt(metaTable + meta * 4 + 4);
+        Map<String, String> result = new HashMap<>();
+        for (int pos = start; pos < end; pos += 8) {
+            result.put(string(data.getInt(pos)), string(data.getInt(pos + 4)));
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the index of the entry with the given key.
+     *
+     * @param key the key, not null.
+     * @return the entry index, or a negative value, if there is no such entry.
+     */
+    public int indexOf(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(data.getInt(entry(mid)), bytes);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int entry(int index) {
+        if (index < 0 || index >= entryCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + entryCount);
+        }
+        return entryTable + index * ENTRY_SIZE;
+    }
+
+    private int compare(int string, byte[] key) {
+        int start = data.getInt(stringTable + string * 4);
+        int length = data.getInt(stringTable + string * 4 + 4) - start;
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = (data.get(start + i) & 0xFF) - (key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - key.length;
+    }
+
+    private String string(int index) {
+        if (index < 0) {
+            return null;
+        }
+        if (index >= stringCount) {
+            throw new IllegalStateException("Corrupt compiled configuration, invalid string index: " + index);
+        }
+        String value = strings.get(index);
+        if (value == null) {
+            int start = data.getInt(stringTable + index * 4);
+            int end = data.getInt(stringTable + index * 4 + 4);
+            byte[] bytes = new byte[end - start];
+            ByteBuffer view = data.duplicate();
+            view.position(start);
+            view.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings.lazySet(index, value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format.formats;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.format.ConfigurationData;
+import org.apache.tamaya.format.ConfigurationFormat;
+import org.apache.tamaya.format.ConfigurationFormats;
+import org.apache.tamaya.spi.PropertyValue;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Build time tool that compiles configuration of any supported format into the binary layout read by
+ * {@link BinaryConfiguration} and {@link BinaryConfigurationFormat}. The configuration is flattened to its
+ * qualified keys, values added later override earlier ones. Files that do not change between deployments can
+ * so be compiled when packaging, e.g. using the exec-maven-plugin:
+ * <pre>
+ * &lt;plugin&gt;
+ *     &lt;groupId&gt;org.codehaus.mojo&lt;/groupId&gt;
+ *     &lt;artifactId&gt;exec-maven-plugin&lt;/artifactId&gt;
+ *     &lt;executions&gt;
+ *         &lt;execution&gt;
+ *             &lt;phase&gt;prepare-package&lt;/phase&gt;
+ *             &lt;goals&gt;&lt;goal&gt;java&lt;/goal&gt;&lt;/goals&gt;
+ *             &lt;configuration&gt;
+ *                 &lt;mainClass&gt;org.apache.tamaya.format.formats.BinaryConfigurationCompiler&lt;/mainClass&gt;
+ *                 &lt;classpathScope&gt;runtime&lt;/classpathScope&gt;
+ *                 &lt;arguments&gt;
+ *                     &lt;argument&gt;${project.build.outputDirectory}/config&lt;/argument&gt;
+ *                     &lt;argument&gt;src/main/config/application.yaml&lt;/argument&gt;
+ *                 &lt;/arguments&gt;
+ *             &lt;/configuration&gt;
+ *         &lt;/execution&gt;
+ *     &lt;/executions&gt;
+ * &lt;/plugin&gt;
+ * </pre>
+ */
+public final class BinaryConfigurationCompiler {
+
+    /** The file extension of compiled configuration. */
+    public static final String FILE_EXTENSION = ".tbin";
+
+    private static final Logger LOG = Logger.getLogger(BinaryConfigurationCompiler.class.getName());
+
+    /** The entries, keyed by their qualified keys. */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Adds all leaf values of the given configuration data.
+     *
+     * @param data the data, not null.
+     * @return this instance, for chaining.
+     */
+    public BinaryConfigurationCompiler add(ConfigurationData data) {
+        for (PropertyValue value : data.getData()) {
+            if (value.getKey().isEmpty()) {
+                for (PropertyValue child : value) {
+                    addLeaves(child);
+                }
+            } else {
+                addLeaves(value);
+            }
+        }
+        return this;
+    }
+
+    private void addLeaves(PropertyValue value) {
+        if (value.isLeaf()) {
+            add(value.getQualifiedKey(), value.getValue(), value.getMeta());
+        } else {
+            for (PropertyValue child : value) {
+                addLeaves(child);
+            }
+        }
+    }
+
+    /**
+     * Adds a single entry.
+     *
+     * @param key the qualified key, not null.
+     * @param value the value, may be null.
+     * @param meta the metadata, may be null or empty. The runtime reference to the format that read the
+     *             value is not compiled.
+     * @return this instance, for chaining.
+     */
+    public BinaryConfigurationCompiler add(String key, String value, Map<String, String> meta) {
+        Map<String, String> compiledMeta = Collections.emptyMap();
+        if (meta != null && !meta.isEmpty()) {
+            compiledMeta = new TreeMap<>(meta);
+            compiledMeta.remove(ConfigurationFormat.class.getName());
+        }
+        entries.put(Objects.requireNonNull(key), new Entry(value, compiledMeta));
+        return this;
+    }
+
+    /**
+     * Reads the given resource with the registered formats and adds its values.
+     *
+     * @param url the resource, not null.
+     * @return this instance, for chaining.
+     * @throws IOException if the resource cannot be read.
+     * @throws ConfigException if no format can read the resource.
+     */
+    public BinaryConfigurationCompiler add(URL url) throws IOException {
+        ConfigurationData data = ConfigurationFormats.getInstance().readConfigurationData(url);
+        if (data == null) {
+            throw new ConfigException("No matching format found for " + url);
+        }
+        return add(data);
+    }
+
+    /**
+     * Get the number of entries added.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the compiled configuration.
+     *
+     * @param out the target stream, not null. The stream is not closed.
+     * @throws IOException if writing fails.
+     */
+    public void write(OutputStream out) throws IOException {
+        List<byte[]> strings = new ArrayList<>();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<Map<String, String>> metas = new ArrayList<>();
+        Map<Map<String, String>, Integer> metaIndex = new HashMap<>();
+
+        List<Map.Entry<String, Entry>> sorted = new ArrayList<>(entries.entrySet());
+        Map<String, byte[]> encodedKeys = new HashMap<>();
+        for (Map.Entry<String, Entry> en : sorted) {
+            encodedKeys.put(en.getKey(), en.getKey().getBytes(StandardCharsets.UTF_8));
+        }
+        // the reader compares the encoded bytes, so the entries are sorted the same way.
+        sorted.sort((a, b) -> compare(encodedKeys.get(a.getKey()), encodedKeys.get(b.getKey())));
+
+        int[] entryTable = new int[sorted.size() * 3];
+        int i = 0;
+        for (Map.Entry<String, Entry> en : sorted) {
+            entryTable[i++] = intern(en.getKey(), strings, stringIndex);
+            entryTable[i++] = intern(en.getValue().value, strings, stringIndex);
+            Map<String, String> meta = en.getValue().meta;
+            if (meta.isEmpty()) {
+                entryTable[i++] = -1;
+            } else {
+                Integer index = metaIndex.get(meta);
+                if (index == null) {
+                    index = metas.size();
+                    metas.add(meta);
+                    metaIndex.put(meta, index);
+                    for (Map.Entry<String, String> metaEntry : meta.entrySet()) {
+                        intern(metaEntry.getKey(), strings, stringIndex);
+                        intern(metaEntry.getValue(), strings, stringIndex);
+                    }
+                }
+                entryTable[i++] = index;
+            }
+        }
+
+        long stringBytes = 0;
+        for (byte[] string : strings) {
+            stringBytes += string.length;
+        }
+        long metaPairs = 0;
+        for (Map<String, String> meta : metas) {
+            metaPairs += meta.size();
+        }
+        long stringTable = BinaryConfiguration.HEADER_SIZE;
+        long metaTable = stringTable + 4L * (strings.size() + 1) + stringBytes;
+        long metaPairsStart = metaTable + 4L * (metas.size() + 1);
+        long entryTableStart = metaPairsStart + 8L * metaPairs;
+        if (entryTableStart + (long) BinaryConfiguration.ENTRY_SIZE * sorted.size() > Integer.MAX_VALUE) {
+            throw new IOException("Configuration too large to be compiled.");
+        }
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(BinaryConfiguration.MAGIC);
+        data.writeShort(BinaryConfiguration.VERSION);
+        data.writeShort(0);
+        data.writeInt(sorted.size());
+        data.writeInt(strings.size());
+        data.writeInt(metas.size());
+        data.writeInt((int) stringTable);
+        data.writeInt((int) metaTable);
+        data.writeInt((int) entryTableStart);
+        int offset = (int) (stringTable + 4L * (strings.size() + 1));
+        for (byte[] string : strings) {
+            data.writeInt(offset);
+            offset += string.length;
+        }
+        data.writeInt(offset);
+        for (byte[] string : strings) {
+            data.write(string);
+        }
+        offset = (int) metaPairsStart;
+        for (Map<String, String> meta : metas) {
+            data.writeInt(offset);
+            offset += 8 * meta.size();
+        }
+        data.writeInt(offset);
+        for (Map<String, String> meta : metas) {
+            for (Map.Entry<String, String> metaEntry : meta.entrySet()) {
+                data.writeInt(stringIndex.get(metaEntry.getKey()));
+                data.writeInt(metaEntry.getValue() == null ? -1 : stringIndex.get(metaEntry.getValue()));
+            }
+        }
+        for (int value : entryTable) {
+            data.writeInt(value);
+        }
+        data.flush();
+    }
+
+    /**
+     * Writes the compiled configuration to the given file.
+     *
+     * @param file the target file, not null. Missing parent directories are created.
+     * @throws IOException if writing fails.
+     */
+    public void write(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            write(out);
+        }
+    }
+
+    private static int intern(String value, List<byte[]> strings, Map<String, Integer> stringIndex) {
+        if (value == null) {
+            return -1;
+        }
+        Integer index = stringIndex.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.add(value.getBytes(StandardCharsets.UTF_8));
+            stringIndex.put(value, index);
+        }
+        return index;
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * Compiles the given configuration files, each file is written to the output directory with its extension
+     * replaced by {@value #FILE_EXTENSION}.
+     *
+     * @param args the output directory followed by the files to be compiled.
+     * @throws IOException if reading or writing fails.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BinaryConfigurationCompiler <outputDirectory> <file>...");
+            System.exit(1);
+        }
+        File outputDirectory = new File(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            File source = new File(args[i]);
+            String name = source.getName();
+            int dot = name.lastIndexOf('.');
+            File target = new File(outputDirectory, (dot > 0 ? name.substring(0, dot) : name) + FILE_EXTENSION);
+            BinaryConfigurationCompiler compiler = new BinaryConfigurationCompiler().add(source.toURI().toURL());
+            compiler.write(target);
+            LOG.info("Compiled " + compiler.size() + " entries of " + source + " to " + target);
+        }
+    }
+
+    private static final class Entry {
+        final String value;
+        final Map<String, String> meta;
+
+        Entry(String value, Map<String, String> meta) {
+            this.value = value;
+            this.meta = meta;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format.formats;
+
+import org.apache.tamaya.format.ConfigurationData;
+import org.apache.tamaya.format.ConfigurationFormat;
+import org.apache.tamaya.format.InputStreamFactory;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValue;
+import org.osgi.service.component.annotations.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of a {@link org.apache.tamaya.format.ConfigurationFormat} for configuration compiled by
+ * {@link BinaryConfigurationCompiler}. Reading {@link ConfigurationData} decodes all entries, use
+ * {@link #createPropertySource(URL)} (as done by
+ * {@link org.apache.tamaya.format.ConfigurationFormats#createPropertySource(URL, ConfigurationFormat...)})
+ * to decode the values only when accessed.
+ */
+@Component
+public class BinaryConfigurationFormat implements ConfigurationFormat {
+
+    @Override
+    public String getName() {
+        return "binary";
+    }
+
+    @Override
+    public boolean accepts(URL url) {
+        return url.getFile().endsWith(BinaryConfigurationCompiler.FILE_EXTENSION);
+    }
+
+    @Override
+    public ConfigurationData readConfiguration(String resource, InputStream inputStream) throws IOException {
+        BinaryConfiguration config;
+        try (InputStreamFactory factory = new InputStreamFactory(inputStream)) {
+            config = BinaryConfiguration.of(factory.getByteBuffer());
+        }
+        List<PropertyValue> data = new ArrayList<>(config.size());
+        for (int i = 0; i < config.size(); i++) {
+            PropertyValue value = PropertyValue.createValue(config.getKey(i), config.getValue(i));
+            Map<String, String> meta = config.getMeta(i);
+            if (!meta.isEmpty()) {
+                value.setMeta(meta);
+            }
+            data.add(value.setMeta("source", resource));
+        }
+        return new ConfigurationData(resource, this, data);
+    }
+
+    /**
+     * Creates a property source reading the compiled configuration in place.
+     *
+     * @param url the compiled configuration, not null.
+     * @return the property source, never null.
+     * @throws IOException if the URL cannot be read or is not a compiled configuration.
+     */
+    public PropertySource createPropertySource(URL url) throws IOException {
+        return new BinaryConfigurationPropertySource(url.toExternalForm(), BinaryConfiguration.of(url));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format.formats;
+
+import org.apache.tamaya.spi.PropertyValue;
+import org.apache.tamaya.spisupport.propertysource.BasePropertySource;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Property source backed by a {@link BinaryConfiguration}. Values are decoded on first access and then kept.
+ */
+public class BinaryConfigurationPropertySource extends BasePropertySource {
+
+    private final BinaryConfiguration config;
+    private final AtomicReferenceArray<PropertyValue> values;
+    private final Map<String, PropertyValue> properties = new BinaryPropertyMap();
+
+    /**
+     * Creates a new instance, using the default ordinal of 0.
+     *
+     * @param name the name of the property source, not null.
+     * @param config the compiled configuration, not null.
+     */
+    public BinaryConfigurationPropertySource(String name, BinaryConfiguration config) {
+        this(name, 0, config);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name the name of the property source, not null.
+     * @param defaultOrdinal the default ordinal.
+     * @param config the compiled configuration, not null.
+     */
+    public BinaryConfigurationPropertySource(String name, int defaultOrdinal, BinaryConfiguration config) {
+        super(defaultOrdinal);
+        setName(Objects.requireNonNull(name));
+        this.config = Objects.requireNonNull(config);
+        this.values = new AtomicReferenceArray<>(config.size());
+    }
+
+    @Override
+    public PropertyValue get(String key) {
+        int index = config.indexOf(key);
+        return index < 0 ? null : valueAt(index);
+    }
+
+    @Override
+    public Map<String, PropertyValue> getProperties() {
+        return properties;
+    }
+
+    private PropertyValue valueAt(int index) {
+        PropertyValue value = values.get(index);
+        if (value == null) {
+            value = PropertyValue.createValue(config.getKey(index), config.getValue(index));
+            Map<String, String> meta = config.getMeta(index);
+            if (!meta.isEmpty()) {
+                value.setMeta(meta);
+            }
+            value.setMeta("source", getName());
+            if (!values.compareAndSet(index, null, value)) {
+                value = values.get(index);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Read-only map view on the compiled entries.
+     */
+    private final class BinaryPropertyMap extends AbstractMap<String, PropertyValue> {
+
+        @Override
+        public PropertyValue get(Object key) {
+            return key instanceof String ? BinaryConfigurationPropertySource.this.get((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && config.indexOf((String) key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return config.size();
+        }
+
+        @Override
+        public Set<Entry<String, PropertyValue>> entrySet() {
+            return new AbstractSet<Entry<String, PropertyValue>>() {
+                @Override
+                public Iterator<Entry<String, PropertyValue>> iterator() {
+                    return new Iterator<Entry<String, PropertyValue>>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < config.size();
+                        }
+
+                        @Override
+                        public Entry<String, PropertyValue> next() {
+                            if (index >= config.size()) {
+                                throw new NoSuchElementException();
+                            }
+                            PropertyValue value = valueAt(index++);
+                            return new SimpleImmutableEntry<>(value.getKey(), value);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return config.size();
+                }
+            };
+        }
+    }
+}
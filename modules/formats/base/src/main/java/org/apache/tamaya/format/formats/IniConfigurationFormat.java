@@ -18,24 +18,25 @@
  */
 package org.apache.tamaya.format.formats;
 
-import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.format.ConfigurationData;
 import org.apache.tamaya.format.ConfigurationFormat;
 import org.apache.tamaya.spi.ObjectValue;
 import org.apache.tamaya.spi.PropertyValue;
 import org.osgi.service.component.annotations.Component;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * Implements a ini file format.
+ * Implements a ini file format. Entries before the first section are added to the <i>default</i> section,
+ * sections and entries keep the order read. Keys and values are trimmed, lines starting with {@code #} or
+ * {@code ;} are comments and a backslash at the end of a line continues the value on the next line.
  */
 @Component
 public class IniConfigurationFormat implements ConfigurationFormat {
@@ -54,50 +55,32 @@ public class IniConfigurationFormat implements ConfigurationFormat {
     @Override
     public ConfigurationData readConfiguration(String resource, InputStream inputStream)
     throws IOException{
-        PropertyValue data = PropertyValue.createObject();
-        data.setMeta("resource", resource);
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-            String line = reader.readLine();
-            int lineNum = 0;
-            Map<String,PropertyValue> sections = new HashMap<>();
-            String section = null;
-            while (line != null) {
-                lineNum++;
-                line = line.trim();
-                if (line.isEmpty()) {
-                    line = reader.readLine();
-                    continue;
-                }
-                if (line.startsWith("[")) {
-                    int end = line.indexOf(']');
-                    if (end < 0) {
-                        throw new ConfigException(
-                                "Invalid INI-Format, ']' expected, at " + lineNum + " in " + resource);
+        final Map<String, ObjectValue> sections = new LinkedHashMap<>();
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            new KeyValueParser(resource, reader, KeyValueParser.Syntax.INI).parse(new KeyValueParser.Handler() {
+                private ObjectValue current;
+
+                @Override
+                public void section(String name) {
+                    current = sections.get(name);
+                    if (current == null) {
+                        current = (ObjectValue) PropertyValue.createObject(name)
+                                .setMeta(ConfigurationFormat.class.getName(), IniConfigurationFormat.this);
+                        sections.put(name, current);
                     }
-                    section = line.substring(1, end);
-                } else if (line.trim().startsWith("#")) {
-                    // comment
-                } else {
-                    int sep = line.indexOf('=');
-                    String key = line.substring(0, sep);
-                    String value = line.substring(sep + 1);
-                    if (section != null) {
-                        final String finalSection = section;
-                        ObjectValue sectionPV = (ObjectValue)sections.computeIfAbsent(finalSection,
-                                s -> PropertyValue.createObject(finalSection)
-                        .setMeta(ConfigurationFormat.class.getName(), this));
-                        sectionPV.setValue(key, value).setMeta("source", resource)
-                                .setMeta(ConfigurationFormat.class.getName(), this);
-                    } else {
-                        String finalSection = "default";
-                        ObjectValue sectionBuilder = (ObjectValue)sections.computeIfAbsent(finalSection,
-                                s -> PropertyValue.createObject(finalSection).setMeta("source", resource));
-                        sectionBuilder.setValue(key, value).setMeta("source", resource)
-                                .setMeta(ConfigurationFormat.class.getName(), this);
+                }
+
+                @Override
+                public void entry(String key, String value) {
+                    if (current == null) {
+                        current = (ObjectValue) PropertyValue.createObject(ConfigurationData.DEFAULT_SECTION_NAME)
+                                .setMeta("source", resource);
+                        sections.put(ConfigurationData.DEFAULT_SECTION_NAME, current);
                     }
+                    current.setValue(key, value).setMeta("source", resource)
+                            .setMeta(ConfigurationFormat.class.getName(), IniConfigurationFormat.this);
                 }
-                line = reader.readLine();
-            }
+            });
             return new ConfigurationData(resource, this, sections.values());
         } catch (Exception e) {
             if(e instanceof IOException){
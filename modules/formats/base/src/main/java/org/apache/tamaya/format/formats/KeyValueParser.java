@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format.formats;
+
+import org.apache.tamaya.ConfigException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Objects;
+
+/**
+ * Single pass parser for line based key/value formats, reading through its own char buffer. The parser does
+ * not build any intermediate structures, keys and values are passed to a {@link Handler} in the order read.
+ * <ul>
+ *     <li>{@link Syntax#PROPERTIES} follows {@link java.util.Properties#load(Reader)}: {@code #} and {@code !}
+ *     comments, {@code =}, {@code :} or whitespace as separator, escapes (including {@code \}{@code uXXXX})
+ *     and continuation lines ending with a backslash.</li>
+ *     <li>{@link Syntax#INI} supports {@code [section]} headers, {@code #} and {@code ;} comments and
+ *     {@code key = value} entries with trimmed keys and values. Only a backslash at the end of a line is
+ *     treated as escape (continuation), so values such as Windows paths are kept as written.</li>
+ * </ul>
+ * Syntax errors are reported as {@link ConfigException}, giving the resource, line and column.
+ */
+final class KeyValueParser {
+
+    /**
+     * The supported syntax variants.
+     */
+    enum Syntax {
+        PROPERTIES,
+        INI
+    }
+
+    /**
+     * Callback receiving the parsed data.
+     */
+    interface Handler {
+        /**
+         * Called when a section starts, only called for {@link Syntax#INI}.
+         * @param name the section name, not null.
+         */
+        void section(String name);
+
+        /**
+         * Called for each entry.
+         * @param key the key, not null.
+         * @param value the value, not null.
+         */
+        void entry(String key, String value);
+    }
+
+    private static final int EOF = -1;
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final String resource;
+    private final Reader reader;
+    private final Syntax syntax;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder key = new StringBuilder();
+    private final StringBuilder value = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean skipLineFeed;
+    private int line = 1;
+    private int column;
+    private int lineEndColumn;
+
+    /**
+     * Creates a new parser.
+     * @param resource the resource name used in error messages, not null.
+     * @param reader the reader, not null. The reader is not closed.
+     * @param syntax the syntax, not null.
+     */
+    KeyValueParser(String resource, Reader reader, Syntax syntax) {
+        this.resource = Objects.requireNonNull(resource);
+        this.reader = Objects.requireNonNull(reader);
+        this.syntax = Objects.requireNonNull(syntax);
+    }
+
+    /**
+     * Parses the input, passing all sections and entries to the given handler.
+     * @param handler the handler, not null.
+     * @throws IOException if reading fails.
+     * @throws ConfigException if the input is not valid.
+     */
+    void parse(Handler handler) throws IOException {
+        int c = next();
+        while (c != EOF) {
+            while (isWhitespace(c) || c == '\n') {
+                c = next();
+            }
+            if (c == EOF) {
+                break;
+            }
+            if (isComment(c)) {
+                c = skipLine();
+            } else if (syntax == Syntax.INI && c == '[') {
+                c = section(handler);
+            } else {
+                c = entry(c, handler);
+            }
+        }
+    }
+
+    private boolean isComment(int c) {
+        if (c == '#') {
+            return true;
+        }
+        return syntax == Syntax.PROPERTIES ? c == '!' : c == ';';
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private int skipLine() throws IOException {
+        skipPlain();
+        int c = next();
+        while (c != EOF && c != '\n') {
+            c = next();
+        }
+        return c;
+    }
+
+    private int section(Handler handler) throws IOException {
+        value.setLength(0);
+        int c = next();
+        while (c != ']') {
+            if (c == EOF || c == '\n') {
+                throw error("']' expected");
+            }
+            value.append((char) c);
+            c = next();
+        }
+        handler.section(value.toString().trim());
+        return skipLine();
+    }
+
+    private int entry(int first, Handler handler) throws IOException {
+        key.setLength(0);
+        value.setLength(0);
+        int c = first;
+        boolean separator = false;
+        while (c != EOF && c != '\n') {
+            if (c == '\\') {
+                c = escape(key);
+                continue;
+            }
+            if (c == '=' || (c == ':' && syntax == Syntax.PROPERTIES)) {
+                separator = true;
+                c = next();
+                break;
+            }
+            if (isWhitespace(c) && syntax == Syntax.PROPERTIES) {
+                while (isWhitespace(c)) {
+                    c = next();
+                }
+                if (c == '=' || c == ':') {
+                    c = next();
+                }
+                separator = true;
+                break;
+            }
+            key.append((char) c);
+            appendPlain(key, true);
+            c = next();
+        }
+        if (!separator && syntax == Syntax.INI) {
+            throw error("'=' expected");
+        }
+        while (isWhitespace(c)) {
+            c = next();
+        }
+        while (c != EOF && c != '\n') {
+            if (c == '\\') {
+                c = escape(value);
+                continue;
+            }
+            value.append((char) c);
+            appendPlain(value, false);
+            c = next();
+        }
+        if (syntax == Syntax.INI) {
+            handler.entry(trim(key), trim(value));
+        } else {
+            handler.entry(key.toString(), value.toString());
+        }
+        return c;
+    }
+
+    /**
+     * Handles a backslash, appending the escaped character to the target.
+     * @return the next character to be processed.
+     */
+    private int escape(StringBuilder target) throws IOException {
+        int c = next();
+        if (c == '\n') {
+            // continuation line, leading whitespace is ignored.
+            c = next();
+            while (isWhitespace(c)) {
+                c = next();
+            }
+            return c;
+        }
+        if (syntax == Syntax.INI) {
+            target.append('\\');
+            return c;
+        }
+        switch (c) {
+            case EOF:
+                return c;
+            case 't':
+                target.append('\t');
+                break;
+            case 'n':
+                target.append('\n');
+                break;
+            case 'r':
+                target.append('\r');
+                break;
+            case 'f':
+                target.append('\f');
+                break;
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(next(), 16);
+                    if (digit < 0) {
+                        throw error("malformed \\uXXXX encoding");
+                    }
+                    code = (code << 4) + digit;
+                }
+                target.append((char) code);
+                break;
+            default:
+                target.append((char) c);
+                break;
+        }
+        return next();
+    }
+
+    /**
+     * Appends the characters following in the buffer directly, up to the next character that needs
+     * special handling.
+     * @param target the target.
+     * @param inKey true, if a key is read, so separators end the run.
+     */
+    private void appendPlain(StringBuilder target, boolean inKey) {
+        int start = position;
+        int end = scan(inKey);
+        target.append(buffer, start, end - start);
+    }
+
+    private void skipPlain() {
+        scan(false);
+    }
+
+    private int scan(boolean inKey) {
+        int pos = position;
+        boolean properties = syntax == Syntax.PROPERTIES;
+        while (pos < limit) {
+            char c = buffer[pos];
+            if (c == '\\' || c == '\n' || c == '\r') {
+                break;
+            }
+            if (inKey && (c == '=' || (properties && (c == ':' || c == ' ' || c == '\t' || c == '\f')))) {
+                break;
+            }
+            pos++;
+        }
+        column += pos - position;
+        position = pos;
+        return pos;
+    }
+
+    private static String trim(StringBuilder b) {
+        int start = 0;
+        int end = b.length();
+        while (start < end && b.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && b.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return b.substring(start, end);
+    }
+
+    /**
+     * Reads the next character, line terminators ({@code \r}, {@code \n} and {@code \r\n}) are returned as
+     * {@code \n}.
+     */
+    private int next() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        char c = buffer[position++];
+        if (skipLineFeed) {
+            skipLineFeed = false;
+            if (c == '\n') {
+                return next();
+            }
+        }
+        if (c == '\r' || c == '\n') {
+            skipLineFeed = c == '\r';
+            line++;
+            lineEndColumn = column + 1;
+            column = 0;
+            return '\n';
+        }
+        column++;
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        while (read == 0) {
+            read = reader.read(buffer, 0, buffer.length);
+        }
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private ConfigException error(String message) {
+        // errors are detected at the character read last, which may already be the line terminator.
+        boolean atLineEnd = column == 0 && line > 1;
+        return new ConfigException("Invalid " + (syntax == Syntax.INI ? "INI" : "properties") + "-Format, "
+                + message + ", at line " + (atLineEnd ? line - 1 : line) + ", column "
+                + (atLineEnd ? lineEndColumn : Math.max(column, 1)) + " in " + resource);
+    }
+}
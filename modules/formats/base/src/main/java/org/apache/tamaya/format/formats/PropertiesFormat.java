@@ -25,11 +25,18 @@ import org.osgi.service.component.annotations.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URL;
-import java.util.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Implementation of a {@link org.apache.tamaya.format.ConfigurationFormat} for -properties files.
+ * Implementation of a {@link org.apache.tamaya.format.ConfigurationFormat} for -properties files. The syntax
+ * follows {@link java.util.Properties#load(java.io.InputStream)}, including the ISO 8859-1 encoding, but the
+ * entries are read in a single pass, keeping their order.
  *
  * @see java.util.Properties#load(java.io.InputStream)
  */
@@ -48,18 +55,28 @@ public class PropertiesFormat implements ConfigurationFormat {
                 fileName.endsWith(".conf") || fileName.endsWith(".CONF");
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public ConfigurationData readConfiguration(String resource, InputStream inputStream)throws IOException {
-            final Properties p = new Properties();
-            p.load(inputStream);
-            Set<PropertyValue> data = new HashSet<>();
-            for(Map.Entry en:p.entrySet()) {
-                PropertyValue pv = PropertyValue.createValue(en.getKey().toString(), en.getValue().toString())
-                        .setMeta("source", resource)
-                        .setMeta(ConfigurationFormat.class.getName(), this);
-                data.add(pv);
+        final Map<String, String> entries = new LinkedHashMap<>();
+        new KeyValueParser(resource, new InputStreamReader(inputStream, StandardCharsets.ISO_8859_1),
+                KeyValueParser.Syntax.PROPERTIES).parse(new KeyValueParser.Handler() {
+            @Override
+            public void section(String name) {
+                // not supported by properties
             }
-            return new ConfigurationData(resource, this, data);
+
+            @Override
+            public void entry(String key, String value) {
+                entries.put(key, value);
+            }
+        });
+        List<PropertyValue> data = new ArrayList<>(entries.size());
+        for(Map.Entry<String, String> en:entries.entrySet()) {
+            PropertyValue pv = PropertyValue.createValue(en.getKey(), en.getValue())
+                    .setMeta("source", resource)
+                    .setMeta(ConfigurationFormat.class.getName(), this);
+            data.add(pv);
+        }
+        return new ConfigurationData(resource, this, data);
     }
 }
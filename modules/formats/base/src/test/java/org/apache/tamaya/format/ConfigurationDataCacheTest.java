@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format;
+
+import org.apache.tamaya.format.formats.PropertiesFormat;
+import org.junit.Test;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigurationDataCacheTest {
+
+    private final ConfigurationFormat format = new PropertiesFormat();
+
+    private static Path createFile(String content) throws Exception {
+        Path file = Files.createTempFile("cache", ".properties");
+        file.toFile().deleteOnExit();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void unchangedResourceIsCacheHit() throws Exception {
+        URL url = createFile("a=1\nb=2\n").toUri().toURL();
+        ConfigurationDataCache cache = new ConfigurationDataCache();
+        ConfigurationData data = cache.read(url, format);
+        assertThat(data).isNotNull();
+        assertThat(data.isImmutable()).isTrue();
+        assertThat(cache.read(url, format)).isSameAs(data);
+        assertThat(cache.getStatistics().get("hits")).isEqualTo(1L);
+        assertThat(cache.getStatistics().get("misses")).isEqualTo(1L);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void changedResourceIsReadAgain() throws Exception {
+        Path file = createFile("a=1\n");
+        URL url = file.toUri().toURL();
+        ConfigurationDataCache cache = new ConfigurationDataCache();
+        ConfigurationData data = cache.read(url, format);
+        Files.write(file, "a=22\n".getBytes(StandardCharsets.UTF_8));
+        ConfigurationData updated = cache.read(url, format);
+        assertThat(updated).isNotSameAs(data);
+        assertThat(updated.getData().get(0).toMap()).containsEntry("a", "22");
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntries() throws Exception {
+        URL url1 = createFile("a=1234567890\n").toUri().toURL();
+        URL url2 = createFile("b=1234567890\n").toUri().toURL();
+        ConfigurationDataCache cache = new ConfigurationDataCache(20);
+        cache.read(url1, format);
+        cache.read(url2, format);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getBytes()).isLessThanOrEqualTo(20);
+        assertThat(cache.getStatistics().get("evictions")).isEqualTo(1L);
+        cache.invalidate(url2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void cachedDataCanBeMapped() throws Exception {
+        URL url = createFile("a=1\n").toUri().toURL();
+        ConfigurationDataCache cache = new ConfigurationDataCache();
+        ConfigurationData data = cache.read(url, format);
+        assertThat(data.toPropertySource().get("a").getValue()).isEqualTo("1");
+        assertThat(new MappedConfigurationDataPropertySource(data).get("a").getValue()).isEqualTo("1");
+    }
+}
@@ -18,10 +18,19 @@
  */
 package org.apache.tamaya.format;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -34,7 +43,7 @@ public class ConfigurationFormatsTest {
     public void testGetFormats() throws Exception {
         List<ConfigurationFormat> formats = ConfigurationFormats.getInstance().getFormats();
         assertThat(formats).isNotNull();
-        assertThat(formats).hasSize(3);
+        assertThat(formats).hasSize(4);
     }
 
     @org.junit.Test
@@ -128,4 +137,67 @@ public class ConfigurationFormatsTest {
         assertThat(data).isNotNull();
         System.out.println(data);
     }
+
+    @org.junit.Test
+    public void testReadConfigurationDataAsync_KeepsOrderAndSkipsFailures() throws Exception {
+        List<URL> urls = Arrays.asList(
+                getClass().getResource("/Test.properties"),
+                new URL("file:/doesNotExist/missing.properties"),
+                getClass().getResource("/Test.ini"));
+        List<ConfigurationData> data = new ArrayList<>(ConfigurationFormats.getInstance().readConfigurationDataAsync(
+                urls, Collections.emptyList(), 0, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS));
+        assertThat(data).hasSize(2);
+        assertThat(data.get(0).getResource()).isEqualTo(urls.get(0).toString());
+        assertThat(data.get(1).getResource()).isEqualTo(urls.get(2).toString());
+    }
+
+    private static URL slowUrl(final long millis) throws IOException {
+        return new URL(null, "slow:config.properties", new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL u) {
+                return new URLConnection(u) {
+                    @Override
+                    public void connect() {
+                    }
+
+                    @Override
+                    public InputStream getInputStream() throws IOException {
+                        try {
+                            Thread.sleep(millis);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new IOException("Too slow");
+                    }
+                };
+            }
+        });
+    }
+
+    @org.junit.Test
+    public void testReadConfigurationDataAsync_SlowUrlTimesOut() throws Exception {
+        List<URL> urls = Arrays.asList(slowUrl(5000L), getClass().getResource("/Test.properties"));
+        long start = System.nanoTime();
+        Collection<ConfigurationData> data = ConfigurationFormats.getInstance().readConfigurationDataAsync(
+                urls, ConfigurationFormats.getInstance().getFormats("properties"), 200, TimeUnit.MILLISECONDS)
+                .get(10, TimeUnit.SECONDS);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(4000L);
+        assertThat(data).hasSize(1);
+        assertThat(data.iterator().next().getResource()).isEqualTo(urls.get(1).toString());
+    }
+
+    @org.junit.Test
+    public void testReadConfigurationDataAsync_QueuedUrlsDoNotTimeOut() throws Exception {
+        URL local = getClass().getResource("/Test.properties");
+        List<URL> urls = Arrays.asList(slowUrl(600L), local, local, local);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Collection<ConfigurationData> data = ConfigurationFormats.getInstance().readConfigurationDataAsync(
+                    urls, ConfigurationFormats.getInstance().getFormats("properties"), executor,
+                    200, TimeUnit.MILLISECONDS).get(10, TimeUnit.SECONDS);
+            assertThat(data).hasSize(3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format;
+
+import org.apache.tamaya.format.formats.IniConfigurationFormat;
+import org.apache.tamaya.format.formats.PropertiesFormat;
+import org.apache.tamaya.format.formats.PropertiesXmlFormat;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FormatSnifferTest {
+
+    private static List<String> sniff(String content) {
+        return FormatSniffer.sniff(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void detectsFormatsByContent() {
+        assertThat(sniff("<?xml version=\"1.0\"?>\n<properties/>")).containsExactly("xml-properties");
+        assertThat(sniff("  {\"a\": 1}")).startsWith("json");
+        assertThat(sniff("[1, 2]")).startsWith("json");
+        assertThat(sniff("# comment\n[section]\na=b")).startsWith("ini");
+        assertThat(sniff("---\na: b")).containsExactly("yaml");
+        assertThat(sniff("a: b")).startsWith("yaml");
+        assertThat(sniff("! comment\na.b = c")).startsWith("properties");
+        assertThat(sniff("url=http://localhost")).startsWith("properties");
+    }
+
+    @Test
+    public void unknownContentIsNotDetected() {
+        assertThat(sniff("")).isEmpty();
+        assertThat(sniff("\n# only a comment\n")).isEmpty();
+        assertThat(sniff("plain text")).isEmpty();
+    }
+
+    @Test
+    public void ordersProbableFormatsFirst() {
+        ConfigurationFormat properties = new PropertiesFormat();
+        ConfigurationFormat ini = new IniConfigurationFormat();
+        ConfigurationFormat xml = new PropertiesXmlFormat();
+        List<ConfigurationFormat> formats = Arrays.asList(properties, ini, xml);
+        ByteBuffer data = ByteBuffer.wrap("<?xml version=\"1.0\"?>".getBytes(StandardCharsets.UTF_8));
+        assertThat(FormatSniffer.order(formats, data)).containsExactly(xml, properties, ini);
+        assertThat(data.position()).isZero();
+        data = ByteBuffer.wrap("[section]".getBytes(StandardCharsets.UTF_8));
+        assertThat(FormatSniffer.order(formats, data)).containsExactly(ini, properties, xml);
+    }
+}
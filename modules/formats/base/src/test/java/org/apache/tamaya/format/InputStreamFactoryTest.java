@@ -23,6 +23,9 @@ import org.junit.Test;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doReturn;
@@ -139,4 +142,79 @@ public class InputStreamFactoryTest {
         }
     }
 
+    @Test
+    public void readsStreamsLargerThanTheInitialBuffer() throws IOException {
+        byte[] data = new byte[100_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        InputStreamFactory factory = new InputStreamFactory(new ByteArrayInputStream(data));
+        assertThat(factory.size()).isEqualTo(data.length);
+        byte[] read = new byte[data.length];
+        try (InputStream is = factory.createInputStream()) {
+            assertThat(is.read(read)).isEqualTo(data.length);
+            assertThat(is.read()).isEqualTo(-1);
+        }
+        assertThat(read).isEqualTo(data);
+    }
+
+    @Test
+    public void createsReadOnlyViewsForFileUrls() throws IOException {
+        for (boolean map : new boolean[]{false, true}) {
+            for (int size : new int[]{10, 100_000}) {
+                assertReadsFileUrl(size, map);
+            }
+        }
+    }
+
+    @Test
+    public void copiedFileUrlsAreIndependentOfTheFile() throws IOException {
+        byte[] data = new byte[100_000];
+        Arrays.fill(data, (byte) 3);
+        Path file = Files.createTempFile("factory", ".bin");
+        try {
+            Files.write(file, data);
+            try (InputStreamFactory factory = InputStreamFactory.of(file.toUri().toURL())) {
+                Files.write(file, new byte[0]);
+                byte[] read = new byte[data.length];
+                try (InputStream is = factory.createInputStream()) {
+                    assertThat(is.read(read)).isEqualTo(data.length);
+                }
+                assertThat(read).isEqualTo(data);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void closedFactoryFailsToCreateStreams() throws IOException {
+        InputStreamFactory factory = new InputStreamFactory(new ByteArrayInputStream(new byte[]{1}));
+        factory.close();
+        factory.createInputStream();
+    }
+
+    private static void assertReadsFileUrl(int size, boolean map) throws IOException {
+        byte[] data = new byte[size];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 7);
+        }
+        Path file = Files.createTempFile("factory", ".bin");
+        try {
+            Files.write(file, data);
+            try (InputStreamFactory factory = InputStreamFactory.of(file.toUri().toURL(), map)) {
+                assertThat(factory.size()).isEqualTo(size);
+                assertThat(factory.getByteBuffer().isReadOnly()).isTrue();
+                for (int i = 0; i < 2; i++) {
+                    byte[] read = new byte[size];
+                    try (InputStream is = factory.createInputStream()) {
+                        assertThat(is.read(read)).isEqualTo(size);
+                    }
+                    assertThat(read).isEqualTo(data);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
 }
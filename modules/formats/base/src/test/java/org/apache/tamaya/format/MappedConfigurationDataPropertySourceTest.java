@@ -18,11 +18,50 @@
  */
 package org.apache.tamaya.format;
 
+import org.apache.tamaya.format.formats.PropertiesFormat;
+import org.apache.tamaya.spi.PropertyValue;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * Tests for {@link MappedConfigurationDataPropertySource}.
  */
 public class MappedConfigurationDataPropertySourceTest {
 
+    private static ConfigurationData read(String content) throws Exception {
+        return new PropertiesFormat().readConfiguration("test",
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testFlatLookup() throws Exception {
+        MappedConfigurationDataPropertySource ps = new MappedConfigurationDataPropertySource(
+                read("b=bValue\na=aValue\nc.d=cdValue\n"));
+        assertThat(ps.getName()).isEqualTo("test");
+        assertThat(ps.get("a").getValue()).isEqualTo("aValue");
+        assertThat(ps.get("c.d").getValue()).isEqualTo("cdValue");
+        assertThat(ps.get("a").getMeta("source")).isEqualTo("test");
+        assertThat(ps.get("a")).isSameAs(ps.get("a"));
+        assertThat(ps.get("x")).isNull();
+    }
+
+    @Test
+    public void testFlatProperties() throws Exception {
+        MappedConfigurationDataPropertySource ps = new MappedConfigurationDataPropertySource(
+                read("b=bValue\na=aValue\n"));
+        Map<String, PropertyValue> properties = ps.getProperties();
+        assertThat(properties).hasSize(2);
+        assertThat(properties).containsKeys("a", "b");
+        assertThat(properties.keySet()).containsExactly("a", "b");
+        assertThat(properties.get("b").getValue()).isEqualTo("bValue");
+        assertThat(properties.containsKey("c")).isFalse();
+    }
+
 //    @Test
 //    public void testGetName() throws Exception {
 //        MappedConfigurationDataPropertySource ps = new MappedConfigurationDataPropertySource(createConfigurationData("test1"));
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format;
+
+import org.apache.tamaya.events.ConfigEvent;
+import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigEventManager;
+import org.apache.tamaya.events.PropertySourceChange;
+import org.apache.tamaya.format.formats.PropertiesFormat;
+import org.apache.tamaya.spi.PropertyValue;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReloadableFormatPropertySourceTest {
+
+    private static void write(Path file, String content, long lastModified) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        // make sure the change is detected even if the file system has a coarse timestamp resolution
+        file.toFile().setLastModified(lastModified);
+    }
+
+    @Test
+    public void reloadAppliesOnlyChangedKeys() throws Exception {
+        Path file = Files.createTempFile("reload", ".properties");
+        file.toFile().deleteOnExit();
+        write(file, "a=1\nb=2\nc=3\n", 1_000_000L);
+        ReloadableFormatPropertySource ps = new ReloadableFormatPropertySource(file.toUri().toURL(),
+                new PropertiesFormat());
+        assertThat(ps.getProperties()).hasSize(3);
+        PropertyValue a = ps.get("a");
+        assertThat(a.getValue()).isEqualTo("1");
+        assertThat(a.getMeta("source")).isEqualTo(file.toUri().toURL().toString());
+
+        final List<PropertySourceChange> changes = new ArrayList<>();
+        ConfigEventListener listener = new ConfigEventListener() {
+            @Override
+            public void onConfigEvent(ConfigEvent<?> event) {
+                if (event instanceof PropertySourceChange &&
+                        ((PropertySourceChange) event).getResource().getName().equals(ps.getName())) {
+                    changes.add((PropertySourceChange) event);
+                }
+            }
+        };
+        ConfigEventManager.getInstance().addListener(listener);
+        try {
+            assertThat(ps.reload()).isFalse();
+            write(file, "a=1\nb=22\nd=4\n", 2_000_000L);
+            assertThat(ps.reload()).isTrue();
+        } finally {
+            ConfigEventManager.getInstance().removeListener(listener);
+        }
+        assertThat(ps.get("a")).isSameAs(a);
+        assertThat(ps.get("b").getValue()).isEqualTo("22");
+        assertThat(ps.get("c")).isNull();
+        assertThat(ps.get("d").getValue()).isEqualTo("4");
+        assertThat(changes).hasSize(1);
+        PropertySourceChange change = changes.get(0);
+        assertThat(change.getChanges()).hasSize(3);
+        assertThat(change.isUpdated("b")).isTrue();
+        assertThat(change.isRemoved("c")).isTrue();
+        assertThat(change.isAdded("d")).isTrue();
+        assertThat(change.isKeyAffected("a")).isFalse();
+    }
+
+    @Test
+    public void failedReloadKeepsProperties() throws Exception {
+        Path file = Files.createTempFile("reload", ".properties");
+        write(file, "a=1\n", 1_000_000L);
+        ReloadableFormatPropertySource ps = new ReloadableFormatPropertySource(file.toUri().toURL(),
+                new PropertiesFormat());
+        Files.delete(file);
+        assertThat(ps.reload()).isFalse();
+        assertThat(ps.get("a").getValue()).isEqualTo("1");
+    }
+}
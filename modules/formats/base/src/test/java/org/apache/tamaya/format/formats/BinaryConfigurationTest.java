@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format.formats;
+
+import org.apache.tamaya.format.ConfigurationData;
+import org.apache.tamaya.format.ConfigurationFormats;
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BinaryConfigurationTest {
+
+    private static byte[] compile(BinaryConfigurationCompiler compiler) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compiler.write(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testCompileAndRead() throws Exception {
+        BinaryConfigurationCompiler compiler = new BinaryConfigurationCompiler()
+                .add("b", "B", null)
+                .add("a.c", "C", Collections.singletonMap("source", "test"))
+                .add("a", "A", null)
+                .add("ä", "umlaut", null)
+                .add("empty", null, null);
+        BinaryConfiguration config = BinaryConfiguration.of(ByteBuffer.wrap(compile(compiler)));
+        assertThat(config.size()).isEqualTo(5);
+        assertThat(config.getKey(0)).isEqualTo("a");
+        assertThat(config.getValue(config.indexOf("a.c"))).isEqualTo("C");
+        assertThat(config.getMeta(config.indexOf("a.c"))).containsEntry("source", "test");
+        assertThat(config.getMeta(config.indexOf("a"))).isEmpty();
+        assertThat(config.getValue(config.indexOf("ä"))).isEqualTo("umlaut");
+        assertThat(config.getValue(config.indexOf("empty"))).isNull();
+        assertThat(config.indexOf("missing")).isNegative();
+        for (int i = 0; i < config.size(); i++) {
+            assertThat(config.indexOf(config.getKey(i))).isEqualTo(i);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherData() throws Exception {
+        BinaryConfiguration.of(ByteBuffer.wrap("a=b\nc=d\ne=f\ng=h\ni=j\nk=l\nm=n\no=p\n".getBytes()));
+    }
+
+    @Test
+    public void testCompileConfigurationData() throws Exception {
+        URL source = getClass().getResource("/Test.properties");
+        BinaryConfigurationCompiler compiler = new BinaryConfigurationCompiler().add(source);
+        ConfigurationData expected = ConfigurationFormats.getInstance().readConfigurationData(source);
+        assertThat(compiler.size()).isEqualTo(expected.getData().size());
+
+        ConfigurationData data = new BinaryConfigurationFormat().readConfiguration("compiled",
+                new ByteArrayInputStream(compile(compiler)));
+        assertThat(data.getData()).hasSize(compiler.size());
+        assertThat(data.getData().get(0).getMeta("source")).isEqualTo("compiled");
+    }
+
+    @Test
+    public void testPropertySource() throws Exception {
+        File file = File.createTempFile("config", BinaryConfigurationCompiler.FILE_EXTENSION);
+        file.deleteOnExit();
+        BinaryConfigurationCompiler compiler = new BinaryConfigurationCompiler();
+        for (int i = 0; i < 1000; i++) {
+            compiler.add("key." + i, "value." + i, null);
+        }
+        compiler.write(file);
+
+        PropertySource propertySource = ConfigurationFormats.getInstance()
+                .createPropertySource(file.toURI().toURL());
+        assertThat(propertySource).isInstanceOf(BinaryConfigurationPropertySource.class);
+        assertThat(propertySource.get("key.42").getValue()).isEqualTo("value.42");
+        assertThat(propertySource.get("key.42")).isSameAs(propertySource.get("key.42"));
+        assertThat(propertySource.get("key.1000")).isNull();
+        Map<String, ?> properties = propertySource.getProperties();
+        assertThat(properties).hasSize(1000);
+        assertThat(properties.containsKey("key.999")).isTrue();
+    }
+}
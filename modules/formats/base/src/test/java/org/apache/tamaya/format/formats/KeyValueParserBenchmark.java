@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format.formats;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Simple benchmark comparing {@link PropertiesFormat} and {@link IniConfigurationFormat} with the implementations
+ * they replace ({@link Properties#load(java.io.InputStream)} and a line based reader) on multi megabyte input.
+ * Not run as part of the build, start it using its main method, optionally passing the number of entries.
+ */
+public final class KeyValueParserBenchmark {
+
+    private static final int ROUNDS = 20;
+
+    private KeyValueParserBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        StringBuilder properties = new StringBuilder();
+        StringBuilder ini = new StringBuilder();
+        for (int i = 0; i < entries; i++) {
+            properties.append("some.config.key.").append(i).append(" = value number ").append(i).append('\n');
+            if (i % 100 == 0) {
+                ini.append("[section").append(i / 100).append("]\n");
+            }
+            ini.append("key.").append(i).append(" = value number ").append(i).append('\n');
+        }
+        byte[] propertiesData = properties.toString().getBytes(StandardCharsets.ISO_8859_1);
+        byte[] iniData = ini.toString().getBytes(StandardCharsets.UTF_8);
+        System.out.println("properties: " + propertiesData.length / 1024 + " KB, ini: " + iniData.length / 1024 + " KB");
+
+        PropertiesFormat propertiesFormat = new PropertiesFormat();
+        IniConfigurationFormat iniFormat = new IniConfigurationFormat();
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            Properties p = new Properties();
+            p.load(new ByteArrayInputStream(propertiesData));
+            long loaded = System.nanoTime();
+            propertiesFormat.readConfiguration("bench", new ByteArrayInputStream(propertiesData));
+            long parsed = System.nanoTime();
+            readIniLineBased(iniData);
+            long iniLoaded = System.nanoTime();
+            iniFormat.readConfiguration("bench", new ByteArrayInputStream(iniData));
+            long iniParsed = System.nanoTime();
+            System.out.println(String.format("round %2d: Properties.load %4d ms, PropertiesFormat %4d ms, " +
+                            "line based INI %4d ms, IniConfigurationFormat %4d ms", round,
+                    (loaded - start) / 1_000_000, (parsed - loaded) / 1_000_000,
+                    (iniLoaded - parsed) / 1_000_000, (iniParsed - iniLoaded) / 1_000_000));
+        }
+    }
+
+    /**
+     * The line based approach used before, without building the configuration data.
+     */
+    private static Map<String, Map<String, String>> readIniLineBased(byte[] data) throws IOException {
+        Map<String, Map<String, String>> sections = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(data),
+                StandardCharsets.UTF_8))) {
+            String section = "default";
+            String line = reader.readLine();
+            while (line != null) {
+                line = line.trim();
+                if (line.startsWith("[")) {
+                    section = line.substring(1, line.indexOf(']'));
+                } else if (!line.isEmpty() && !line.trim().startsWith("#")) {
+                    int sep = line.indexOf('=');
+                    final String finalSection = section;
+                    sections.computeIfAbsent(finalSection, s -> new HashMap<>())
+                            .put(line.substring(0, sep), line.substring(sep + 1));
+                }
+                line = reader.readLine();
+            }
+        }
+        return sections;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.format.formats;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.format.ConfigurationData;
+import org.apache.tamaya.spi.PropertyValue;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class KeyValueParserTest {
+
+    private static Map<String, String> parse(String input, KeyValueParser.Syntax syntax) throws Exception {
+        final Map<String, String> result = new LinkedHashMap<>();
+        new KeyValueParser("test", new StringReader(input), syntax).parse(new KeyValueParser.Handler() {
+            @Override
+            public void section(String name) {
+                result.put("[" + name + "]", "");
+            }
+
+            @Override
+            public void entry(String key, String value) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    @Test
+    public void testPropertiesSyntaxMatchesJavaUtilProperties() throws Exception {
+        String input = "a=b\n" +
+                "  key1 = value1  \n" +
+                "# comment\n" +
+                "! comment\n" +
+                "k\\ 2:v\\\n" +
+                "   continued\\\\\n" +
+                "empty\n" +
+                "u=\\u00e4\\t|\r\n" +
+                "ws key\tvalue\n" +
+                "\\#noComment=x\n" +
+                "sep:=b\r" +
+                "last=\\\n";
+        Properties expected = new Properties();
+        expected.load(new StringReader(input));
+        Map<String, String> result = parse(input, KeyValueParser.Syntax.PROPERTIES);
+        assertThat(result).isEqualTo(new HashMap<>((Map) expected));
+        assertThat(new ArrayList<>(result.keySet()).subList(0, 3)).containsExactly("a", "key1", "k 2");
+    }
+
+    @Test
+    public void testIniSyntax() throws Exception {
+        Map<String, String> result = parse("top = 1\n; comment\n[ s1 ]\npath = C:\\temp\\x \n" +
+                "multi=a \\\n  b\n[s2]\nc=3", KeyValueParser.Syntax.INI);
+        assertThat(new ArrayList<>(result.keySet())).containsExactly("top", "[s1]", "path", "multi", "[s2]", "c");
+        assertThat(result).containsEntry("top", "1").containsEntry("path", "C:\\temp\\x")
+                .containsEntry("multi", "a b");
+    }
+
+    @Test
+    public void testErrorsReportLineAndColumn() throws Exception {
+        try {
+            parse("a=b\n[section\nc=d", KeyValueParser.Syntax.INI);
+            fail("ConfigException expected");
+        } catch (ConfigException e) {
+            assertThat(e.getMessage()).contains("']' expected").contains("line 2, column 9").contains("test");
+        }
+        try {
+            parse("a=b\nnoValue\n", KeyValueParser.Syntax.INI);
+            fail("ConfigException expected");
+        } catch (ConfigException e) {
+            assertThat(e.getMessage()).contains("'=' expected").contains("line 2, column 8");
+        }
+        try {
+            parse("a=\\u00zz", KeyValueParser.Syntax.PROPERTIES);
+            fail("ConfigException expected");
+        } catch (ConfigException e) {
+            assertThat(e.getMessage()).contains("line 1");
+        }
+    }
+
+    @Test
+    public void testPropertiesFormatKeepsOrder() throws Exception {
+        ConfigurationData data = new PropertiesFormat().readConfiguration("test",
+                new ByteArrayInputStream("z=1\na=2\nm=3\n".getBytes(StandardCharsets.ISO_8859_1)));
+        List<String> keys = new ArrayList<>();
+        for (PropertyValue value : data.getData()) {
+            keys.add(value.getKey());
+        }
+        assertThat(keys).containsExactly("z", "a", "m");
+    }
+}
@@ -38,6 +38,8 @@ import org.apache.tamaya.spi.PropertyValue;
 
 /**
  * Typesafe (Lightbend) Config (HOCON) {@link org.apache.tamaya.format.ConfigurationFormat} implementation.
+ * Substitutions are resolved before the values are copied. Use {@link HOCONPropertySource} for looking up
+ * values on the parsed configuration directly.
  */
 public class HOCONFormat implements ConfigurationFormat {
 
@@ -58,7 +60,8 @@ public class HOCONFormat implements ConfigurationFormat {
             throws IOException {
         Config typesafeConfig;
         try{
-            typesafeConfig = ConfigFactory.parseReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            typesafeConfig = ConfigFactory.parseReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))
+                    .resolve();
             return new ConfigurationData(resource, this, buildConfigurationData(typesafeConfig.root()));
         } catch(Exception e) {
             throw new IOException("Failed to read data from " + resource, e);
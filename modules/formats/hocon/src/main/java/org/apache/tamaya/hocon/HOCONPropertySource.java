@@ -18,16 +18,25 @@
  */
 package org.apache.tamaya.hocon;
 
-import org.apache.tamaya.ConfigException;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigParseOptions;
+import com.typesafe.config.ConfigSyntax;
+import com.typesafe.config.ConfigUtil;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueType;
 import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertyValue;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,7 +44,12 @@ import java.util.logging.Logger;
 import static java.lang.String.format;
 
 /**
- * Property source based on a HOCON file.
+ * Property source based on a HOCON file. The parsed and resolved {@link Config} is kept, single keys are looked up
+ * directly on it, so values are only converted when accessed. The complete flattened property map is only built,
+ * when {@link #getProperties()} is called, and is then cached. Keys that cannot be looked up as paths, e.g. keys
+ * of list elements or keys below a quoted key like {@code "a.b"}, are resolved by descending the parsed objects
+ * along the key. If a key is ambiguous, the plain path wins, so a key resolves the same way, regardless if
+ * {@link #getProperties()} was called before.
  */
 public class HOCONPropertySource implements PropertySource {
 
@@ -43,13 +57,15 @@ public class HOCONPropertySource implements PropertySource {
 
     /** The underlying resource. */
     private final URL urlResource;
-    /** The values read. */
-    private final Map<String, PropertyValue> values;
+    /** The parsed and resolved configuration. */
+    private final Config config;
+    /** The values accessed by key. */
+    private final Map<String, PropertyValue> accessed = new ConcurrentHashMap<>();
+    /** The flattened values, created on first access. */
+    private volatile Map<String, PropertyValue> values;
     /** The evaluated ordinal. */
     private int ordinal;
 
-    private static final HOCONFormat HOCON_FORMAT = new HOCONFormat();
-
     /**
      * Constructor, hereby using 0 as the default ordinal.
      * @param resource the resource modelled as URL, not null.
@@ -68,9 +84,10 @@ public class HOCONPropertySource implements PropertySource {
     public HOCONPropertySource(URL resource, int defaultOrdinal)throws IOException {
         urlResource = Objects.requireNonNull(resource);
         this.ordinal = defaultOrdinal; // may be overriden by read...
-        this.values = readConfig(urlResource);
-        if (this.values.containsKey(TAMAYA_ORDINAL)) {
-            this.ordinal = Integer.parseInt(this.values.get(TAMAYA_ORDINAL).getValue());
+        this.config = parseConfig(urlResource);
+        PropertyValue configuredOrdinal = get(TAMAYA_ORDINAL);
+        if (configuredOrdinal != null) {
+            this.ordinal = Integer.parseInt(configuredOrdinal.getValue());
         }
     }
 
@@ -95,29 +112,146 @@ public class HOCONPropertySource implements PropertySource {
 
     @Override
     public PropertyValue get(String key) {
-        return getProperties().get(key);
+        Map<String, PropertyValue> flattened = this.values;
+        if (flattened != null) {
+            return flattened.get(key);
+        }
+        PropertyValue value = accessed.get(key);
+        if (value == null) {
+            String text = lookup(key);
+            if (text == null) {
+                return null;
+            }
+            value = accessed.computeIfAbsent(key, k -> createValue(k, text));
+        }
+        return value;
+    }
+
+    private String lookup(String key) {
+        ConfigValue value = null;
+        try {
+            if (config.hasPath(key)) {
+                value = config.getValue(key);
+            }
+        } catch (com.typesafe.config.ConfigException.BadPath e) {
+            // not a HOCON path, e.g. a key of a list element.
+        }
+        if (value == null || value.valueType() == ConfigValueType.OBJECT
+                || value.valueType() == ConfigValueType.LIST) {
+            value = find(config.root(), key);
+        }
+        if (value == null || value.valueType() == ConfigValueType.NULL) {
+            return null;
+        }
+        return value.unwrapped().toString();
+    }
+
+    /**
+     * Resolves a flattened key, which is no HOCON path, by descending the objects and lists along the key. At
+     * each level the shortest matching object key is tried first, e.g. {@code a.b.c} is resolved as
+     * {@code a -> "b.c"} before {@code "a.b" -> c}.
+     * @param value the current value, not null.
+     * @param key the remaining key, relative to the current value.
+     * @return the scalar value found, or null.
+     */
+    private static ConfigValue find(ConfigValue value, String key) {
+        if (key.isEmpty()) {
+            return value instanceof ConfigObject || value instanceof ConfigList ? null : value;
+        }
+        if (value instanceof ConfigObject) {
+            ConfigObject object = (ConfigObject) value;
+            for (int i = 1; i <= key.length(); i++) {
+                if (i < key.length() && key.charAt(i) != '.' && key.charAt(i) != '[') {
+                    continue;
+                }
+                ConfigValue child = object.get(key.substring(0, i));
+                if (child != null) {
+                    String rest = i == key.length() ? "" : key.substring(key.charAt(i) == '.' ? i + 1 : i);
+                    ConfigValue found = find(child, rest);
+                    if (found != null) {
+                        return found;
+                    }
+                }
+            }
+        } else if (value instanceof ConfigList && key.startsWith("[")) {
+            ConfigList list = (ConfigList) value;
+            int end = key.indexOf(']');
+            if (end > 0) {
+                try {
+                    int index = Integer.parseInt(key.substring(1, end));
+                    if (index >= 0 && index < list.size()) {
+                        String rest = key.substring(end + 1);
+                        return find(list.get(index), rest.startsWith(".") ? rest.substring(1) : rest);
+                    }
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
     }
 
     @Override
     public Map<String, PropertyValue> getProperties() {
+        Map<String, PropertyValue> flattened = this.values;
+        if (flattened == null) {
+            synchronized (this) {
+                flattened = this.values;
+                if (flattened == null) {
+                    Map<String, PropertyValue> result = new HashMap<>();
+                    flatten(null, config.root(), false, result);
+                    // keep the instances already handed out.
+                    result.putAll(accessed);
+                    flattened = Collections.unmodifiableMap(result);
+                    this.values = flattened;
+                }
+            }
+        }
+        return flattened;
+    }
+
+    /**
+     * Flattens the given value. Keys below a quoted key, e.g. {@code "a.b"}, may collide with plain paths, in
+     * this case the plain path wins, the same as in {@link #get(String)}.
+     */
+    private void flatten(String key, ConfigValue value, boolean quoted, Map<String, PropertyValue> result) {
+        if (value instanceof ConfigObject) {
+            for (Map.Entry<String, ConfigValue> en : ((ConfigObject) value).entrySet()) {
+                // joinPath quotes all elements, that are no plain path elements
+                boolean quotedKey = !ConfigUtil.joinPath(en.getKey()).equals(en.getKey());
+                flatten(key == null ? en.getKey() : key + '.' + en.getKey(), en.getValue(), quoted || quotedKey,
+                        result);
+            }
+        } else if (value instanceof ConfigList) {
+            ConfigList list = (ConfigList) value;
+            for (int i = 0; i < list.size(); i++) {
+                flatten(key + '[' + i + ']', list.get(i), quoted, result);
+            }
+        } else if (value.valueType() != ConfigValueType.NULL) {
+            if (quoted) {
+                result.putIfAbsent(key, createValue(key, value.unwrapped().toString()));
+            } else {
+                result.put(key, createValue(key, value.unwrapped().toString()));
+            }
+        }
+    }
 
-        return Collections.unmodifiableMap(values);
+    private PropertyValue createValue(String key, String value) {
+        return PropertyValue.createValue(key, value).setMeta("source", getName());
     }
 
     /**
-     * Reads the configuration.
+     * Parses and resolves the configuration.
      * @param url soure of the configuration.
-     * @return the configuration read from the given resource URL.
-     * @throws ConfigException if resource URL cannot be read.
-     * @throws IOException if reading the urlResource fails.
+     * @return the resolved configuration.
+     * @throws IOException if the resource cannot be read or parsed, or substitutions cannot be resolved.
      */
-    protected Map<String, PropertyValue> readConfig(URL url) throws IOException{
-        try (InputStream is = url.openStream()) {
-            return HOCON_FORMAT.readConfiguration(url.toString(), is).toPropertySource().getProperties();
-        }catch(IOException ioe){
-            throw ioe;
-        }catch (Exception t) {
-            throw new IOException(format("Failed to read properties from %s", urlResource.toExternalForm()), t);
+    private static Config parseConfig(URL url) throws IOException {
+        try {
+            return ConfigFactory.parseURL(url, ConfigParseOptions.defaults()
+                    .setSyntax(ConfigSyntax.CONF).setAllowMissing(false)).resolve();
+        } catch (Exception t) {
+            throw new IOException(format("Failed to read properties from %s", url.toExternalForm()), t);
         }
     }
 
@@ -44,8 +44,7 @@ public class PathBasedHOCONPropertySourceProvider extends AbstractPathPropertySo
     protected Collection<PropertySource> getPropertySources(URL url) {
         if(hoconFormat.accepts(url)){
             try {
-                return Collections.singletonList(
-                        hoconFormat.readConfiguration(url.toString(), url.openStream()).toPropertySource());
+                return Collections.singletonList(new HOCONPropertySource(url));
             } catch (IOException e) {
                 LOG.log(Level.SEVERE, "Failed to read yaml file: " +url, e);
             }
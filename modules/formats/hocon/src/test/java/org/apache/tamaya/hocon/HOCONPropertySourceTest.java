@@ -20,8 +20,10 @@ package org.apache.tamaya.hocon;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.Map;
 
 import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValue;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -57,8 +59,59 @@ public class HOCONPropertySourceTest extends CommonHOCONTestCaseCollection {
         new HOCONPropertySource(configURL);
     }
 
+    @Test
+    public void testSubstitutionsAreResolved() throws Exception {
+        URL configURL = HOCONPropertySourceTest.class.getResource("/configs/substitution/with-substitution.conf");
+
+        assertThat(configURL).isNotNull();
+
+        HOCONPropertySource source = new HOCONPropertySource(configURL);
+        assertThat(source.get("paths.data").getValue()).isEqualTo("/opt/app/data");
+        assertThat(source.get("paths.logs").getValue()).isEqualTo("/opt/app/data/logs");
+        assertThat(source.get("paths")).isNull();
+        assertThat(source.get("missing")).isNull();
+        assertThat(source.get("ports[1]").getValue()).isEqualTo("8443");
+    }
+
+    @Test
+    public void testGetPropertiesIsCached() throws Exception {
+        URL configURL = HOCONPropertySourceTest.class.getResource("/configs/substitution/with-substitution.conf");
+
+        HOCONPropertySource source = new HOCONPropertySource(configURL);
+        PropertyValue base = source.get("base");
+        Map<String, PropertyValue> properties = source.getProperties();
+        assertThat(properties).hasSize(5);
+        assertThat(properties.get("base")).isSameAs(base);
+        assertThat(properties.get("ports[0]").getValue()).isEqualTo("8080");
+        assertThat(source.getProperties()).isSameAs(properties);
+    }
+
     @Override
     PropertySource getPropertiesFrom(URL source) throws Exception {
         return new HOCONPropertySource(source);
     }
+
+    @Test
+    public void testQuotedKeysIndependentOfAccessOrder() throws Exception {
+        URL configURL = HOCONPropertySourceTest.class.getResource("/configs/keys/quoted-keys.conf");
+
+        HOCONPropertySource source = new HOCONPropertySource(configURL);
+        assertThat(source.get("a.b").getValue()).isEqualTo("1");
+        assertThat(source.get("plain.c").getValue()).isEqualTo("2");
+        assertThat(source.get("plain.d.e").getValue()).isEqualTo("3");
+        assertThat(source.get("x y").getValue()).isEqualTo("4");
+        assertThat(source.get("l.m[1].n").getValue()).isEqualTo("6");
+        assertThat(source.get("l.m[0]").getValue()).isEqualTo("5");
+        assertThat(source.get("c.d").getValue()).isEqualTo("7");
+        assertThat(source.get("a")).isNull();
+        assertThat(source.get("l.m[2]")).isNull();
+
+        HOCONPropertySource flattened = new HOCONPropertySource(configURL);
+        Map<String, PropertyValue> properties = flattened.getProperties();
+        assertThat(properties).containsOnlyKeys("a.b", "plain.c", "plain.d.e", "x y", "l.m[0]", "l.m[1].n",
+                "c.d");
+        for (String key : properties.keySet()) {
+            assertThat(source.get(key).getValue()).isEqualTo(flattened.get(key).getValue());
+        }
+    }
 }
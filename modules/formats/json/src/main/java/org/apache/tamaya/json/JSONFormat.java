@@ -24,16 +24,8 @@ import org.apache.tamaya.format.ConfigurationFormat;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.nio.charset.Charset;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 
-import javax.json.Json;
-import javax.json.JsonObject;
-import javax.json.JsonReader;
-import javax.json.JsonReaderFactory;
-
 /**
  * Implementation of the {@link org.apache.tamaya.format.ConfigurationFormat}
  * able to read configuration properties with comments represented in JSON
@@ -47,17 +39,15 @@ public class JSONFormat implements ConfigurationFormat {
      */
     public static final String JOHNZON_SUPPORTS_COMMENTS_PROP = "org.apache.johnzon.supports-comments";
     /**
-     * The reader factory used.
+     * The streaming reader used.
      */
-    private final JsonReaderFactory readerFactory;
+    private final JSONStreamReader reader;
 
     /**
-     * Constructor, initializing the JSON reader factory.
+     * Constructor, initializing the JSON streaming reader.
      */
     public JSONFormat() {
-        Map<String, Object> config = new HashMap<>();
-        config.put(JOHNZON_SUPPORTS_COMMENTS_PROP, true);
-        this.readerFactory = Json.createReaderFactory(config);
+        this.reader = new JSONStreamReader();
     }
 
     @Override
@@ -72,10 +62,10 @@ public class JSONFormat implements ConfigurationFormat {
 
     @Override
     public ConfigurationData readConfiguration(String resource, InputStream inputStream) throws IOException {
-        try (JsonReader reader = this.readerFactory.createReader(inputStream, Charset.forName("UTF-8"))) {
-            JsonObject root = reader.readObject();
-            JSONDataBuilder dataBuilder = new JSONDataBuilder(resource, root);
-            return new ConfigurationData(resource, this, dataBuilder.build());
+        try {
+            return new ConfigurationData(resource, this, reader.readData(resource, inputStream));
+        } catch (IOException e) {
+            throw e;
         } catch (Exception e) {
             throw new IOException("Failed to read data from " + resource, e);
         }
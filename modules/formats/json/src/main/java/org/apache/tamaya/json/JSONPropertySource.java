@@ -25,20 +25,13 @@ import org.apache.tamaya.spi.PropertyValue;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.json.Json;
-import javax.json.JsonReaderFactory;
-import javax.json.JsonStructure;
-
 import static java.lang.String.format;
-import javax.json.JsonReader;
 
 /**
  * Property source based on a JSON file.
@@ -63,18 +56,9 @@ public class JSONPropertySource implements PropertySource {
      */
     private int ordinal;
     /**
-     * The JSON reader factory used.
+     * The streaming JSON reader used.
      */
-    private JsonReaderFactory readerFactory = initReaderFactory();
-
-    /**
-     * Initializes the factory to be used for creating readers.
-     */
-    private JsonReaderFactory initReaderFactory() {
-        Map<String, Object> config = new HashMap<>();
-        config.put(JOHNZON_SUPPORTS_COMMENTS_PROP, true);
-        return Json.createReaderFactory(config);
-    }
+    private final JSONStreamReader reader = new JSONStreamReader();
 
     /**
      * Constructor, hereby using 0 as the default ordinal.
@@ -141,17 +125,7 @@ public class JSONPropertySource implements PropertySource {
      */
     protected Map<String, PropertyValue> readConfig(URL urlResource) throws IOException {
         try (InputStream is = urlResource.openStream()) {
-            try (JsonReader reader = this.readerFactory.createReader(is, StandardCharsets.UTF_8)) {
-                JsonStructure root = reader.read();
-
-                JSONDataBuilder visitor = new JSONDataBuilder(urlResource.toString(), root);
-                Map<String, String> values = visitor.build().toMap();
-                Map<String, PropertyValue> result = new HashMap<>();
-                for (Map.Entry<String, String> en : values.entrySet()) {
-                    result.put(en.getKey(), PropertyValue.createValue(en.getKey(), en.getValue()).setMeta("source", getName()));
-                }
-                return result;
-            }
+            return reader.readProperties(getName(), is);
         } catch (IOException ioe) {
             throw ioe;
         } catch (Exception t) {
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tamaya.json;
+
+import org.apache.tamaya.spi.ListValue;
+import org.apache.tamaya.spi.ObjectValue;
+import org.apache.tamaya.spi.PropertyValue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+
+/**
+ * Reads JSON documents using the streaming {@link JsonParser} API, so no intermediate {@code javax.json}
+ * object tree is created. {@link #readProperties(String, InputStream)} emits the qualified keys
+ * (e.g. {@code a.b[0].c}) and values straight into the resulting map, {@link #readData(String, InputStream)}
+ * builds the {@link PropertyValue} tree required by {@link org.apache.tamaya.format.ConfigurationData}.
+ */
+final class JSONStreamReader {
+
+    /**
+     * The parser factory used.
+     */
+    private final JsonParserFactory parserFactory;
+
+    /**
+     * Constructor, initializing the JSON parser factory with comment support enabled.
+     */
+    JSONStreamReader() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(JSONFormat.JOHNZON_SUPPORTS_COMMENTS_PROP, true);
+        this.parserFactory = Json.createParserFactory(config);
+    }
+
+    /**
+     * Reads the JSON document in one pass into a flat map of qualified keys. As with {@link JSONDataBuilder}
+     * {@code null} values within objects are mapped to {@code null}, {@code null} array entries and empty
+     * objects or arrays are omitted.
+     *
+     * @param source the source added as {@code source} metadata to each value, not null.
+     * @param inputStream the input stream, not null.
+     * @return the properties read, never null.
+     * @throws IOException if the document is empty or cannot be parsed.
+     */
+    Map<String, PropertyValue> readProperties(String source, InputStream inputStream) throws IOException {
+        Objects.requireNonNull(source);
+        Map<String, PropertyValue> result = new HashMap<>();
+        try (JsonParser parser = parserFactory.createParser(inputStream, StandardCharsets.UTF_8)) {
+            KeyPath path = new KeyPath();
+            while (parser.hasNext()) {
+                JsonParser.Event event = parser.next();
+                switch (event) {
+                    case START_OBJECT:
+                    case START_ARRAY:
+                        path.push(event == JsonParser.Event.START_ARRAY);
+                        break;
+                    case END_OBJECT:
+                    case END_ARRAY:
+                        path.pop();
+                        break;
+                    case KEY_NAME:
+                        path.key(parser.getString());
+                        break;
+                    case VALUE_NULL:
+                        if (!path.inArray()) {
+                            put(result, path.toString(), null, source);
+                        }
+                        break;
+                    default:
+                        path.element();
+                        put(result, path.toString(), scalarValue(event, parser), source);
+                        break;
+                }
+            }
+            if (!path.isComplete()) {
+                throw new IOException("Failed to read data from " + source + ": no JSON object or array found.");
+            }
+        } catch (JsonException e) {
+            throw new IOException("Failed to read data from " + source, e);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the JSON object contained in the given document into a {@link PropertyValue} tree.
+     *
+     * @param resource the resource, not null.
+     * @param inputStream the input stream, not null.
+     * @return the root object, never null.
+     * @throws IOException if the document does not contain a JSON object or cannot be parsed.
+     */
+    PropertyValue readData(String resource, InputStream inputStream) throws IOException {
+        Objects.requireNonNull(resource);
+        try (JsonParser parser = parserFactory.createParser(inputStream, StandardCharsets.UTF_8)) {
+            if (!parser.hasNext() || parser.next() != JsonParser.Event.START_OBJECT) {
+                throw new IOException("Failed to read data from " + resource + ": JSON object expected.");
+            }
+            ObjectValue root = PropertyValue.createObject("");
+            Deque<PropertyValue> stack = new ArrayDeque<>();
+            stack.push(root);
+            String key = null;
+            while (parser.hasNext() && !stack.isEmpty()) {
+                JsonParser.Event event = parser.next();
+                PropertyValue current = stack.peek();
+                switch (event) {
+                    case KEY_NAME:
+                        key = parser.getString();
+                        break;
+                    case START_OBJECT:
+                        stack.push(current instanceof ListValue ? ((ListValue) current).addObject()
+                                : ((ObjectValue) current).addObject(key));
+                        break;
+                    case START_ARRAY:
+                        stack.push(current instanceof ListValue ? ((ListValue) current).addList()
+                                : ((ObjectValue) current).addList(key));
+                        break;
+                    case END_OBJECT:
+                    case END_ARRAY:
+                        stack.pop();
+                        break;
+                    case VALUE_NULL:
+                        if (current instanceof ObjectValue) {
+                            ((ObjectValue) current).setValue(key, null);
+                        }
+                        break;
+                    default:
+                        String value = scalarValue(event, parser);
+                        if (current instanceof ListValue) {
+                            ((ListValue) current).addValue(value);
+                        } else {
+                            ((ObjectValue) current).setValue(key, value);
+                        }
+                        break;
+                }
+            }
+            if (!stack.isEmpty()) {
+                throw new IOException("Failed to read data from " + resource + ": unexpected end of document.");
+            }
+            root.setMeta("resource", resource);
+            root.setMeta("format", "json");
+            return root;
+        } catch (JsonException e) {
+            throw new IOException("Failed to read data from " + resource, e);
+        }
+    }
+
+    private static String scalarValue(JsonParser.Event event, JsonParser parser) {
+        switch (event) {
+            case VALUE_TRUE:
+                return Boolean.TRUE.toString();
+            case VALUE_FALSE:
+                return Boolean.FALSE.toString();
+            case VALUE_STRING:
+            case VALUE_NUMBER:
+                return parser.getString();
+            default:
+                throw new JsonException("Unexpected JSON event: " + event);
+        }
+    }
+
+    private static void put(Map<String, PropertyValue> result, String key, String value, String source) {
+        result.put(key, PropertyValue.createValue(key, value).setMeta("source", source));
+    }
+
+    /**
+     * Reusable buffer tracking the qualified key of the current value. For each nesting level the length
+     * of the parent key and, for arrays, the index of the next element is recorded.
+     */
+    private static final class KeyPath {
+        private final StringBuilder path = new StringBuilder(64);
+        private int[] baseLengths = new int[8];
+        private int[] indices = new int[8];
+        private int depth = -1;
+        private boolean started;
+
+        void push(boolean array) {
+            if (depth >= 0) {
+                element();
+            }
+            depth++;
+            if (depth == baseLengths.length) {
+                baseLengths = Arrays.copyOf(baseLengths, depth * 2);
+                indices = Arrays.copyOf(indices, depth * 2);
+            }
+            baseLengths[depth] = path.length();
+            indices[depth] = array ? 0 : -1;
+            started = true;
+        }
+
+        void pop() {
+            path.setLength(baseLengths[depth]);
+            depth--;
+        }
+
+        void key(String key) {
+            int base = baseLengths[depth];
+            path.setLength(base);
+            if (base > 0) {
+                path.append('.');
+            }
+            path.append(key);
+        }
+
+        /**
+         * Positions the path on the next element if the current level is an array, object members are
+         * positioned by {@link #key(String)}.
+         */
+        void element() {
+            if (depth >= 0 && indices[depth] >= 0) {
+                path.setLength(baseLengths[depth]);
+                path.append('[').append(indices[depth]++).append(']');
+            }
+        }
+
+        boolean inArray() {
+            return depth >= 0 && indices[depth] >= 0;
+        }
+
+        boolean isComplete() {
+            return started && depth < 0;
+        }
+
+        @Override
+        public String toString() {
+            return path.toString();
+        }
+    }
+}
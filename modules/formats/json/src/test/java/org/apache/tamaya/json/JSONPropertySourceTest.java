@@ -46,6 +46,21 @@ public class JSONPropertySourceTest extends CommonJSONTestCaseCollection {
         new JSONPropertySource(configURL);
     }
 
+    @Test
+    public void testArrayElementsAreMappedToIndexedKeys() throws Exception {
+        URL configURL = JSONPropertySourceTest.class.getResource("/configs/invalid/with-array.json");
+
+        assertThat(configURL).isNotNull();
+
+        JSONPropertySource source = new JSONPropertySource(configURL);
+        assertThat(source.getProperties()).hasSize(4);
+        assertThat(source.get("a").getValue()).isEqualTo("A");
+        assertThat(source.get("b.c").getValue()).isEqualTo("C");
+        assertThat(source.get("b.d[0]").getValue()).isEqualTo("1");
+        assertThat(source.get("b.d[1]").getValue()).isEqualTo("2");
+        assertThat(source.get("b.d[1]").getMeta("source")).isEqualTo(configURL.toExternalForm());
+    }
+
     @Override
     PropertySource getPropertiesFrom(URL source) throws Exception {
         return new JSONPropertySource(source);
@@ -0,0 +1,692 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tamaya.yaml;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.spi.ListValue;
+import org.apache.tamaya.spi.ObjectValue;
+import org.apache.tamaya.spi.PropertyValue;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionEndEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Reads YAML documents from SnakeYAML's low level event stream ({@link Yaml#parse(java.io.Reader)}), so no generic
+ * {@code Map}/{@code List} graph is created. Documents of a multi document stream are processed one after the
+ * other as they are parsed. Anchors, aliases and merge keys ({@code <<}) are resolved by replaying the recorded
+ * events of the anchored node.
+ * <p>Scalars are passed on as written, except for implicit {@code null} values, which are mapped to {@code null}
+ * (to {@code "null"} within sequences), implicit booleans (e.g. {@code yes}, {@code off}), which are
+ * normalized to {@code true/false}, and implicit integers and floats, which are normalized the same way as
+ * SnakeYAML's constructors did, e.g. {@code 1_000} to {@code 1000}, {@code 0b101} to {@code 5}, {@code 1e3} to
+ * {@code 1000.0} or {@code .inf} to {@code Infinity}. Timestamps are passed on as written.</p>
+ */
+final class YAMLEventReader {
+
+    /**
+     * {@link Yaml} instances are not thread safe, so they are reused per thread.
+     */
+    private static final ThreadLocal<Yaml> YAML = ThreadLocal.withInitial(Yaml::new);
+    /**
+     * The resolver used for implicit scalar types, only read after construction.
+     */
+    private static final Resolver RESOLVER = new Resolver();
+    private static final Set<String> TRUE_VALUES = new HashSet<>(Arrays.asList("yes", "true", "on"));
+    private static final String MERGE_KEY = "<<";
+
+    /**
+     * Callback receiving the structure of the documents read.
+     */
+    interface Handler {
+        /**
+         * Called when a document with content starts.
+         * @param index the index of the document within the stream.
+         */
+        void startDocument(int index);
+
+        /**
+         * Called when a mapping starts.
+         * @param key the key within the enclosing mapping, or null for sequence elements and document roots.
+         */
+        void startMapping(String key);
+
+        /**
+         * Called when a sequence starts.
+         * @param key the key within the enclosing mapping, or null for sequence elements and document roots.
+         */
+        void startSequence(String key);
+
+        /**
+         * Called when the current mapping or sequence ends.
+         */
+        void endCollection();
+
+        /**
+         * Called for a scalar value.
+         * @param key the key within the enclosing mapping, or null for sequence elements.
+         * @param value the value, may be null.
+         */
+        void value(String key, String value);
+    }
+
+    private YAMLEventReader() {
+    }
+
+    /**
+     * Reads all documents from the given stream into separate {@link PropertyValue} trees.
+     *
+     * @param resource the resource, not null.
+     * @param inputStream the input stream, not null.
+     * @return the document roots, never null.
+     * @throws ConfigException if the stream does not contain any mapping or sequence document.
+     */
+    static List<PropertyValue> readData(String resource, InputStream inputStream) {
+        TreeHandler handler = new TreeHandler(resource);
+        read(inputStream, handler);
+        if (handler.documents.isEmpty()) {
+            throw new ConfigException("No YAML document found in " + resource);
+        }
+        return handler.documents;
+    }
+
+    /**
+     * Reads the given stream into a flat map of qualified keys (e.g. {@code a.b[0].c}). With multiple
+     * documents the values of later documents override earlier ones.
+     *
+     * @param source the source added as {@code source} metadata to each value, not null.
+     * @param inputStream the input stream, not null.
+     * @return the properties read, never null.
+     * @throws ConfigException if the stream does not contain any mapping or sequence document.
+     */
+    static Map<String, PropertyValue> readProperties(String source, InputStream inputStream) {
+        FlatHandler handler = new FlatHandler(Objects.requireNonNull(source));
+        if (read(inputStream, handler) == 0) {
+            throw new ConfigException("No YAML document found in " + source);
+        }
+        return handler.result;
+    }
+
+    /**
+     * Reads the given stream, passing the documents to the given handler.
+     *
+     * @param inputStream the input stream, not null.
+     * @param handler the handler, not null.
+     * @return the number of documents with content read.
+     * @throws ConfigException if the stream cannot be parsed.
+     */
+    static int read(InputStream inputStream, Handler handler) {
+        Iterable<Event> events = YAML.get().parse(new UnicodeReader(Objects.requireNonNull(inputStream)));
+        try {
+            return new Walker(events.iterator(), Objects.requireNonNull(handler)).run();
+        } catch (YAMLException e) {
+            throw new ConfigException("Failed to parse YAML document.", e);
+        }
+    }
+
+    private static String resolve(ScalarEvent event) {
+        String value = event.getValue();
+        if (event.getTag() == null && event.getImplicit().canOmitTagInPlainScalar()) {
+            Tag tag = RESOLVER.resolve(NodeId.scalar, value, true);
+            if (Tag.NULL.equals(tag)) {
+                return null;
+            }
+            if (Tag.BOOL.equals(tag)) {
+                return String.valueOf(TRUE_VALUES.contains(value.toLowerCase(Locale.ROOT)));
+            }
+            try {
+                if (Tag.INT.equals(tag)) {
+                    return normalizeInt(value);
+                }
+                if (Tag.FLOAT.equals(tag)) {
+                    return normalizeFloat(value);
+                }
+            } catch (NumberFormatException e) {
+                return value;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Normalizes an implicit YAML 1.1 integer (underscores, sign, binary, octal, hexadecimal and base 60 forms)
+     * to its decimal representation, like SnakeYAML's {@code ConstructYamlInt}.
+     *
+     * @param scalar the scalar, not null.
+     * @return the decimal value.
+     */
+    private static String normalizeInt(String scalar) {
+        String value = scalar.replace("_", "");
+        String sign = "";
+        if (value.startsWith("-")) {
+            sign = "-";
+            value = value.substring(1);
+        } else if (value.startsWith("+")) {
+            value = value.substring(1);
+        }
+        int radix = 10;
+        if ("0".equals(value)) {
+            return "0";
+        } else if (value.startsWith("0b")) {
+            value = value.substring(2);
+            radix = 2;
+        } else if (value.startsWith("0x")) {
+            value = value.substring(2);
+            radix = 16;
+        } else if (value.startsWith("0")) {
+            value = value.substring(1);
+            radix = 8;
+        } else if (value.indexOf(':') >= 0) {
+            long result = 0;
+            for (String digits : value.split(":")) {
+                result = result * 60 + Long.parseLong(digits);
+            }
+            value = String.valueOf(result);
+        }
+        return new BigInteger(sign + value, radix).toString();
+    }
+
+    /**
+     * Normalizes an implicit YAML 1.1 float (underscores, exponents, base 60, {@code .inf} and {@code .nan}) to
+     * the representation of the corresponding {@code double}, like SnakeYAML's {@code ConstructYamlFloat}.
+     *
+     * @param scalar the scalar, not null.
+     * @return the normalized value.
+     */
+    private static String normalizeFloat(String scalar) {
+        String value = scalar.replace("_", "");
+        int sign = 1;
+        if (value.startsWith("-")) {
+            sign = -1;
+            value = value.substring(1);
+        } else if (value.startsWith("+")) {
+            value = value.substring(1);
+        }
+        String lowerCase = value.toLowerCase(Locale.ROOT);
+        double result;
+        if (".inf".equals(lowerCase)) {
+            result = sign * Double.POSITIVE_INFINITY;
+        } else if (".nan".equals(lowerCase)) {
+            result = Double.NaN;
+        } else if (value.indexOf(':') >= 0) {
+            result = 0.0;
+            for (String digits : value.split(":")) {
+                result = result * 60 + Double.parseDouble(digits);
+            }
+            result *= sign;
+        } else {
+            result = Double.parseDouble(value) * sign;
+        }
+        return String.valueOf(result);
+    }
+
+    /**
+     * An event source, either the parser or the recorded events of an anchor being replayed.
+     */
+    private static final class Source {
+        final Iterator<Event> events;
+        final Frame mergeTarget;
+
+        Source(Iterator<Event> events, Frame mergeTarget) {
+            this.events = events;
+            this.mergeTarget = mergeTarget;
+        }
+    }
+
+    /**
+     * The events of an anchored collection being recorded.
+     */
+    private static final class Recording {
+        final String anchor;
+        final List<Event> events = new ArrayList<>();
+        int depth = 1;
+
+        Recording(String anchor, Event start) {
+            this.anchor = anchor;
+            this.events.add(start);
+        }
+    }
+
+    /**
+     * State of an open mapping or sequence.
+     */
+    private static final class Frame {
+        final boolean mapping;
+        /** The key of the next value, null if a key is expected. */
+        String key;
+        /** The keys already set in this mapping, used to resolve merge keys. */
+        Set<String> keys;
+        /** Number of merges currently replayed into this mapping. */
+        int merging;
+        /** The events of the mappings merged into this mapping, replayed when the mapping ends. */
+        List<Event> merged;
+
+        Frame(boolean mapping) {
+            this.mapping = mapping;
+        }
+
+        boolean expectsKey() {
+            return mapping && key == null;
+        }
+    }
+
+    /**
+     * Walks through the events of a stream.
+     */
+    private static final class Walker {
+        private final Source parser;
+        private final Handler handler;
+        private final Deque<Source> sources = new ArrayDeque<>();
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private final Map<String, List<Event>> anchors = new HashMap<>();
+        private final List<Recording> recordings = new ArrayList<>();
+        private int skipDepth = -1;
+        private boolean mergePending;
+        private List<AliasEvent> mergeAliases;
+        private boolean documentStarted;
+        private int documents;
+
+        Walker(Iterator<Event> events, Handler handler) {
+            this.parser = new Source(events, null);
+            this.handler = handler;
+            this.sources.push(parser);
+        }
+
+        int run() {
+            Event event;
+            while ((event = next()) != null) {
+                if (skipDepth >= 0) {
+                    skip(event);
+                } else if (mergePending || mergeAliases != null) {
+                    merge(event);
+                } else {
+                    process(event);
+                }
+            }
+            return documents;
+        }
+
+        private Event next() {
+            while (!sources.isEmpty()) {
+                Source source = sources.peek();
+                if (source.events.hasNext()) {
+                    Event event = source.events.next();
+                    if (source == parser) {
+                        record(event);
+                    }
+                    return event;
+                }
+                sources.pop();
+                if (source.mergeTarget != null) {
+                    source.mergeTarget.merging--;
+                }
+            }
+            return null;
+        }
+
+        private void record(Event event) {
+            for (Iterator<Recording> it = recordings.iterator(); it.hasNext(); ) {
+                Recording recording = it.next();
+                recording.events.add(event);
+                if (event instanceof CollectionStartEvent) {
+                    recording.depth++;
+                } else if (event instanceof CollectionEndEvent) {
+                    recording.depth--;
+                }
+                if (recording.depth == 0) {
+                    anchors.put(recording.anchor, recording.events);
+                    it.remove();
+                }
+            }
+            if (event instanceof NodeEvent && !(event instanceof AliasEvent)) {
+                String anchor = ((NodeEvent) event).getAnchor();
+                if (anchor != null) {
+                    if (event instanceof CollectionStartEvent) {
+                        recordings.add(new Recording(anchor, event));
+                    } else {
+                        anchors.put(anchor, Collections.singletonList(event));
+                    }
+                }
+            }
+        }
+
+        private void skip(Event event) {
+            if (event instanceof CollectionStartEvent) {
+                skipDepth++;
+            } else if (event instanceof CollectionEndEvent) {
+                skipDepth--;
+            }
+            if (skipDepth == 0) {
+                skipDepth = -1;
+            }
+        }
+
+        private void merge(Event event) {
+            if (mergeAliases != null) {
+                if (event instanceof AliasEvent) {
+                    mergeAliases.add((AliasEvent) event);
+                } else if (event instanceof SequenceEndEvent) {
+                    startMerge(mergeAliases);
+                    mergeAliases = null;
+                } else {
+                    throw new ConfigException("Only aliases are supported in merge key sequences: " + event);
+                }
+                return;
+            }
+            mergePending = false;
+            if (event instanceof AliasEvent) {
+                startMerge(Collections.singletonList((AliasEvent) event));
+            } else if (event instanceof SequenceStartEvent) {
+                mergeAliases = new ArrayList<>();
+            } else {
+                // not a merge, treat '<<' as a plain key.
+                Frame frame = frames.peek();
+                if (frame.keys == null) {
+                    frame.keys = new HashSet<>();
+                }
+                frame.keys.add(MERGE_KEY);
+                frame.key = MERGE_KEY;
+                process(event);
+            }
+        }
+
+        /**
+         * Collects the entries of the merged mappings. They are replayed when the mapping ends, so keys set
+         * explicitly are known by then and the merged entries for them are skipped as a whole, regardless if
+         * they are written before or after the merge key.
+         */
+        private void startMerge(List<AliasEvent> aliases) {
+            Frame frame = frames.peek();
+            if (frame.merged == null) {
+                frame.merged = new ArrayList<>();
+            }
+            for (AliasEvent alias : aliases) {
+                List<Event> events = anchor(alias);
+                if (!(events.get(0) instanceof MappingStartEvent)) {
+                    throw new ConfigException("Merge key does not reference a mapping: " + alias.getAnchor());
+                }
+                frame.merged.addAll(events.subList(1, events.size() - 1));
+            }
+        }
+
+        private List<Event> anchor(AliasEvent alias) {
+            List<Event> events = anchors.get(alias.getAnchor());
+            if (events == null) {
+                throw new ConfigException("Unknown YAML anchor: " + alias.getAnchor());
+            }
+            return events;
+        }
+
+        private void replay(AliasEvent alias, Frame mergeTarget) {
+            sources.push(new Source(anchor(alias).iterator(), mergeTarget));
+        }
+
+        private void process(Event event) {
+            Frame frame = frames.peek();
+            if (event instanceof DocumentStartEvent) {
+                frames.clear();
+                documentStarted = false;
+            } else if (event instanceof DocumentEndEvent) {
+                if (documentStarted) {
+                    documents++;
+                }
+                anchors.clear();
+                recordings.clear();
+            } else if (event instanceof CollectionStartEvent) {
+                boolean mapping = event instanceof MappingStartEvent;
+                if (frame == null) {
+                    handler.startDocument(documents);
+                    documentStarted = true;
+                } else if (frame.expectsKey()) {
+                    throw new ConfigException("Complex YAML keys are not supported: " + event);
+                }
+                String key = takeKey(frame);
+                if (mapping) {
+                    handler.startMapping(key);
+                } else {
+                    handler.startSequence(key);
+                }
+                frames.push(new Frame(mapping));
+            } else if (event instanceof CollectionEndEvent) {
+                if (frame.merged != null) {
+                    // replay the merged entries, followed by this end event.
+                    List<Event> merged = frame.merged;
+                    frame.merged = null;
+                    merged.add(event);
+                    frame.merging++;
+                    sources.push(new Source(merged.iterator(), frame));
+                    return;
+                }
+                frames.pop();
+                handler.endCollection();
+            } else if (event instanceof ScalarEvent) {
+                ScalarEvent scalar = (ScalarEvent) event;
+                if (frame == null) {
+                    if (resolve(scalar) != null) {
+                        throw new ConfigException("Unsupported YAML document, mapping or sequence expected: "
+                                + scalar.getValue());
+                    }
+                } else if (frame.expectsKey()) {
+                    key(frame, scalar);
+                } else if (frame.mapping) {
+                    handler.value(takeKey(frame), resolve(scalar));
+                } else {
+                    handler.value(null, String.valueOf(resolve(scalar)));
+                }
+            } else if (event instanceof AliasEvent) {
+                if (frame == null || frame.expectsKey()) {
+                    throw new ConfigException("Aliases are not supported as YAML keys or document roots: "
+                            + ((AliasEvent) event).getAnchor());
+                }
+                replay((AliasEvent) event, null);
+            }
+        }
+
+        private void key(Frame frame, ScalarEvent scalar) {
+            String key = scalar.getValue();
+            if (MERGE_KEY.equals(key) && scalar.getImplicit().canOmitTagInPlainScalar()) {
+                mergePending = true;
+                return;
+            }
+            if (frame.keys == null) {
+                frame.keys = new HashSet<>();
+            }
+            if (!frame.keys.add(key) && frame.merging > 0) {
+                // keys set explicitly take precedence over merged ones
+                skipDepth = 0;
+                return;
+            }
+            frame.key = key;
+        }
+
+        private static String takeKey(Frame frame) {
+            if (frame == null) {
+                return null;
+            }
+            String key = frame.key;
+            frame.key = null;
+            return key;
+        }
+
+    }
+
+    /**
+     * Builds a {@link PropertyValue} tree for each document.
+     */
+    private static final class TreeHandler implements Handler {
+        private final String resource;
+        private final List<PropertyValue> documents = new ArrayList<>();
+        private final Deque<PropertyValue> stack = new ArrayDeque<>();
+
+        TreeHandler(String resource) {
+            this.resource = Objects.requireNonNull(resource);
+        }
+
+        @Override
+        public void startDocument(int index) {
+            stack.clear();
+        }
+
+        @Override
+        public void startMapping(String key) {
+            PropertyValue parent = stack.peek();
+            if (parent == null) {
+                push(PropertyValue.createObject(""));
+            } else if (parent instanceof ListValue) {
+                stack.push(((ListValue) parent).addObject());
+            } else {
+                stack.push(((ObjectValue) parent).addObject(key));
+            }
+        }
+
+        @Override
+        public void startSequence(String key) {
+            PropertyValue parent = stack.peek();
+            if (parent == null) {
+                push(PropertyValue.createList(""));
+            } else if (parent instanceof ListValue) {
+                stack.push(((ListValue) parent).addList());
+            } else {
+                stack.push(((ObjectValue) parent).addList(key));
+            }
+        }
+
+        private void push(PropertyValue root) {
+            root.setMeta("resource", resource);
+            root.setMeta("format", "yaml");
+            documents.add(root);
+            stack.push(root);
+        }
+
+        @Override
+        public void endCollection() {
+            stack.pop();
+        }
+
+        @Override
+        public void value(String key, String value) {
+            PropertyValue parent = stack.peek();
+            if (parent instanceof ListValue) {
+                ((ListValue) parent).addValue(value);
+            } else {
+                ((ObjectValue) parent).setValue(key, value);
+            }
+        }
+    }
+
+    /**
+     * Emits the values with their qualified keys into a flat map, using a reusable key buffer.
+     */
+    private static final class FlatHandler implements Handler {
+        private final String source;
+        private final Map<String, PropertyValue> result = new HashMap<>();
+        private final StringBuilder path = new StringBuilder(64);
+        private int[] baseLengths = new int[8];
+        private int[] indices = new int[8];
+        private int depth = -1;
+
+        FlatHandler(String source) {
+            this.source = source;
+        }
+
+        @Override
+        public void startDocument(int index) {
+            path.setLength(0);
+            depth = -1;
+        }
+
+        @Override
+        public void startMapping(String key) {
+            push(key, false);
+        }
+
+        @Override
+        public void startSequence(String key) {
+            push(key, true);
+        }
+
+        private void push(String key, boolean sequence) {
+            if (depth >= 0) {
+                position(key);
+            }
+            depth++;
+            if (depth == baseLengths.length) {
+                baseLengths = Arrays.copyOf(baseLengths, depth * 2);
+                indices = Arrays.copyOf(indices, depth * 2);
+            }
+            baseLengths[depth] = path.length();
+            indices[depth] = sequence ? 0 : -1;
+        }
+
+        @Override
+        public void endCollection() {
+            path.setLength(baseLengths[depth]);
+            depth--;
+        }
+
+        @Override
+        public void value(String key, String value) {
+            position(key);
+            String qualifiedKey = path.toString();
+            result.put(qualifiedKey, PropertyValue.createValue(qualifiedKey, value).setMeta("source", source));
+        }
+
+        private void position(String key) {
+            int base = baseLengths[depth];
+            path.setLength(base);
+            if (indices[depth] >= 0) {
+                path.append('[').append(indices[depth]++).append(']');
+            } else {
+                if (base > 0) {
+                    path.append('.');
+                }
+                path.append(key);
+            }
+        }
+    }
+}
@@ -21,15 +21,11 @@ package org.apache.tamaya.yaml;
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.format.ConfigurationData;
 import org.apache.tamaya.format.ConfigurationFormat;
-import org.apache.tamaya.spi.ListValue;
-import org.apache.tamaya.spi.ObjectValue;
 import org.apache.tamaya.spi.PropertyValue;
-import org.yaml.snakeyaml.Yaml;
 
 import java.io.InputStream;
 import java.net.URL;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -40,6 +36,8 @@ import static java.lang.String.format;
 /**
  * Implementation of the {@link org.apache.tamaya.format.ConfigurationFormat}
  * able to read configuration properties represented in JSON
+ * <p>The documents are read from SnakeYAML's event stream, each document of a multi document stream is
+ * returned as a separate section.</p>
  *
  * @see <a href="http://www.json.org">JSON format specification</a>
  */
@@ -62,22 +60,7 @@ public class YAMLFormat implements ConfigurationFormat {
     @Override
     public ConfigurationData readConfiguration(String resource, InputStream inputStream) {
         try {
-            Yaml yaml = new Yaml();
-            PropertyValue data;
-            Object config = yaml.load(inputStream);
-            if (config instanceof Map) {
-                data = PropertyValue.createObject("");
-                data.setMeta("resource", resource);
-                data.setMeta("format", "yaml");
-                addObject((Map) config, (ObjectValue) data);
-            } else if (config instanceof List) {
-                data = PropertyValue.createList("");
-                data.setMeta("resource", resource);
-                data.setMeta("format", "yaml");
-                addList((List) config, (ListValue) data);
-            } else {
-                throw new ConfigException("Unknown YamlType encountered: " + config.getClass().getName());
-            }
+            List<PropertyValue> data = YAMLEventReader.readData(resource, inputStream);
             if (LOG.isLoggable(Level.FINEST)) {
                 LOG.finest(String.format("Read data from %s : %s", resource, data.toString()));
             }
@@ -87,37 +70,4 @@ public class YAMLFormat implements ConfigurationFormat {
         }
     }
 
-
-    private void addObject(Map<String, Object> values, ObjectValue dataNode) {
-        values.forEach((key, value) -> {
-            if (value instanceof List) {
-                ListValue list = dataNode.addList(key);
-                addList((List) value, list);
-            } else if (value instanceof Map) {
-                ObjectValue object = dataNode.addObject(key);
-                addObject((Map) value, object);
-            } else {
-                if (value == null) {
-                    dataNode.setValue(key, null);
-                } else {
-                    dataNode.setValue(key, String.valueOf(value));
-                }
-            }
-        });
-    }
-
-    private void addList(List<Object> values, ListValue dataNode) {
-        values.forEach(val -> {
-            if (val instanceof List) {
-                ListValue list = dataNode.addList();
-                addList((List) val, list);
-            } else if (val instanceof Map) {
-                ObjectValue ov = dataNode.addObject();
-                addObject((Map) val, ov);
-            } else {
-                dataNode.addValue(String.valueOf(val));
-            }
-        });
-    }
-
 }
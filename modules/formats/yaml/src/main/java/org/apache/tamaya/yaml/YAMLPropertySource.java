@@ -18,14 +18,13 @@
  */
 package org.apache.tamaya.yaml;
 
-import org.apache.tamaya.format.ConfigurationData;
 import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertyValue;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Level;
@@ -43,8 +42,6 @@ public class YAMLPropertySource implements PropertySource {
     private final Map<String, PropertyValue> values;
     /** The evaluated ordinal. */
     private int ordinal;
-    /** The format implementation used for parsing. */
-    private YAMLFormat format = new YAMLFormat();
 
     /**
      * Constructor, hereby using 0 as the default ordinal.
@@ -64,14 +61,12 @@ public class YAMLPropertySource implements PropertySource {
     public YAMLPropertySource(URL resource, int defaultOrdinal) throws IOException {
         urlResource = Objects.requireNonNull(resource);
         this.ordinal = defaultOrdinal; // may be overriden by read...
-        ConfigurationData data = format.readConfiguration(urlResource.toString(), resource.openStream());
-        this.values = new HashMap<>();
-        for(Map.Entry<String,String> en:data.getData().get(0).toMap().entrySet()){
-            this.values.put(en.getKey(), PropertyValue.createValue(en.getKey(), en.getValue()).setMeta("source",
-                    getName()));
+        try (InputStream is = resource.openStream()) {
+            this.values = YAMLEventReader.readProperties(getName(), is);
         }
-        if (data.getData().get(0).toMap().containsKey(TAMAYA_ORDINAL)) {
-            this.ordinal = Integer.parseInt(data.getData().get(0).toMap().get(TAMAYA_ORDINAL));
+        PropertyValue configuredOrdinal = this.values.get(TAMAYA_ORDINAL);
+        if (configuredOrdinal != null) {
+            this.ordinal = Integer.parseInt(configuredOrdinal.getValue());
         }
     }
 
@@ -90,6 +90,26 @@ public class YAMLFormatTest {
         }
     }
 
+    @Test
+    public void testRead_MultipleDocuments() throws IOException {
+        URL configURL = YAMLPropertySourceTest.class.getResource("/configs/events/multi-doc.yaml");
+        ConfigurationData data = loadConfigurationData(configURL);
+        assertThat(data.getData()).hasSize(2);
+        Map<String, String> first = data.getData().get(0).toMap();
+        assertThat(first).containsEntry("server.port", "9090");
+        assertThat(first).containsEntry("server.host", "localhost");
+        assertThat(data.getData().get(1).toMap()).containsEntry("server.host", "example.org");
+    }
+
+    @Test
+    public void testRead_MergedKeysAreOverriddenAsAWhole() throws IOException {
+        URL configURL = YAMLPropertySourceTest.class.getResource("/configs/events/merge.yaml");
+        Map<String, String> data = loadConfigurationData(configURL).getData().get(0).toMap();
+        assertThat(data).containsEntry("derived.a.x", "3");
+        assertThat(data).doesNotContainKey("derived.a.y");
+        assertThat(data).containsEntry("derived.d", "base");
+    }
+
     private ConfigurationData loadConfigurationData(URL configURL) throws IOException {
         return format.readConfiguration(configURL.toString(), configURL.openStream());
     }
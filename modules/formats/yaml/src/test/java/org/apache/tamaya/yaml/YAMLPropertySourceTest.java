@@ -55,4 +55,65 @@ public class YAMLPropertySourceTest {
         YAMLPropertySource source = new YAMLPropertySource(configURL);
         assertThat(source.getOrdinal()).isEqualTo(0);
     }
+
+    @Test
+    public void testYamlFlatKeys() throws Exception {
+        URL configURL = YAMLPropertySourceTest.class.getResource("/configs/valid/contact.yaml");
+
+        YAMLPropertySource source = new YAMLPropertySource(configURL);
+        assertThat(source.get("bill-to.address.city").getValue()).isEqualTo("Royal Oak");
+        assertThat(source.get("ship-to.address.city").getValue()).isEqualTo("Royal Oak");
+        assertThat(source.get("product[0].items[1].name").getValue()).isEqualTo("item2");
+        assertThat(source.get("product[1].sku").getValue()).isEqualTo("BL4438H");
+        assertThat(source.get("summary").getValue()).isNull();
+    }
+
+    @Test
+    public void testYamlMultipleDocuments() throws Exception {
+        URL configURL = YAMLPropertySourceTest.class.getResource("/configs/events/multi-doc.yaml");
+
+        YAMLPropertySource source = new YAMLPropertySource(configURL);
+        assertThat(source.get("server.port").getValue()).isEqualTo("9090");
+        assertThat(source.get("server.host").getValue()).isEqualTo("example.org");
+        assertThat(source.get("flags[0]").getValue()).isEqualTo("true");
+        assertThat(source.get("flags[1]").getValue()).isEqualTo("null");
+    }
+
+    @Test
+    public void testYamlMergedKeysAreOverriddenAsAWhole() throws Exception {
+        URL configURL = YAMLPropertySourceTest.class.getResource("/configs/events/merge.yaml");
+
+        YAMLPropertySource source = new YAMLPropertySource(configURL);
+        assertThat(source.get("derived.a.x").getValue()).isEqualTo("3");
+        assertThat(source.get("derived.a.y")).isNull();
+        assertThat(source.get("derived.b[0]").getValue()).isEqualTo("9");
+        assertThat(source.get("derived.b[1]")).isNull();
+        assertThat(source.get("derived.c").getValue()).isEqualTo("derived");
+        assertThat(source.get("derived.d").getValue()).isEqualTo("base");
+        assertThat(source.get("before.c").getValue()).isEqualTo("before");
+        assertThat(source.get("before.a.y").getValue()).isEqualTo("2");
+    }
+
+    @Test
+    public void testYamlImplicitNumbersAreNormalized() throws Exception {
+        URL configURL = YAMLPropertySourceTest.class.getResource("/configs/events/scalars.yaml");
+
+        YAMLPropertySource source = new YAMLPropertySource(configURL);
+        assertThat(source.get("ints.underscores").getValue()).isEqualTo("1000");
+        assertThat(source.get("ints.binary").getValue()).isEqualTo("5");
+        assertThat(source.get("ints.octal").getValue()).isEqualTo("15");
+        assertThat(source.get("ints.hex").getValue()).isEqualTo("31");
+        assertThat(source.get("ints.sexagesimal").getValue()).isEqualTo("90");
+        assertThat(source.get("ints.signed").getValue()).isEqualTo("-1000");
+        assertThat(source.get("floats.exponent").getValue()).isEqualTo("1000.0");
+        assertThat(source.get("floats.trailingZero").getValue()).isEqualTo("1.5");
+        assertThat(source.get("floats.infinity").getValue()).isEqualTo("Infinity");
+        assertThat(source.get("floats.negativeInfinity").getValue()).isEqualTo("-Infinity");
+        assertThat(source.get("floats.notANumber").getValue()).isEqualTo("NaN");
+        assertThat(source.get("floats.sexagesimal").getValue()).isEqualTo("-90.5");
+        assertThat(source.get("quoted").getValue()).isEqualTo("1_000");
+        assertThat(source.get("timestamp").getValue()).isEqualTo("2001-12-14");
+        assertThat(source.get("list[0]").getValue()).isEqualTo("16");
+        assertThat(source.get("list[1]").getValue()).isEqualTo("2.5");
+    }
 }
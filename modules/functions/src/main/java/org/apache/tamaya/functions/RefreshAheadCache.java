@@ -0,0 +1,419 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tamaya.functions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache for data loaded from a remote backend, e.g. the complete configuration of a property source.
+ * The cache supports the following features:
+ * <ul>
+ *     <li><b>refresh-ahead:</b> when the data is read shortly before it expires (see {@link #setRefreshAhead(long)}),
+ *     a reload is triggered in the background.</li>
+ *     <li><b>stale-while-revalidate:</b> expired data is still returned for a given period of time
+ *     (see {@link #setMaxStaleness(long)}), whereas a reload is triggered in the background. Only if no data
+ *     has been loaded at all, or the data is older than the staleness period, the caller is blocked until
+ *     the data has been reloaded.</li>
+ *     <li><b>request collapsing:</b> concurrent reloads are collapsed into one single in-flight load.</li>
+ *     <li><b>statistics:</b> hits, misses, refreshes, failures and refresh latencies are counted,
+ *     see {@link #getStatistics()}.</li>
+ * </ul>
+ * The loader may return {@code null}, if loading failed, e.g. because no backend is reachable. In this case
+ * the current data is kept. Local changes (see {@link #update(UnaryOperator)}) made while a reload is in progress
+ * are applied to the reloaded data as well, so they are not lost, if the reload read the backend before the change.
+ *
+ * @param <T> the type of data cached.
+ */
+public final class RefreshAheadCache<T> {
+
+    private static final Logger LOG = Logger.getLogger(RefreshAheadCache.class.getName());
+
+    /** The default executor used for background refreshes. */
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "tamaya-refresh-ahead");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String name;
+    private final Supplier<T> loader;
+    private volatile T value;
+    private volatile Executor executor = DEFAULT_EXECUTOR;
+
+    private final AtomicLong cachePeriod = new AtomicLong(TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES));
+    /** The refresh ahead period in millis, or -1 for 10% of the cache period. */
+    private final AtomicLong refreshAhead = new AtomicLong(-1);
+    /** The staleness period in millis, or -1 for the cache period. */
+    private final AtomicLong maxStaleness = new AtomicLong(-1);
+    private final AtomicLong validUntil = new AtomicLong();
+    private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+    /** Lock guarding changes of the value. */
+    private final Object updateLock = new Object();
+    /** The updates applied while a reload is in progress, null if no reload is in progress. */
+    private List<UnaryOperator<T>> pendingUpdates;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong lastRefreshNanos = new AtomicLong();
+    private final AtomicLong totalRefreshNanos = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     * @param name the name of the cache, used for logging, not null.
+     * @param loader the loader, which loads the data, not null.
+     * @param initialValue the value returned, when no data could be loaded yet, not null.
+     */
+    public RefreshAheadCache(String name, Supplier<T> loader, T initialValue){
+        this.name = Objects.requireNonNull(name);
+        this.loader = Objects.requireNonNull(loader);
+        this.value = Objects.requireNonNull(initialValue);
+    }
+
+    /**
+     * Get the cache's name.
+     * @return the name, never null.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Access the cached data. If the data has never been loaded, or is older than the staleness
+     * period, the data is reloaded synchronously. If the data is expired, or about to expire, the current
+     * data is returned and a reload is triggered in the background.
+     * @return the current data, never null.
+     */
+    public T get(){
+        long until = validUntil.get();
+        long now = System.currentTimeMillis();
+        if(until==0L || now >= until + getMaxStaleness()){
+            misses.increment();
+            return refresh();
+        }
+        if(now >= until){
+            staleHits.increment();
+            triggerRefresh();
+        }else {
+            hits.increment();
+            if (now >= until - getRefreshAhead()) {
+                triggerRefresh();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Access the cached data, without checking its validity.
+     * @return the current data, never null.
+     */
+    public T peek(){
+        return value;
+    }
+
+    /**
+     * Reloads the data synchronously. If a reload is already in progress, this call waits for
+     * its result.
+     * @return the current data, never null.
+     */
+    public T refresh(){
+        try {
+            startRefresh(false).join();
+        }catch(CompletionException e){
+            LOG.log(Level.FINE, "Failed to refresh cache: " + name, e.getCause());
+        }
+        return value;
+    }
+
+    /**
+     * Triggers a reload in the background, if no reload is already in progress.
+     */
+    public void triggerRefresh(){
+        startRefresh(true);
+    }
+
+    /**
+     * Replaces the cached data, e.g. after a change has been written to the backend. The
+     * validity of the cache is not changed.
+     * @param value the new value, not null.
+     */
+    public void update(T value){
+        Objects.requireNonNull(value);
+        update(current -> value);
+    }
+
+    /**
+     * Atomically changes the cached data, e.g. after a change has been written to the backend. The validity
+     * of the cache is not changed. If a reload is in progress, the function is applied to the reloaded data as
+     * well.
+     * @param function the function creating the new value from the current one, not null. It must not modify
+     *                 the current value and may be called twice.
+     * @return the new value, never null.
+     */
+    public T update(UnaryOperator<T> function){
+        Objects.requireNonNull(function);
+        synchronized (updateLock){
+            T updated = Objects.requireNonNull(function.apply(value));
+            this.value = updated;
+            if(pendingUpdates!=null){
+                pendingUpdates.add(function);
+            }
+            return updated;
+        }
+    }
+
+    /**
+     * Invalidates the cache, so the next access will reload the data synchronously.
+     */
+    public void invalidate(){
+        validUntil.set(0L);
+    }
+
+    private CompletableFuture<T> startRefresh(boolean async){
+        CompletableFuture<T> future = new CompletableFuture<>();
+        while(!inFlight.compareAndSet(null, future)){
+            CompletableFuture<T> current = inFlight.get();
+            if(current!=null){
+                return current;
+            }
+        }
+        if(async){
+            try {
+                executor.execute(() -> load(future));
+            }catch(RuntimeException e){
+                LOG.log(Level.WARNING, "Failed to schedule refresh of cache: " + name, e);
+                inFlight.compareAndSet(future, null);
+                future.completeExceptionally(e);
+            }
+        }else{
+            load(future);
+        }
+        return future;
+    }
+
+    private void load(CompletableFuture<T> future){
+        long start = System.nanoTime();
+        synchronized (updateLock){
+            pendingUpdates = new ArrayList<>();
+        }
+        try{
+            T loaded = loader.get();
+            if(loaded==null){
+                failures.increment();
+                future.completeExceptionally(new IllegalStateException("No data loaded for cache: " + name));
+            }else {
+                synchronized (updateLock){
+                    for(UnaryOperator<T> update:pendingUpdates){
+                        loaded = Objects.requireNonNull(update.apply(loaded));
+                    }
+                    this.value = loaded;
+                }
+                this.validUntil.set(System.currentTimeMillis() + cachePeriod.get());
+                refreshes.increment();
+                future.complete(loaded);
+            }
+        }catch(RuntimeException e){
+            failures.increment();
+            LOG.log(Level.FINE, "Failed to load data for cache: " + name, e);
+            future.completeExceptionally(e);
+        }finally{
+            synchronized (updateLock){
+                pendingUpdates = null;
+            }
+            long duration = System.nanoTime() - start;
+            lastRefreshNanos.set(duration);
+            totalRefreshNanos.addAndGet(duration);
+            inFlight.compareAndSet(future, null);
+        }
+    }
+
+    /**
+     * Get the time, when the cached data expires.
+     * @return the current timeout, or 0 if no data has been loaded at all.
+     */
+    public long getValidUntil(){
+        return validUntil.get();
+    }
+
+    /**
+     * Get the current cache period.
+     * @return the duration in millis after which data will be reloaded.
+     */
+    public long getCachePeriod(){
+        return cachePeriod.get();
+    }
+
+    /**
+     * Set the duration after which the data will be reloaded.
+     * @param millis the millis
+     */
+    public void setCachePeriod(long millis){
+        this.cachePeriod.set(millis);
+    }
+
+    /**
+     * Get the period before expiry, in which an access triggers a background reload.
+     * @return the refresh ahead period in millis, by default 10% of the cache period.
+     */
+    public long getRefreshAhead(){
+        long millis = refreshAhead.get();
+        return millis<0?cachePeriod.get()/10:millis;
+    }
+
+    /**
+     * Set the period before expiry, in which an access triggers a background reload.
+     * @param millis the millis, 0 disables refresh ahead, a negative value resets to the default.
+     */
+    public void setRefreshAhead(long millis){
+        this.refreshAhead.set(millis);
+    }
+
+    /**
+     * Get the period after expiry, in which the stale data is still returned, whereas it is
+     * reloaded in the background.
+     * @return the staleness period in millis, by default the cache period.
+     */
+    public long getMaxStaleness(){
+        long millis = maxStaleness.get();
+        return millis<0?cachePeriod.get():millis;
+    }
+
+    /**
+     * Set the period after expiry, in which the stale data is still returned, whereas it is
+     * reloaded in the background.
+     * @param millis the millis, 0 disables stale reads, a negative value resets to the default.
+     */
+    public void setMaxStaleness(long millis){
+        this.maxStaleness.set(millis);
+    }
+
+    /**
+     * Set the executor used for background reloads.
+     * @param executor the executor, not null.
+     */
+    public void setExecutor(Executor executor){
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * Get the number of accesses served with valid data.
+     * @return the hit count.
+     */
+    public long getHitCount(){
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of accesses served with expired data.
+     * @return the stale hit count.
+     */
+    public long getStaleHitCount(){
+        return staleHits.sum();
+    }
+
+    /**
+     * Get the number of accesses, which had to wait for the data being reloaded.
+     * @return the miss count.
+     */
+    public long getMissCount(){
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of successful reloads.
+     * @return the refresh count.
+     */
+    public long getRefreshCount(){
+        return refreshes.sum();
+    }
+
+    /**
+     * Get the number of failed reloads.
+     * @return the failure count.
+     */
+    public long getFailureCount(){
+        return failures.sum();
+    }
+
+    /**
+     * Get the duration of the last reload.
+     * @param unit the target time unit, not null.
+     * @return the duration of the last reload.
+     */
+    public long getLastRefreshLatency(TimeUnit unit){
+        return unit.convert(lastRefreshNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the average duration of all reloads.
+     * @param unit the target time unit, not null.
+     * @return the average duration, or 0 if no reload has been performed.
+     */
+    public long getAverageRefreshLatency(TimeUnit unit){
+        long count = refreshes.sum() + failures.sum();
+        if(count==0){
+            return 0L;
+        }
+        return unit.convert(totalRefreshNanos.get() / count, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the cache statistics as map.
+     * @return the statistics, never null.
+     */
+    public Map<String, Long> getStatistics(){
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("hits", getHitCount());
+        stats.put("staleHits", getStaleHitCount());
+        stats.put("misses", getMissCount());
+        stats.put("refreshes", getRefreshCount());
+        stats.put("failures", getFailureCount());
+        stats.put("lastRefreshMillis", getLastRefreshLatency(TimeUnit.MILLISECONDS));
+        stats.put("averageRefreshMillis", getAverageRefreshLatency(TimeUnit.MILLISECONDS));
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshAheadCache{" +
+                "name='" + name + '\'' +
+                ", cachePeriod=" + cachePeriod +
+                ", validUntil=" + validUntil +
+                ", statistics=" + getStatistics() +
+                '}';
+    }
+}
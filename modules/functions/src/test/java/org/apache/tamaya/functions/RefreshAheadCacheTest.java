@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tamaya.functions;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RefreshAheadCacheTest {
+
+    @Test
+    public void firstAccessLoadsSynchronously() {
+        AtomicInteger counter = new AtomicInteger();
+        RefreshAheadCache<Integer> sut = new RefreshAheadCache<>("test", counter::incrementAndGet, 0);
+
+        assertThat(sut.getValidUntil()).isEqualTo(0L);
+        assertThat(sut.get()).isEqualTo(1);
+        assertThat(sut.get()).isEqualTo(1);
+        assertThat(sut.getMissCount()).isEqualTo(1L);
+        assertThat(sut.getHitCount()).isEqualTo(1L);
+        assertThat(sut.getRefreshCount()).isEqualTo(1L);
+        assertThat(sut.getValidUntil()).isGreaterThan(System.currentTimeMillis());
+    }
+
+    @Test
+    public void expiredDataIsServedWhileRefreshing() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger counter = new AtomicInteger();
+        RefreshAheadCache<Integer> sut = new RefreshAheadCache<>("test", () -> {
+            if(counter.get()>0){
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return counter.incrementAndGet();
+        }, 0);
+        sut.setCachePeriod(10L);
+        sut.setMaxStaleness(TimeUnit.MINUTES.toMillis(1));
+        assertThat(sut.get()).isEqualTo(1);
+        Thread.sleep(20L);
+
+        // expired: stale data is returned and only one refresh is in flight.
+        assertThat(sut.get()).isEqualTo(1);
+        assertThat(sut.get()).isEqualTo(1);
+        assertThat(sut.getStaleHitCount()).isEqualTo(2L);
+        release.countDown();
+        for(int i=0;i<100 && sut.getRefreshCount()<2;i++){
+            Thread.sleep(10L);
+        }
+        assertThat(sut.getRefreshCount()).isEqualTo(2L);
+        assertThat(sut.peek()).isEqualTo(2);
+        assertThat(counter.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void dataOlderThanStalenessIsReloadedSynchronously() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        RefreshAheadCache<Integer> sut = new RefreshAheadCache<>("test", counter::incrementAndGet, 0);
+        sut.setCachePeriod(10L);
+        sut.setMaxStaleness(0L);
+        assertThat(sut.get()).isEqualTo(1);
+        Thread.sleep(20L);
+        assertThat(sut.get()).isEqualTo(2);
+        assertThat(sut.getMissCount()).isEqualTo(2L);
+    }
+
+    @Test
+    public void failedLoadKeepsCurrentData() {
+        AtomicInteger counter = new AtomicInteger();
+        RefreshAheadCache<Integer> sut = new RefreshAheadCache<>("test", () -> {
+            if(counter.incrementAndGet()>1){
+                return null;
+            }
+            return 42;
+        }, 0);
+        assertThat(sut.refresh()).isEqualTo(42);
+        assertThat(sut.refresh()).isEqualTo(42);
+        assertThat(sut.getFailureCount()).isEqualTo(1L);
+        assertThat(sut.getStatistics()).containsEntry("refreshes", 1L).containsEntry("failures", 1L);
+    }
+
+    @Test
+    public void invalidateForcesSynchronousReload() {
+        AtomicInteger counter = new AtomicInteger();
+        RefreshAheadCache<Integer> sut = new RefreshAheadCache<>("test", counter::incrementAndGet, 0);
+        assertThat(sut.get()).isEqualTo(1);
+        sut.invalidate();
+        assertThat(sut.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void updatesDuringReloadAreApplied() throws InterruptedException {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RefreshAheadCache<String> sut = new RefreshAheadCache<>("test", () -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "loaded";
+        }, "initial");
+        sut.triggerRefresh();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sut.update(value -> value + "+changed")).isEqualTo("initial+changed");
+        release.countDown();
+        for (int i = 0; i < 500 && sut.getRefreshCount() == 0L; i++) {
+            Thread.sleep(10L);
+        }
+        assertThat(sut.peek()).isEqualTo("loaded+changed");
+        assertThat(sut.update(value -> value + "+again")).isEqualTo("loaded+changed+again");
+    }
+}
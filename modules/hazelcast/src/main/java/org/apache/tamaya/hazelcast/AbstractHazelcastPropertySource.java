@@ -18,21 +18,36 @@
  */
 package org.apache.tamaya.hazelcast;
 
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.EntryListener;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IList;
 import com.hazelcast.core.IMap;
+import com.hazelcast.core.MapEvent;
+import com.hazelcast.core.TransactionalList;
+import com.hazelcast.core.TransactionalMap;
+import com.hazelcast.transaction.TransactionContext;
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.functions.RefreshAheadCache;
 import org.apache.tamaya.mutableconfig.ConfigChangeRequest;
 import org.apache.tamaya.mutableconfig.spi.MutablePropertySource;
 import org.apache.tamaya.spi.PropertyValue;
 import org.apache.tamaya.spisupport.propertysource.BasePropertySource;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -53,21 +68,42 @@ import java.util.logging.Logger;
  *
  * By default a new hazelcast instance is created, but it is also possible to reuse an existing
  * instance of pass a Hazelcast configuration instance.
+ *
+ * By default the data is reloaded completely after the configured cache period has expired. Alternatively
+ * the property source can be switched into an event driven mode (see {@link #setEventDriven(boolean)}), where
+ * the map is loaded once and then kept up to date by an {@link EntryListener} registered on the Hazelcast map.
+ * In this mode reads never trigger a reload. Additionally a {@link NearCacheConfig} can be configured for the
+ * map, see {@link #setNearCacheConfig(NearCacheConfig)}.
  */
 public abstract class AbstractHazelcastPropertySource extends BasePropertySource
 implements MutablePropertySource{
     /** The logger. */
     private static final Logger LOG = Logger.getLogger(AbstractHazelcastPropertySource.class.getName());
-    /** The Hazelcast config mapProperties used. */
-    private Map<String, PropertyValue> configMap = new HashMap<>();
+    /** The cache of the Hazelcast config mapProperties used. */
+    private final RefreshAheadCache<Map<String, PropertyValue>> cache =
+            new RefreshAheadCache<>("Hazelcast", this::loadProperties, Collections.emptyMap());
+    /** The Hazelcast config mapProperties maintained by entry events. */
+    private volatile Map<String, PropertyValue> configMap = new ConcurrentHashMap<>();
+    /** Guards changes of the local data and of the entry events buffered during a resync. */
+    private final Object eventLock = new Object();
+    /** Serializes resyncs in event driven mode. */
+    private final Object resyncLock = new Object();
+    /** The entry events received while a resync reads the map, or null if no resync is running. */
+    private List<Consumer<Map<String, PropertyValue>>> bufferedEvents;
+    /** The meta data attached to the values, updated on each refresh. */
+    private volatile Map<String, String> meta = Collections.emptyMap();
     /** The hazelcast mapProperties reference ID used, by default {@code tamaya.configuration}. */
     private String mapReference = "tamaya.configuration";
     /** Flag if this property source is read-only. */
     private boolean readOnly = false;
-
-    private AtomicLong timeoutDuration = new AtomicLong(TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES));
-
-    private AtomicLong timeout = new AtomicLong();
+    /** Flag if the local data is maintained by hazelcast entry events. */
+    private volatile boolean eventDriven = false;
+    /** The registration id of the entry listener, or null. */
+    private String listenerId;
+    /** The near cache configuration to be applied to the config map, or null. */
+    private NearCacheConfig nearCacheConfig;
+    /** Flag if changes are written within a hazelcast transaction. */
+    private boolean transactional = false;
 
     /**
      * Creates a new instance, hereby using {@code "Hazelcast"} as property source name and
@@ -91,7 +127,7 @@ implements MutablePropertySource{
      * @return the current timeout, or 0 if no data has been loaded at all.
      */
     public long getValidUntil(){
-        return timeout.get();
+        return cache.getValidUntil();
     }
 
     /**
@@ -99,7 +135,7 @@ implements MutablePropertySource{
      * @return the timeout duration after which data will be reloaded.
      */
     public long getCachePeriod(){
-        return timeoutDuration.get();
+        return cache.getCachePeriod();
     }
 
     /**
@@ -107,10 +143,19 @@ implements MutablePropertySource{
      * @param millis the millis
      */
     public void setCacheTimeout(long millis){
-        this.timeoutDuration.set(millis);
+        this.cache.setCachePeriod(millis);
         this.refresh();
     }
 
+    /**
+     * Get the cache used, e.g. for accessing the cache statistics or configuring the refresh ahead
+     * and staleness periods.
+     * @return the cache, never null.
+     */
+    public RefreshAheadCache<Map<String, PropertyValue>> getCache(){
+        return cache;
+    }
+
 
     /**
      * Setting the read-only flag for this instance.
@@ -129,13 +174,37 @@ implements MutablePropertySource{
         return readOnly;
     }
 
+    /**
+     * Setting the transactional flag for this instance. If set, changes are written atomically within
+     * a hazelcast transaction, otherwise they are written as batches.
+     * @param transactional if true, changes are applied within a hazelcast transaction.
+     */
+    public void setTransactional(boolean transactional){
+        this.transactional = transactional;
+    }
+
+    /**
+     * Flag to check if changes are written within a hazelcast transaction.
+     * @return true, if changes are applied within a hazelcast transaction.
+     */
+    public boolean isTransactional(){
+        return transactional;
+    }
+
     /**
      * Set the Hazelcast reference name for the Tamaya configuration Map.
      * @param mapReference the mapProperties reference to be used, not null.
      */
     public void setMapReference(String mapReference){
         if (!Objects.equals(mapReference, this.mapReference)) {
+            if(eventDriven){
+                unregisterListener();
+            }
             this.mapReference = Objects.requireNonNull(mapReference);
+            if(eventDriven){
+                applyNearCacheConfig();
+                registerListener();
+            }
             refresh();
         }
     }
@@ -148,6 +217,55 @@ implements MutablePropertySource{
         return mapReference;
     }
 
+    /**
+     * Enables or disables the event driven mode. If enabled, the map is loaded once and
+     * then kept in sync by an {@link EntryListener} registered on the Hazelcast map, so reads
+     * never trigger a reload. If disabled, the data is reloaded completely after each cache period.
+     * @param eventDriven true, to enable the event driven mode.
+     */
+    public synchronized void setEventDriven(boolean eventDriven){
+        if(this.eventDriven == eventDriven){
+            return;
+        }
+        if(eventDriven){
+            this.configMap = new ConcurrentHashMap<>();
+            this.eventDriven = true;
+            applyNearCacheConfig();
+            registerListener();
+        }else{
+            this.eventDriven = false;
+            unregisterListener();
+        }
+        refresh();
+    }
+
+    /**
+     * Flag to check if the event driven mode is enabled.
+     * @return true, if the data is maintained by hazelcast entry events.
+     */
+    public boolean isEventDriven(){
+        return eventDriven;
+    }
+
+    /**
+     * Sets the near cache configuration to be used for the configuration map. The near cache is
+     * applied to the map configuration of the hazelcast instance, so it must be set before the map is
+     * accessed the first time. This is not supported for hazelcast client instances.
+     * @param nearCacheConfig the near cache config, or null.
+     */
+    public void setNearCacheConfig(NearCacheConfig nearCacheConfig){
+        this.nearCacheConfig = nearCacheConfig;
+        applyNearCacheConfig();
+    }
+
+    /**
+     * Get the near cache configuration used for the configuration map.
+     * @return the near cache configuration, or null.
+     */
+    public NearCacheConfig getNearCacheConfig(){
+        return nearCacheConfig;
+    }
+
     /**
      * Get access to the hazelcast instance used.
      * @return the hazelcast instance, not null.
@@ -156,40 +274,145 @@ implements MutablePropertySource{
 
     @Override
     public PropertyValue get(String key) {
-        checkRefresh();
-        return this.configMap.get(key);
+        if(eventDriven){
+            return this.configMap.get(key);
+        }
+        return cache.get().get(key);
     }
 
     @Override
     public Map<String, PropertyValue> getProperties() {
-        checkRefresh();
-        return this.configMap;
+        if(eventDriven){
+            return Collections.unmodifiableMap(this.configMap);
+        }
+        return cache.get();
     }
 
     /**
-     * Checks for a cache timeout and optionally reloads the data.
+     * Checks for a cache timeout and optionally reloads the data. Expired data is reloaded in the
+     * background, see {@link RefreshAheadCache}. In event driven mode no reload is performed.
      */
     public void checkRefresh(){
-        if(this.timeout.get() < System.currentTimeMillis()){
-            refresh();
+        if(!eventDriven){
+            cache.get();
         }
     }
 
     /**
-     * Reloads the configuration mapProperties from Hazelcast completely.
+     * Reloads the configuration mapProperties from Hazelcast completely. In event driven mode
+     * a new snapshot is read, the entry events received meanwhile are buffered and applied to the
+     * snapshot before it replaces the local data, so concurrent entry events are not lost.
      */
     public void refresh() {
+        if(eventDriven){
+            resync();
+        }else {
+            cache.refresh();
+        }
+    }
+
+    /**
+     * Reads a new snapshot of the map and replaces the local data with it. Entry events are still
+     * applied to the current data while the snapshot is read, and are replayed on the snapshot
+     * before it is swapped in.
+     */
+    private void resync(){
+        synchronized (resyncLock) {
+            IMap<String,String> config = getHazelcastInstance().getMap(mapReference);
+            Map<String, String> meta = createMeta();
+            this.meta = meta;
+            synchronized (eventLock) {
+                bufferedEvents = new ArrayList<>();
+            }
+            Map<String, PropertyValue> snapshot = new ConcurrentHashMap<>();
+            boolean complete = false;
+            try {
+                config.forEach((key, value) -> snapshot.put(key, createValue(key, value, meta)));
+                complete = true;
+            } finally {
+                synchronized (eventLock) {
+                    if (complete) {
+                        bufferedEvents.forEach(event -> event.accept(snapshot));
+                        this.configMap = snapshot;
+                    }
+                    bufferedEvents = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a change of the map to the local data. If a resync is running the change is also
+     * buffered, so it can be replayed on the snapshot read.
+     * @param event the change to apply, not null.
+     */
+    private void applyEvent(Consumer<Map<String, PropertyValue>> event){
+        synchronized (eventLock) {
+            event.accept(configMap);
+            if (bufferedEvents != null) {
+                bufferedEvents.add(event);
+            }
+        }
+    }
+
+    /**
+     * Loads the configuration mapProperties from Hazelcast completely.
+     * @return the properties loaded, never null.
+     */
+    private Map<String, PropertyValue> loadProperties(){
         IMap<String,String> config = getHazelcastInstance().getMap(mapReference);
+        Map<String, String> meta = createMeta();
+        this.meta = meta;
         Map<String, PropertyValue> configMap = new HashMap<>();
-        config.forEach((key, value) -> configMap.put(key,
-                PropertyValue.createValue(key, value)
-                        .setMeta("source", getName())
-                        .setMeta("backend", "Hazelcast")
-                        .setMeta("instance", getHazelcastInstance().getName())
-                        .setMeta("mapReference", mapReference)
-                        .immutable()));
-        this.timeout.set(System.currentTimeMillis() + timeoutDuration.get());
-        this.configMap = Collections.unmodifiableMap(configMap);
+        config.forEach((key, value) -> configMap.put(key, createValue(key, value, meta)));
+        return Collections.unmodifiableMap(configMap);
+    }
+
+    /**
+     * Creates the meta data attached to all values read from the current map.
+     * @return the meta data, not null.
+     */
+    private Map<String, String> createMeta(){
+        Map<String, String> meta = new HashMap<>();
+        meta.put("source", getName());
+        meta.put("backend", "Hazelcast");
+        meta.put("instance", getHazelcastInstance().getName());
+        meta.put("mapReference", mapReference);
+        return meta;
+    }
+
+    private PropertyValue createValue(String key, String value, Map<String, String> meta){
+        return PropertyValue.createValue(key, value)
+                .setMeta(meta)
+                .immutable();
+    }
+
+    private void applyNearCacheConfig(){
+        if(nearCacheConfig==null){
+            return;
+        }
+        try {
+            getHazelcastInstance().getConfig().getMapConfig(mapReference)
+                    .setNearCacheConfig(nearCacheConfig);
+        }catch(Exception e){
+            LOG.log(Level.WARNING, "Failed to configure near cache for map: " + mapReference, e);
+        }
+    }
+
+    private synchronized void registerListener(){
+        IMap<String,String> config = getHazelcastInstance().getMap(mapReference);
+        this.listenerId = config.addEntryListener(new ConfigEntryListener(mapReference), true);
+    }
+
+    private synchronized void unregisterListener(){
+        if(listenerId!=null){
+            try {
+                getHazelcastInstance().getMap(mapReference).removeEntryListener(listenerId);
+            }catch(Exception e){
+                LOG.log(Level.FINE, "Failed to remove entry listener from map: " + mapReference, e);
+            }
+            listenerId = null;
+        }
     }
 
     @Override
@@ -197,31 +420,147 @@ implements MutablePropertySource{
         if(readOnly){
             return;
         }
-        IMap<String,String> config = getHazelcastInstance().getMap(mapReference);
+        Map<String,String> batch = new HashMap<>();
+        Map<Long,Map<String,String>> ttlBatches = new HashMap<>();
         for(Map.Entry<String, String> en: configChange.getAddedProperties().entrySet()){
-            String metaVal = configChange.getAddedProperties().get("_" + en.getKey()+".ttl");
-            if(metaVal!=null){
-                try {
-                    long ms = Long.parseLong(metaVal);
-                    config.put(en.getKey(), en.getValue(), ms, TimeUnit.MILLISECONDS);
-                }catch(Exception e){
-                    LOG.log(Level.WARNING, "Failed to parse TTL in millis: " + metaVal +
-                            " for '"+ en.getKey()+"'", e);
-                    config.put(en.getKey(), en.getValue());
-                }
+            Long ttl = evaluateTTL(en.getKey(), configChange.getAddedProperties());
+            if(ttl!=null){
+                ttlBatches.computeIfAbsent(ttl, k -> new HashMap<>()).put(en.getKey(), en.getValue());
             }else {
-                config.put(en.getKey(), en.getValue());
+                batch.put(en.getKey(), en.getValue());
+            }
+        }
+        Map<String,String> metaEntries = new HashMap<>();
+        metaEntries.put("[(META)tamaya.transaction].lastId", configChange.getTransactionID());
+        metaEntries.put("[(META)tamaya.transaction].startedAt", String.valueOf(configChange.getStartedAt()));
+        ttlBatches.computeIfAbsent(TimeUnit.MILLISECONDS.convert(1, TimeUnit.DAYS), k -> new HashMap<>())
+                .putAll(metaEntries);
+        if(transactional){
+            writeTransactional(configChange, batch, ttlBatches);
+        }else{
+            writeBatched(configChange, batch, ttlBatches);
+        }
+        Map<String,String> written = new HashMap<>(batch);
+        ttlBatches.values().forEach(written::putAll);
+        updateLocalState(written, configChange.getRemovedProperties());
+    }
+
+    /**
+     * Evaluates the TTL configured for the given key as {@code _key.ttl} meta entry.
+     * @param key the key, not null.
+     * @param properties the properties added, not null.
+     * @return the TTL in milliseconds, or null.
+     */
+    private Long evaluateTTL(String key, Map<String,String> properties){
+        String metaVal = properties.get("_" + key + ".ttl");
+        if(metaVal==null){
+            return null;
+        }
+        try {
+            return Long.parseLong(metaVal);
+        }catch(Exception e){
+            LOG.log(Level.WARNING, "Failed to parse TTL in millis: " + metaVal +
+                    " for '"+ key +"'", e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the changes using {@link IMap#putAll(Map)} for all entries without TTL. Entries with TTL
+     * and removals are sent asynchronously and awaited as a batch.
+     * @param configChange the change request, not null.
+     * @param batch the entries without TTL, not null.
+     * @param ttlBatches the entries with TTL, grouped by TTL in milliseconds, not null.
+     */
+    private void writeBatched(ConfigChangeRequest configChange, Map<String,String> batch,
+                              Map<Long,Map<String,String>> ttlBatches){
+        IMap<String,String> config = getHazelcastInstance().getMap(mapReference);
+        if(!batch.isEmpty()) {
+            config.putAll(batch);
+        }
+        List<Future<String>> pending = new ArrayList<>();
+        for(Map.Entry<Long,Map<String,String>> ttlBatch: ttlBatches.entrySet()){
+            for(Map.Entry<String,String> en:ttlBatch.getValue().entrySet()){
+                pending.add(config.putAsync(en.getKey(), en.getValue(), ttlBatch.getKey(), TimeUnit.MILLISECONDS));
             }
         }
         for(String key: configChange.getRemovedProperties()){
-            config.remove(key);
+            pending.add(config.removeAsync(key));
         }
         IList<String> taList = getHazelcastInstance().getList("[(META)tamaya.transactions]");
         taList.add(configChange.getTransactionID());
-        config.put("[(META)tamaya.transaction].lastId", configChange.getTransactionID(), 1, TimeUnit.DAYS);
-        config.put("[(META)tamaya.transaction].startedAt", String.valueOf(configChange.getStartedAt()), 1, TimeUnit.DAYS);
+        for(Future<String> future:pending){
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConfigException("Interrupted while writing config change to Hazelcast: " +
+                        configChange.getTransactionID(), e);
+            } catch (ExecutionException e) {
+                throw new ConfigException("Failed to write config change to Hazelcast: " +
+                        configChange.getTransactionID(), e.getCause());
+            }
+        }
         config.flush();
-        refresh();
+    }
+
+    /**
+     * Writes the changes atomically within a hazelcast transaction.
+     * @param configChange the change request, not null.
+     * @param batch the entries without TTL, not null.
+     * @param ttlBatches the entries with TTL, grouped by TTL in milliseconds, not null.
+     */
+    private void writeTransactional(ConfigChangeRequest configChange, Map<String,String> batch,
+                                    Map<Long,Map<String,String>> ttlBatches){
+        TransactionContext context = getHazelcastInstance().newTransactionContext();
+        context.beginTransaction();
+        try{
+            TransactionalMap<String,String> config = context.getMap(mapReference);
+            for(Map.Entry<String,String> en:batch.entrySet()){
+                config.set(en.getKey(), en.getValue());
+            }
+            for(Map.Entry<Long,Map<String,String>> ttlBatch: ttlBatches.entrySet()){
+                for(Map.Entry<String,String> en:ttlBatch.getValue().entrySet()){
+                    config.put(en.getKey(), en.getValue(), ttlBatch.getKey(), TimeUnit.MILLISECONDS);
+                }
+            }
+            for(String key: configChange.getRemovedProperties()){
+                config.delete(key);
+            }
+            TransactionalList<String> taList = context.getList("[(META)tamaya.transactions]");
+            taList.add(configChange.getTransactionID());
+            context.commitTransaction();
+        }catch(RuntimeException e){
+            context.rollbackTransaction();
+            throw new ConfigException("Failed to write config change to Hazelcast: " +
+                    configChange.getTransactionID(), e);
+        }
+    }
+
+    /**
+     * Updates the locally cached data from the change set written, without reloading the
+     * whole map.
+     * @param written the entries written, not null.
+     * @param removed the keys removed, not null.
+     */
+    private void updateLocalState(Map<String,String> written, Collection<String> removed){
+        Map<String, String> meta = this.meta;
+        if(eventDriven){
+            Map<String, PropertyValue> values = new HashMap<>();
+            written.forEach((key, value) -> values.put(key, createValue(key, value, meta)));
+            applyEvent(configMap -> {
+                configMap.putAll(values);
+                removed.forEach(configMap::remove);
+            });
+        }else{
+            // atomic with respect to background reloads, which get the change applied as well.
+            cache.update(current -> {
+                Map<String, PropertyValue> configMap = new HashMap<>(current);
+                written.forEach((key, value) -> configMap.put(key, createValue(key, value, meta)));
+                removed.forEach(configMap::remove);
+                return Collections.unmodifiableMap(configMap);
+            });
+        }
     }
 
     @Override
@@ -230,7 +569,64 @@ implements MutablePropertySource{
                 "\n  hazelcastInstance=" + getHazelcastInstance() +
                 "\n  name='" + getName() + '\'' +
                 "\n  mapReference='" + mapReference + '\'' +
-                "\n  readOnly=" + readOnly + '\'';
+                "\n  readOnly=" + readOnly +
+                "\n  eventDriven=" + eventDriven +
+                "\n  transactional=" + transactional + '\'';
+    }
+
+    /**
+     * Listener applying the entry events of a Hazelcast map to the local data.
+     */
+    private final class ConfigEntryListener implements EntryListener<String,String>{
+
+        private final String mapReference;
+
+        ConfigEntryListener(String mapReference){
+            this.mapReference = mapReference;
+        }
+
+        private boolean isActive(){
+            return eventDriven && mapReference.equals(AbstractHazelcastPropertySource.this.mapReference);
+        }
+
+        @Override
+        public void entryAdded(EntryEvent<String, String> event) {
+            entryUpdated(event);
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<String, String> event) {
+            if(isActive()){
+                String key = event.getKey();
+                PropertyValue value = createValue(key, event.getValue(), meta);
+                applyEvent(configMap -> configMap.put(key, value));
+            }
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<String, String> event) {
+            if(isActive()){
+                String key = event.getKey();
+                applyEvent(configMap -> configMap.remove(key));
+            }
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<String, String> event) {
+            entryRemoved(event);
+        }
+
+        @Override
+        public void mapEvicted(MapEvent event) {
+            mapCleared(event);
+        }
+
+        @Override
+        public void mapCleared(MapEvent event) {
+            if(isActive()){
+                applyEvent(Map::clear);
+            }
+        }
     }
 
 }
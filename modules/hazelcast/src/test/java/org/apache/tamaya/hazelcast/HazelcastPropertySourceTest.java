@@ -21,6 +21,7 @@ package org.apache.tamaya.hazelcast;
 
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
+import org.apache.tamaya.mutableconfig.ConfigChangeRequest;
 import org.apache.tamaya.spi.PropertyValue;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -193,6 +194,106 @@ public class HazelcastPropertySourceTest {
         assertThat(hps.getOrdinal()).isEqualTo(200);
     }
 
+    @Test
+    public void t05_testEventDriven() throws InterruptedException {
+        IMap<Object, Object> map = hz.getMap("config5");
+        map.put("e1", "v1");
+        map.flush();
+        hps.setCacheTimeout(50L);
+        hps.setMapReference("config5");
+        hps.setEventDriven(true);
+        try {
+            assertThat(hps.isEventDriven()).isTrue();
+            assertThat(hps.getProperties()).hasSize(1);
+            assertThat(hps.get("e1").getValue()).isEqualTo("v1");
+
+            map.put("e2", "v2");
+            map.put("e1", "v1b");
+            map.flush();
+            waitFor(() -> hps.get("e2") != null && "v1b".equals(hps.get("e1").getValue()));
+            assertThat(hps.get("e2").getValue()).isEqualTo("v2");
+            assertThat(hps.get("e1").getValue()).isEqualTo("v1b");
+
+            map.remove("e1");
+            map.flush();
+            waitFor(() -> hps.get("e1") == null);
+            assertThat(hps.get("e1")).isNull();
+            assertThat(hps.getProperties()).hasSize(1);
+        }finally{
+            hps.setEventDriven(false);
+        }
+        assertThat(hps.isEventDriven()).isFalse();
+        assertThat(hps.get("e2").getValue()).isEqualTo("v2");
+    }
+
+    @Test
+    public void t06_testApplyChange() {
+        hps.setMapReference("config6");
+        ConfigChangeRequest change = new ConfigChangeRequest("t06-1");
+        change.put("a1", "v1");
+        change.put("a2", "v2");
+        change.put("_a2.ttl", "60000");
+        hps.applyChange(change);
+        assertThat(hz.getMap("config6").get("a1")).isEqualTo("v1");
+        assertThat(hz.getMap("config6").get("a2")).isEqualTo("v2");
+        assertThat(hps.get("a1").getValue()).isEqualTo("v1");
+        assertThat(hps.get("a2").getValue()).isEqualTo("v2");
+        assertThat(hps.get("[(META)tamaya.transaction].lastId").getValue()).isEqualTo("t06-1");
+
+        hps.setTransactional(true);
+        try {
+            change = new ConfigChangeRequest("t06-2");
+            change.put("a3", "v3");
+            change.remove("a1");
+            hps.applyChange(change);
+        }finally {
+            hps.setTransactional(false);
+        }
+        assertThat(hz.getMap("config6").get("a1")).isNull();
+        assertThat(hz.getMap("config6").get("a3")).isEqualTo("v3");
+        assertThat(hps.get("a1")).isNull();
+        assertThat(hps.get("a3").getValue()).isEqualTo("v3");
+        assertThat(hps.get("[(META)tamaya.transaction].lastId").getValue()).isEqualTo("t06-2");
+    }
+
+    @Test
+    public void t07_testRefreshWithConcurrentEvents() throws Exception {
+        IMap<Object, Object> map = hz.getMap("config7");
+        map.put("counter", "0");
+        map.flush();
+        hps.setMapReference("config7");
+        hps.setEventDriven(true);
+        try {
+            Thread writer = new Thread(() -> {
+                for (int i = 1; i <= 500; i++) {
+                    map.put("c" + i, "v" + i);
+                    map.put("counter", String.valueOf(i));
+                }
+                map.flush();
+            });
+            writer.start();
+            while (writer.isAlive()) {
+                hps.refresh();
+            }
+            writer.join();
+            // no further refresh, keys dropped by a resync would not come back
+            waitFor(() -> hps.getProperties().size() == 501 && "500".equals(hps.get("counter").getValue()));
+            assertThat(hps.getProperties()).hasSize(501);
+            assertThat(hps.get("counter").getValue()).isEqualTo("500");
+            for (int i = 1; i <= 500; i++) {
+                assertThat(hps.get("c" + i)).isNotNull();
+            }
+        } finally {
+            hps.setEventDriven(false);
+        }
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        for(int i=0;i<100 && !condition.getAsBoolean();i++){
+            Thread.sleep(50L);
+        }
+    }
+
     @AfterClass
     public static void end(){
         HazelcastUtil.shutdown();
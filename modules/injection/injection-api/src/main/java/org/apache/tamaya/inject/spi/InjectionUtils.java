@@ -30,6 +30,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,33 +44,73 @@ public final class InjectionUtils {
 
     private static final KeyResolver AUTO_RESOLVER = new AutoKeyResolver();
 
+    /** The keys evaluated per member, held per declaring class. */
+    private static final ClassValue<Map<Member, List<String>>> MEMBER_KEYS =
+            new ClassValue<Map<Member, List<String>>>() {
+        @Override
+        protected Map<Member, List<String>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /** The {@link KeyResolver} instances, one per resolver type, null if the resolver cannot be created. */
+    private static final ClassValue<KeyResolver> KEY_RESOLVERS = new ClassValue<KeyResolver>() {
+        @Override
+        protected KeyResolver computeValue(Class<?> type) {
+            try {
+                return (KeyResolver) type.getDeclaredConstructor().newInstance();
+            } catch (Exception e) {
+                LOG.log(Level.SEVERE, "Cannot create KeyResolver: " + type.getName(), e);
+                return null;
+            }
+        }
+    };
+
     private InjectionUtils(){}
 
     /**
      * Collects all keys to be be accessed, hereby the first key
-     * is the main key, subsequent keys are the fallback keys.
+     * is the main key, subsequent keys are the fallback keys. The keys are evaluated once per field.
      * @param field the (optionally) annotated field instance
-     * @return the regarding key createList to be accessed fomr the {@link org.apache.tamaya.Configuration}.
+     * @return the regarding key createList to be accessed fomr the {@link org.apache.tamaya.Configuration},
+     * not modifiable.
      */
     public static List<String> getKeys(Field field) {
-        if(field.isAnnotationPresent(NoConfig.class)){
-            return Collections.emptyList();
+        Map<Member, List<String>> cache = MEMBER_KEYS.get(field.getDeclaringClass());
+        List<String> keys = cache.get(field);
+        if(keys == null){
+            if(field.isAnnotationPresent(NoConfig.class)){
+                keys = Collections.emptyList();
+            }else {
+                Config configAnnot = field.getAnnotation(Config.class);
+                keys = evaluateKeys(field, configAnnot, getPropertyKeys(field, configAnnot));
+            }
+            // not using computeIfAbsent, key resolvers may access the keys of other members.
+            cache.putIfAbsent(field, keys);
         }
-        return InjectionUtils.evaluateKeys(field, field.getAnnotation(Config.class));
+        return keys;
     }
 
     /**
      * Collects all keys to be be accessed, hereby the first key
-     * is the main key, subsequent keys are the fallback keys.
+     * is the main key, subsequent keys are the fallback keys. The keys are evaluated once per method.
      * @param method the (optionally) annotated method instance
-     * @return the regarding key createList to be accessed fomr the {@link org.apache.tamaya.Configuration}.
+     * @return the regarding key createList to be accessed fomr the {@link org.apache.tamaya.Configuration},
+     * not modifiable.
      */
     public static List<String> getKeys(Method method) {
-        Config configAnnot = method.getAnnotation(Config.class);
-        if(method.isAnnotationPresent(NoConfig.class) || configAnnot==null){
-            return Collections.emptyList();
+        Map<Member, List<String>> cache = MEMBER_KEYS.get(method.getDeclaringClass());
+        List<String> keys = cache.get(method);
+        if(keys == null){
+            Config configAnnot = method.getAnnotation(Config.class);
+            if(method.isAnnotationPresent(NoConfig.class) || configAnnot==null){
+                keys = Collections.emptyList();
+            }else {
+                keys = evaluateKeys(method, configAnnot, getPropertyKeys(method, configAnnot));
+            }
+            cache.putIfAbsent(method, keys);
         }
-        return InjectionUtils.evaluateKeys(method, configAnnot);
+        return keys;
     }
 
     /**
@@ -91,64 +133,32 @@ public final class InjectionUtils {
      * Evaluates all absolute configuration keys based on the member name found, hereby the first key
      * is the main key, subsequent keys are the fallback keys.
      *
+     * @param member the member, not null.
      * @param configAnnot the (optional) config annotation
-     * @return the createList of current keys in order how they should be processed/looked up.
-     */
-    private static List<String> evaluateKeys(Method method, Config configAnnot) {
-        List<String> propertyKeys = getPropertyKeys(method, configAnnot);
-        KeyResolver keyResolver = AUTO_RESOLVER;
-        ConfigSection sectionAnnot = method.getDeclaringClass().getAnnotation(ConfigSection.class);
-        if(sectionAnnot!=null && !sectionAnnot.keyResolver().equals(KeyResolver.class)){
-            try {
-                keyResolver = sectionAnnot.keyResolver().getDeclaredConstructor().newInstance();
-            } catch (Exception e) {
-                LOG.log(Level.SEVERE, "Cannot create KeyResolver from section resolver: " + sectionAnnot.keyResolver().getName(), e);
-            }
-        }
-        if(configAnnot!=null && !configAnnot.keyResolver().equals(KeyResolver.class)){
-            try {
-                keyResolver = configAnnot.keyResolver().getDeclaredConstructor().newInstance();
-            } catch (Exception e) {
-                LOG.log(Level.SEVERE, "Cannot create KeyResolver from config resolver: " + configAnnot.keyResolver().getName(), e);
-            }
-        }
-        List<String> alternateKeys = new ArrayList<>();
-        if(configAnnot!=null){
-            alternateKeys.addAll(Arrays.asList(configAnnot.alternateKeys()));
-        }
-        return keyResolver.resolveKeys(propertyKeys, alternateKeys, method);
-    }
-
-    /**
-     * Evaluates all absolute configuration keys based on the member name found, hereby the first key
-     * is the main key, subsequent keys are the fallback keys.
-     *
-     * @param configAnnot the (optional) config annotation
-     * @return the createList of current keys in order how they should be processed/looked up.
+     * @param propertyKeys the property keys evaluated from the annotation or the member name.
+     * @return the createList of current keys in order how they should be processed/looked up, not modifiable.
      */
-    private static List<String> evaluateKeys(Field field, Config configAnnot) {
-        List<String> propertyKeys = getPropertyKeys(field, configAnnot);
+    private static List<String> evaluateKeys(Member member, Config configAnnot, List<String> propertyKeys) {
         KeyResolver keyResolver = AUTO_RESOLVER;
-        ConfigSection sectionAnnot = field.getDeclaringClass().getAnnotation(ConfigSection.class);
+        ConfigSection sectionAnnot = member.getDeclaringClass().getAnnotation(ConfigSection.class);
         if(sectionAnnot!=null && !sectionAnnot.keyResolver().equals(KeyResolver.class)){
-            try {
-                keyResolver = sectionAnnot.keyResolver().getDeclaredConstructor().newInstance();
-            } catch (Exception e) {
-                LOG.log(Level.SEVERE, "Cannot create KeyResolver from section resolver: " + sectionAnnot.keyResolver().getName(), e);
+            KeyResolver sectionResolver = KEY_RESOLVERS.get(sectionAnnot.keyResolver());
+            if(sectionResolver!=null){
+                keyResolver = sectionResolver;
             }
         }
         if(configAnnot!=null && !configAnnot.keyResolver().equals(KeyResolver.class)){
-            try {
-                keyResolver = configAnnot.keyResolver().getDeclaredConstructor().newInstance();
-            } catch (Exception e) {
-                LOG.log(Level.SEVERE, "Cannot create KeyResolver from config resolver: " + configAnnot.keyResolver().getName(), e);
+            KeyResolver configResolver = KEY_RESOLVERS.get(configAnnot.keyResolver());
+            if(configResolver!=null){
+                keyResolver = configResolver;
             }
         }
         List<String> alternateKeys = new ArrayList<>();
         if(configAnnot!=null){
             alternateKeys.addAll(Arrays.asList(configAnnot.alternateKeys()));
         }
-        return keyResolver.resolveKeys(propertyKeys, alternateKeys, field);
+        return Collections.unmodifiableList(new ArrayList<>(
+                keyResolver.resolveKeys(propertyKeys, alternateKeys, member)));
     }
 
     private static List<String> getPropertyKeys(Method method, Config configAnnot) {
@@ -176,28 +186,22 @@ public final class InjectionUtils {
     }
 
     private static String trySplitCamelCase(String key) {
-        String result = "";
-        int start = 0;
-        int index = 0;
-        while(index < key.length()){
-            char ch = key.charAt(index++);
-            if(Character.isAlphabetic(ch)) {
-                if (Character.isLowerCase(ch)) {
-                    result += ch;
-                } else if (Character.isUpperCase(ch)) {
-                    if(!result.isEmpty() && !result.endsWith(".")){
-                        result += ".";
-                    }
-                    result += Character.toLowerCase(ch);
+        StringBuilder result = new StringBuilder(key.length() + 4);
+        for(int index = 0; index < key.length(); index++){
+            char ch = key.charAt(index);
+            if(Character.isAlphabetic(ch) && Character.isUpperCase(ch)) {
+                if(result.length() > 0 && result.charAt(result.length() - 1) != '.'){
+                    result.append('.');
                 }
-            } else {
-                result += ch;
+                result.append(Character.toLowerCase(ch));
+            } else if(!Character.isAlphabetic(ch) || Character.isLowerCase(ch)) {
+                result.append(ch);
             }
         }
-        if(result.equals(key)) {
+        if(result.length() == key.length() && result.toString().equals(key)) {
             return null;
         }
-        return result;
+        return result.toString();
     }
 
     private static List<String> getPropertyKeys(Field field, Config configAnnot) {
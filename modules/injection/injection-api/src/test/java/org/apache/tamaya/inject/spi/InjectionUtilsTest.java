@@ -20,11 +20,14 @@ package org.apache.tamaya.inject.spi;
 
 import org.apache.tamaya.inject.api.Config;
 import org.apache.tamaya.inject.api.ConfigSection;
+import org.apache.tamaya.inject.api.KeyResolver;
 import org.junit.Test;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -206,4 +209,49 @@ public class InjectionUtilsTest {
                 .contains("Klazz.val",
                         "absoluteVal");
     }
+
+    public static final class CountingKeyResolver implements KeyResolver {
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        public CountingKeyResolver() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        public List<String> resolveKeys(List<String> propertyKeys, List<String> alternateKeys, Member member) {
+            return propertyKeys;
+        }
+    }
+
+    @Test
+    public void getKeysIsEvaluatedOncePerMember() {
+        class Klazz {
+            @Config(key = "a", keyResolver = CountingKeyResolver.class)
+            public String field1;
+            @Config(key = "b", keyResolver = CountingKeyResolver.class)
+            public String field2;
+        }
+        int instances = CountingKeyResolver.INSTANCES.get();
+        Field field1 = Klazz.class.getFields()[0];
+        Field field2 = Klazz.class.getFields()[1];
+
+        List<String> foundKeys = InjectionUtils.getKeys(field1);
+        assertThat(InjectionUtils.getKeys(field1)).isSameAs(foundKeys);
+        assertThat(InjectionUtils.getMemberKeys(field1)).isSameAs(foundKeys);
+        assertThat(InjectionUtils.getKeys(field2)).hasSize(1);
+        assertThat(CountingKeyResolver.INSTANCES.get() - instances).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void getKeysSplitsCamelCaseWithDigitsAndUnderscores() {
+        class Klazz {
+            public String myHTTPPort2_value;
+        }
+
+        Field field = Klazz.class.getFields()[0];
+
+        List<String> foundKeys = InjectionUtils.getKeys(field);
+        assertThat(foundKeys).containsExactly("myHTTPPort2_value", "myHTTPPort2.value",
+                "my.h.t.t.p.port2_value");
+    }
 }
\ No newline at end of file
@@ -20,23 +20,117 @@ package org.apache.tamaya.inject.internal;
 
 import org.apache.tamaya.Configuration;
 import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.inject.api.Config;
 import org.apache.tamaya.inject.api.DynamicValue;
+import org.apache.tamaya.inject.api.WithPropertyConverter;
 import org.apache.tamaya.inject.spi.ConfiguredType;
+import org.apache.tamaya.inject.spi.InjectionUtils;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * Invocation handler that handles request against a configuration template.
+ * Invocation handler that handles request against a configuration template. The methods of a template type
+ * are analyzed once, so a call only looks up the configured value. Values of immutable return types (primitives
+ * and their wrappers, {@link String}, enums, {@link BigDecimal} and {@link BigInteger}) are kept after conversion
+ * and reused as long as the value looked up does not change. Values of all other types, e.g. arrays, collections
+ * or {@link java.util.Date}, are converted on each call, so callers never share mutable state.
  */
 public final class ConfigTemplateInvocationHandler implements InvocationHandler {
 
+    /** The immutable return types, whose converted values can be shared. */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+            Boolean.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            Character.class, String.class, BigDecimal.class, BigInteger.class));
+
+    /** The methods of the template types, analyzed on first use. */
+    private static final ClassValue<Map<Method, TemplateMethod>> TEMPLATE_METHODS =
+            new ClassValue<Map<Method, TemplateMethod>>() {
+        @Override
+        protected Map<Method, TemplateMethod> computeValue(Class<?> type) {
+            Map<Method, TemplateMethod> methods = new HashMap<>();
+            for (Method method : type.getMethods()) {
+                methods.put(method, new TemplateMethod(method, methods.size()));
+            }
+            return Collections.unmodifiableMap(methods);
+        }
+    };
+
     /**
      * The configured type.
      */
     private final ConfiguredType type;
     private Configuration config;
+    private final Map<Method, TemplateMethod> methods;
+    /** The last value converted per template method. */
+    private final AtomicReferenceArray<ConvertedValue> values;
+
+    /** The kinds of template methods. */
+    private enum Kind {
+        TO_STRING, CURRENT, OBJECT, DYNAMIC_VALUE, VALUE
+    }
+
+    /**
+     * A template method, hereby all data not depending on the configuration is evaluated upfront.
+     */
+    private static final class TemplateMethod {
+        final Method method;
+        final int index;
+        final Kind kind;
+        final String[] keys;
+        final String defaultValue;
+        final TypeLiteral<?> returnType;
+        final boolean plainString;
+        final boolean cacheable;
+
+        TemplateMethod(Method method, int index) {
+            this.method = method;
+            this.index = index;
+            if ("toString".equals(method.getName())) {
+                this.kind = Kind.TO_STRING;
+            } else if ("current".equals(method.getName())) {
+                this.kind = Kind.CURRENT;
+            } else if (method.getDeclaringClass().equals(Object.class)) {
+                this.kind = Kind.OBJECT;
+            } else if (method.getReturnType() == DynamicValue.class) {
+                this.kind = Kind.DYNAMIC_VALUE;
+            } else {
+                this.kind = Kind.VALUE;
+            }
+            List<String> memberKeys = InjectionUtils.getKeys(method);
+            this.keys = memberKeys.toArray(new String[memberKeys.size()]);
+            Config configAnnot = method.getAnnotation(Config.class);
+            this.defaultValue = configAnnot != null && !configAnnot.defaultValue().equals(Config.UNCONFIGURED_VALUE)
+                    ? configAnnot.defaultValue() : null;
+            this.returnType = TypeLiteral.of(method.getReturnType());
+            this.plainString = String.class == method.getReturnType() &&
+                    !method.isAnnotationPresent(WithPropertyConverter.class);
+            Class<?> returnType = method.getReturnType();
+            this.cacheable = returnType.isPrimitive() || returnType.isEnum() || IMMUTABLE_TYPES.contains(returnType);
+        }
+    }
+
+    /** A converted value and the value it was converted from. */
+    private static final class ConvertedValue {
+        final String configValue;
+        final Object value;
+
+        ConvertedValue(String configValue, Object value) {
+            this.configValue = configValue;
+            this.value = value;
+        }
+    }
 
     /**
      * Creates a new handler instance.
@@ -50,17 +144,79 @@ public final class ConfigTemplateInvocationHandler implements InvocationHandler
             throw new IllegalArgumentException("Can only proxy interfaces as configuration templates.");
         }
         this.config = Objects.requireNonNull(config);
+        this.methods = TEMPLATE_METHODS.get(type);
+        this.values = new AtomicReferenceArray<>(methods.size());
         InjectionHelper.sendConfigurationEvent(this.type, config.getContext().getServiceContext().getClassLoader());
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        TemplateMethod templateMethod = methods.get(method);
+        if (templateMethod == null) {
+            // a method not declared by the template type, e.g. of Supplier
+            return invokeUnknown(proxy, method, args);
+        }
+        switch (templateMethod.kind) {
+            case VALUE:
+                return getValue(templateMethod);
+            case TO_STRING:
+                return toString();
+            case CURRENT:
+                return config;
+            case OBJECT:
+                return invokeObjectMethod(proxy, method, args);
+            case DYNAMIC_VALUE:
+            default:
+                return DefaultDynamicValue.of(proxy, method, config);
+        }
+    }
+
+    private Object getValue(TemplateMethod templateMethod) {
+        String key = null;
+        String configValue = null;
+        for (String candidate : templateMethod.keys) {
+            configValue = config.getOrDefault(candidate, null);
+            if (configValue != null) {
+                key = candidate;
+                break;
+            }
+        }
+        if (configValue == null) {
+            configValue = templateMethod.defaultValue;
+        }
+        if (templateMethod.plainString) {
+            return configValue;
+        }
+        if (!templateMethod.cacheable) {
+            return InjectionHelper.adaptValue(templateMethod.method, templateMethod.returnType, key, configValue);
+        }
+        ConvertedValue converted = values.get(templateMethod.index);
+        if (converted != null && Objects.equals(converted.configValue, configValue)) {
+            return converted.value;
+        }
+        Object value = InjectionHelper.adaptValue(templateMethod.method, templateMethod.returnType, key, configValue);
+        values.set(templateMethod.index, new ConvertedValue(configValue, value));
+        return value;
+    }
+
+    private Object invokeObjectMethod(Object proxy, Method method, Object[] args) throws Exception {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return method.invoke(this, args);
+        }
+    }
+
+    private Object invokeUnknown(Object proxy, Method method, Object[] args) throws Throwable {
         if ("toString".equals(method.getName())) {
-            return "Configured Proxy -> " + this.type.getType().getName();
+            return toString();
         } else if ("current".equals(method.getName())) {
             return config;
         } else if (method.getDeclaringClass().equals(Object.class)) {
-            return method.invoke(proxy, args);
+            return invokeObjectMethod(proxy, method, args);
         }
         if (method.getReturnType() == DynamicValue.class) {
             return DefaultDynamicValue.of(proxy, method, config);
@@ -69,4 +225,9 @@ public final class ConfigTemplateInvocationHandler implements InvocationHandler
         String configValue = InjectionHelper.getConfigValue(method, retKey, config);
         return InjectionHelper.adaptValue(method, TypeLiteral.of(method.getReturnType()), retKey[0], configValue);
     }
+
+    @Override
+    public String toString() {
+        return "Configured Proxy -> " + this.type.getType().getName();
+    }
 }
@@ -22,6 +22,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.tamaya.ConfigException;
@@ -42,6 +43,11 @@ import org.apache.tamaya.inject.spi.ConfiguredType;
 public class ConfiguredTypeImpl implements ConfiguredType{
     /** The log used. */
     private static final Logger LOG = Logger.getLogger(ConfiguredTypeImpl.class.getName());
+    /**
+     * If set to {@code true}, instances are configured member by member using reflection, instead of using
+     * the {@link TypeInjector} created for the type.
+     */
+    static final String REFLECTIVE_INJECTION_PROP = "tamaya.inject.reflective";
     /**
      * A createList with all annotated instance variables.
      */
@@ -54,6 +60,10 @@ public class ConfiguredTypeImpl implements ConfiguredType{
      * The basic type.
      */
     private final Class type;
+    /**
+     * The injector created for the type, or null, if reflective injection is used.
+     */
+    private final TypeInjector injector;
 
     /**
      * Creates an instance of this class hereby evaluating the config annotations given for later effective
@@ -65,6 +75,7 @@ public class ConfiguredTypeImpl implements ConfiguredType{
         this.type = Objects.requireNonNull(type);
         if(type.isAnnotationPresent(NoConfig.class)){
             LOG.info(() -> "Type is excluded from config: " + type.getName());
+            this.injector = null;
             return;
         }
         if(!isConfigured(type)){
@@ -76,6 +87,16 @@ public class ConfiguredTypeImpl implements ConfiguredType{
             initFields(type, autoInject != null);
             initMethods(type, autoInject != null);
         }
+        this.injector = Boolean.getBoolean(REFLECTIVE_INJECTION_PROP) ? null : createInjector();
+    }
+
+    private TypeInjector createInjector() {
+        try {
+            return TypeInjector.of(configuredFields, configuredSetterMethods);
+        } catch (ConfigException e) {
+            LOG.log(Level.WARNING, "Failed to create injector, using reflection for type: " + type.getName(), e);
+            return null;
+        }
     }
 
     private void initFields(Class type, boolean autoConfigure) {
@@ -169,6 +190,10 @@ public class ConfiguredTypeImpl implements ConfiguredType{
 
     @Override
     public void configure(Object instance, Configuration config) {
+        if (injector != null) {
+            injector.inject(instance, config);
+            return;
+        }
         for (ConfiguredField field : configuredFields) {
             field.configure(instance, config);
         }
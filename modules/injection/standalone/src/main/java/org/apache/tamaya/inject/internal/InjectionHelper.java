@@ -23,6 +23,8 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -149,43 +151,43 @@ final class InjectionHelper {
         return configValue;
     }
 
+    /**
+     * Converts the given value to the target type. If the element is annotated with {@link WithPropertyConverter}
+     * its converter is tried first, then the converters registered for the target type.
+     * @param element the annotated element, not null.
+     * @param targetType the target type, not null.
+     * @param key the key of the value, or null.
+     * @param configValue the value to convert, may be null.
+     * @param <T> the target type.
+     * @return the converted value, null if configValue is null and no converter produced a value.
+     * @throws ConfigException if configValue could not be converted.
+     */
     public static <T> T adaptValue(AnnotatedElement element, TypeLiteral<T> targetType, String key, String configValue) {
+        ConverterPlan<T> plan = ConverterPlan.of(element, targetType);
         // Check for adapter/filter
-        T adaptedValue = null;
-        WithPropertyConverter converterAnnot = element.getAnnotation(WithPropertyConverter.class);
-        Class<? extends PropertyConverter<T>> converterType;
-        if (converterAnnot != null) {
-            converterType = (Class<? extends PropertyConverter<T>>) converterAnnot.value();
-            if (!converterType.isAssignableFrom(WithPropertyConverter.class)) {
-                try {
-                // TODO cache here...
-                    ConversionContext ctx = new ConversionContext.Builder(key,targetType)
-                            .setAnnotatedElement(element).build();
-                    PropertyConverter<T> converter = converterType.getConstructor()
-                            .newInstance();
-                    adaptedValue = converter.convert(configValue, ctx);
-                } catch (Exception e) {
-                    LOG.log(Level.SEVERE, "Failed to convert using explicit PropertyConverter on " + element +
-                            ", trying default conversion.", e);
+        if (plan.customConverter != null) {
+            try {
+                ConversionContext ctx = new ConversionContext.Builder(key,targetType)
+                        .setAnnotatedElement(element).build();
+                T adaptedValue = plan.customConverter.convert(configValue, ctx);
+                if (adaptedValue != null) {
+                    return adaptedValue;
                 }
+            } catch (Exception e) {
+                LOG.log(Level.SEVERE, "Failed to convert using explicit PropertyConverter on " + element +
+                        ", trying default conversion.", e);
             }
         }
-        if (adaptedValue != null) {
-            return adaptedValue;
-        }
-        if (String.class == targetType.getType()) {
+        if (plan.stringType) {
             return (T) configValue;
-        } else{
-            ConfigurationContext configContext = Configuration.current().getContext();
-            List<PropertyConverter<T>> converters = configContext
-                    .getPropertyConverters(targetType);
-            ConversionContext ctx = new ConversionContext.Builder(Configuration.current(),
-                    key, targetType).setAnnotatedElement(element).build();
-            for (PropertyConverter<T> converter : converters) {
-                adaptedValue = converter.convert(configValue, ctx);
-                if (adaptedValue != null) {
-                    return adaptedValue;
-                }
+        }
+        Configuration config = Configuration.current();
+        ConversionContext ctx = new ConversionContext.Builder(config,
+                key, targetType).setAnnotatedElement(element).build();
+        for (PropertyConverter<T> converter : plan.getConverters(config.getContext())) {
+            T adaptedValue = converter.convert(configValue, ctx);
+            if (adaptedValue != null) {
+                return adaptedValue;
             }
         }
         if(configValue!=null) {
@@ -194,6 +196,93 @@ final class InjectionHelper {
         return null;
     }
 
+    /**
+     * The conversion data evaluated for an annotated element and target type: the instance of the
+     * {@link WithPropertyConverter} converter, if any, and the converters of the target type, which are evaluated
+     * again only if the configuration context changes. Plans of members are held per declaring class.
+     * @param <T> the target type.
+     */
+    private static final class ConverterPlan<T> {
+        private static final ClassValue<Map<AnnotatedElement, ConverterPlan<?>>> PLANS =
+                new ClassValue<Map<AnnotatedElement, ConverterPlan<?>>>() {
+            @Override
+            protected Map<AnnotatedElement, ConverterPlan<?>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+        final TypeLiteral<T> targetType;
+        final PropertyConverter<T> customConverter;
+        final boolean stringType;
+        private volatile ConvertersRef<T> converters;
+
+        /** The converters evaluated for a configuration context. */
+        private static final class ConvertersRef<T> {
+            final ConfigurationContext context;
+            final List<PropertyConverter<T>> converters;
+
+            ConvertersRef(ConfigurationContext context, List<PropertyConverter<T>> converters) {
+                this.context = context;
+                this.converters = converters;
+            }
+        }
+
+        private ConverterPlan(AnnotatedElement element, TypeLiteral<T> targetType) {
+            this.targetType = targetType;
+            this.customConverter = createCustomConverter(element, targetType);
+            this.stringType = String.class == targetType.getType();
+        }
+
+        static <T> ConverterPlan<T> of(AnnotatedElement element, TypeLiteral<T> targetType) {
+            if (!(element instanceof Member)) {
+                return new ConverterPlan<>(element, targetType);
+            }
+            Map<AnnotatedElement, ConverterPlan<?>> plans = PLANS.get(((Member) element).getDeclaringClass());
+            ConverterPlan<?> plan = plans.get(element);
+            if (plan == null) {
+                plan = new ConverterPlan<>(element, targetType);
+                ConverterPlan<?> existing = plans.putIfAbsent(element, plan);
+                if (existing != null) {
+                    plan = existing;
+                }
+            }
+            if (!plan.targetType.getType().equals(targetType.getType())) {
+                // the same element converted to another type, not cached.
+                return new ConverterPlan<>(element, targetType);
+            }
+            return (ConverterPlan<T>) plan;
+        }
+
+        private static <T> PropertyConverter<T> createCustomConverter(AnnotatedElement element,
+                                                                       TypeLiteral<T> targetType) {
+            WithPropertyConverter converterAnnot = element.getAnnotation(WithPropertyConverter.class);
+            if (converterAnnot == null) {
+                return null;
+            }
+            Class<? extends PropertyConverter<T>> converterType =
+                    (Class<? extends PropertyConverter<T>>) converterAnnot.value();
+            if (converterType.isAssignableFrom(WithPropertyConverter.class)) {
+                return null;
+            }
+            try {
+                return converterType.getConstructor().newInstance();
+            } catch (Exception e) {
+                LOG.log(Level.SEVERE, "Failed to create explicit PropertyConverter on " + element +
+                        ", using default conversion.", e);
+                return null;
+            }
+        }
+
+        List<PropertyConverter<T>> getConverters(ConfigurationContext context) {
+            ConvertersRef<T> ref = this.converters;
+            if (ref == null || ref.context != context) {
+                ref = new ConvertersRef<>(context, context.getPropertyConverters(targetType));
+                this.converters = ref;
+            }
+            return ref.converters;
+        }
+    }
+
     /**
      * Method that allows to statically check, if the resolver module is loaded. If the module is loaded
      * value expressions are automatically forwarded to the resolver module for resolution.
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject.internal;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.inject.api.Config;
+import org.apache.tamaya.inject.api.DynamicValue;
+import org.apache.tamaya.inject.api.WithPropertyConverter;
+import org.apache.tamaya.inject.spi.ConfiguredField;
+import org.apache.tamaya.inject.spi.ConfiguredMethod;
+import org.apache.tamaya.inject.spi.InjectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Injector for a configured type, created once when the type is registered. All the per member work not
+ * depending on the configuration is done upfront: the keys and default values are evaluated, the members are
+ * made accessible and bound to {@link MethodHandle}s. Injecting an instance hereby only looks up the values,
+ * converts them and invokes the handles.
+ */
+final class TypeInjector {
+
+    /** The generic signature of all setter handles. */
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /** The member injectors, fields first, then setter methods. */
+    private final MemberInjector[] injectors;
+
+    /**
+     * Injects a single member.
+     */
+    private interface MemberInjector {
+        void inject(Object target, Configuration config) throws ConfigException;
+    }
+
+    private TypeInjector(MemberInjector[] injectors) {
+        this.injectors = injectors;
+    }
+
+    /**
+     * Creates the injector for the given fields and methods.
+     * @param fields the configured fields, not null.
+     * @param methods the configured setter methods, not null.
+     * @return the injector, never null.
+     * @throws ConfigException if a member cannot be made accessible.
+     */
+    static TypeInjector of(Collection<ConfiguredField> fields, Collection<ConfiguredMethod> methods) {
+        List<MemberInjector> injectors = new ArrayList<>(fields.size() + methods.size());
+        for (ConfiguredField field : fields) {
+            Field annotatedField = field.getAnnotatedField();
+            if (!(field instanceof ConfiguredFieldImpl) || annotatedField.getType() == DynamicValue.class) {
+                // dynamic values are created once per instance anyway
+                injectors.add(field::configure);
+            } else {
+                injectors.add(new ValueInjector(annotatedField, TypeLiteral.of(annotatedField.getGenericType()),
+                        setterOf(annotatedField), false));
+            }
+        }
+        for (ConfiguredMethod method : methods) {
+            Method setter = method.getAnnotatedMethod();
+            if (!(method instanceof ConfiguredSetterMethod) || setter == null) {
+                injectors.add(method::configure);
+            } else {
+                injectors.add(new ValueInjector(setter, TypeLiteral.of(setter.getParameterTypes()[0]),
+                        setterOf(setter), true));
+            }
+        }
+        return new TypeInjector(injectors.toArray(new MemberInjector[injectors.size()]));
+    }
+
+    private static MethodHandle setterOf(Member member) {
+        try {
+            makeAccessible((AccessibleObject) member);
+            MethodHandle handle = member instanceof Field
+                    ? MethodHandles.lookup().unreflectSetter((Field) member)
+                    : MethodHandles.lookup().unreflect((Method) member);
+            return handle.asType(SETTER_TYPE);
+        } catch (Exception e) {
+            throw new ConfigException("Failed to access configured member: " +
+                    member.getDeclaringClass().getName() + '.' + member.getName(), e);
+        }
+    }
+
+    private static void makeAccessible(AccessibleObject member) {
+        AccessController.doPrivileged((PrivilegedAction<Object>) () -> {
+            member.setAccessible(true);
+            return member;
+        });
+    }
+
+    /**
+     * Configures the given instance.
+     * @param instance the instance, not null.
+     * @param config the configuration, not null.
+     * @throws ConfigException if evaluation or conversion failed.
+     */
+    void inject(Object instance, Configuration config) {
+        for (MemberInjector injector : injectors) {
+            injector.inject(instance, config);
+        }
+    }
+
+    /**
+     * Injects the converted value of the first key found into a field or setter method. Fields are only set
+     * if a value was found, setters are always called and their values are evaluated by the resolver, if
+     * present, as done by {@link ConfiguredFieldImpl} and {@link ConfiguredSetterMethod}.
+     */
+    private static final class ValueInjector implements MemberInjector {
+        private final AnnotatedElement element;
+        private final String memberName;
+        private final String[] keys;
+        private final String defaultValue;
+        private final TypeLiteral<?> targetType;
+        private final boolean plainString;
+        private final MethodHandle handle;
+        private final boolean isSetter;
+
+        ValueInjector(Member member, TypeLiteral<?> targetType, MethodHandle handle, boolean isSetter) {
+            this.element = (AnnotatedElement) member;
+            this.memberName = member.getDeclaringClass().getName() + '.' + member.getName();
+            List<String> memberKeys = InjectionUtils.getMemberKeys(member);
+            this.keys = memberKeys.toArray(new String[memberKeys.size()]);
+            Config configAnnot = element.getAnnotation(Config.class);
+            this.defaultValue = configAnnot != null && !configAnnot.defaultValue().equals(Config.UNCONFIGURED_VALUE)
+                    ? configAnnot.defaultValue() : null;
+            this.targetType = targetType;
+            this.plainString = String.class == targetType.getType() &&
+                    !element.isAnnotationPresent(WithPropertyConverter.class);
+            this.handle = handle;
+            this.isSetter = isSetter;
+        }
+
+        @Override
+        public void inject(Object target, Configuration config) throws ConfigException {
+            String key = null;
+            String configValue = null;
+            for (String candidate : keys) {
+                configValue = config.getOrDefault(candidate, null);
+                if (configValue != null) {
+                    key = candidate;
+                    break;
+                }
+            }
+            if (configValue == null) {
+                configValue = defaultValue;
+            }
+            try {
+                if (isSetter && configValue != null) {
+                    configValue = InjectionHelper.evaluateValue(configValue,
+                            config.getContext().getServiceContext().getClassLoader());
+                }
+                Object value = plainString ? configValue
+                        : InjectionHelper.adaptValue(element, targetType, key, configValue);
+                if (isSetter || value != null) {
+                    handle.invokeExact(target, value);
+                }
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new ConfigException("Failed to configure member: " + memberName, e);
+            }
+        }
+    }
+}
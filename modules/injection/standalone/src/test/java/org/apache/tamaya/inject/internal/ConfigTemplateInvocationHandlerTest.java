@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject.internal;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.inject.api.Config;
+import org.apache.tamaya.inject.api.WithPropertyConverter;
+import org.apache.tamaya.spi.ConversionContext;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValue;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link org.apache.tamaya.inject.internal.ConfigTemplateInvocationHandler}.
+ */
+public class ConfigTemplateInvocationHandlerTest {
+
+    public interface Template {
+        @Config(key = "template.count")
+        Integer count();
+
+        @Config(key = "template.name", defaultValue = "aDefault")
+        String name();
+
+        @Config(key = "template.list")
+        @WithPropertyConverter(ListConverter.class)
+        List<String> list();
+    }
+
+    public static class ListConverter implements PropertyConverter<List<String>> {
+        @Override
+        public List<String> convert(String value, ConversionContext context) {
+            return value == null ? null : new ArrayList<>(Arrays.asList(value.split(",")));
+        }
+    }
+
+    private static final class MutablePropertySource implements PropertySource {
+        private final Map<String, String> properties = new ConcurrentHashMap<>();
+
+        @Override
+        public int getOrdinal() {
+            return 0;
+        }
+
+        @Override
+        public String getName() {
+            return "mutable";
+        }
+
+        @Override
+        public PropertyValue get(String key) {
+            String value = properties.get(key);
+            return value == null ? null : PropertyValue.createValue(key, value).setMeta("source", getName());
+        }
+
+        @Override
+        public Map<String, PropertyValue> getProperties() {
+            Map<String, PropertyValue> result = new HashMap<>();
+            for (String key : properties.keySet()) {
+                PropertyValue value = get(key);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isScannable() {
+            return true;
+        }
+    }
+
+    private static Template createTemplate(Configuration config) {
+        return (Template) Proxy.newProxyInstance(Template.class.getClassLoader(), new Class[]{Template.class},
+                new ConfigTemplateInvocationHandler(Template.class, config));
+    }
+
+    @Test
+    public void convertedValueIsReusedUntilChanged() {
+        MutablePropertySource source = new MutablePropertySource();
+        source.properties.put("template.count", "1000");
+        Configuration config = ConfigurationProvider.getConfigurationBuilder()
+                .addPropertySources(source).build();
+        Template template = createTemplate(config);
+        Integer count = template.count();
+        assertThat(count).isEqualTo(1000);
+        assertThat(template.count()).isSameAs(count);
+        assertThat(template.name()).isEqualTo("aDefault");
+
+        source.properties.put("template.count", "2000");
+        source.properties.put("template.name", "aName");
+        assertThat(template.count()).isEqualTo(2000);
+        assertThat(template.name()).isEqualTo("aName");
+    }
+
+    @Test
+    public void mutableValuesAreNotShared() {
+        MutablePropertySource source = new MutablePropertySource();
+        source.properties.put("template.list", "a,b");
+        Configuration config = ConfigurationProvider.getConfigurationBuilder()
+                .addPropertySources(source).build();
+        Template template = createTemplate(config);
+        List<String> list = template.list();
+        assertThat(list).containsExactly("a", "b");
+        list.add("c");
+        assertThat(template.list()).isNotSameAs(list).containsExactly("a", "b");
+    }
+
+    @Test
+    public void objectMethods() {
+        Configuration config = ConfigurationProvider.getConfigurationBuilder().build();
+        Template template = createTemplate(config);
+        Template other = createTemplate(config);
+        assertThat(template.equals(template)).isTrue();
+        assertThat(template.equals(other)).isFalse();
+        assertThat(template.hashCode()).isEqualTo(System.identityHashCode(template));
+        assertThat(template.toString()).isEqualTo("Configured Proxy -> " + Template.class.getName());
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject.internal;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.inject.api.Config;
+import org.apache.tamaya.inject.api.WithPropertyConverter;
+import org.apache.tamaya.spi.ConversionContext;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.apache.tamaya.spisupport.propertysource.MapPropertySource;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Tests for {@link org.apache.tamaya.inject.internal.ConfiguredTypeImpl}, comparing the injector created for a
+ * type with reflective injection.
+ */
+public class ConfiguredTypeImplTest {
+
+    public static class Bean {
+        @Config(key = "bean.name")
+        private String name;
+        @Config(key = "bean.missing", alternateKeys = "bean.alternate")
+        String alternate;
+        @Config(key = "bean.count")
+        Integer count;
+        @Config(key = "bean.undefined", defaultValue = "42")
+        private Integer withDefault;
+        @Config(key = "bean.undefined")
+        private String notSet = "initial";
+        private Long fromSetter;
+
+        @Config(key = "bean.count")
+        void setFromSetter(Long value) {
+            this.fromSetter = value;
+        }
+    }
+
+    public static class UpperCaseConverter implements PropertyConverter<String> {
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        public UpperCaseConverter() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        public String convert(String value, ConversionContext context) {
+            return value == null ? null : value.toUpperCase();
+        }
+    }
+
+    public static class ConvertedBean {
+        @Config(key = "bean.name")
+        @WithPropertyConverter(UpperCaseConverter.class)
+        String name;
+    }
+
+    private static Configuration config(String... keyValues) {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.put(keyValues[i], keyValues[i + 1]);
+        }
+        return ConfigurationProvider.getConfigurationBuilder()
+                .addPropertySources(new MapPropertySource("test", properties)).build();
+    }
+
+    private static Bean configure(Configuration config, boolean reflective) {
+        String previous = System.getProperty(ConfiguredTypeImpl.REFLECTIVE_INJECTION_PROP);
+        System.setProperty(ConfiguredTypeImpl.REFLECTIVE_INJECTION_PROP, String.valueOf(reflective));
+        try {
+            Bean bean = new Bean();
+            new ConfiguredTypeImpl(Bean.class).configure(bean, config);
+            return bean;
+        } finally {
+            if (previous == null) {
+                System.clearProperty(ConfiguredTypeImpl.REFLECTIVE_INJECTION_PROP);
+            } else {
+                System.setProperty(ConfiguredTypeImpl.REFLECTIVE_INJECTION_PROP, previous);
+            }
+        }
+    }
+
+    @Test
+    public void injectorMatchesReflectiveInjection() {
+        Configuration config = config("bean.name", "aName", "bean.alternate", "alt", "bean.count", "7");
+        for (boolean reflective : new boolean[]{false, true}) {
+            Bean bean = configure(config, reflective);
+            assertThat(bean.name).isEqualTo("aName");
+            assertThat(bean.alternate).isEqualTo("alt");
+            assertThat(bean.count).isEqualTo(7);
+            assertThat(bean.withDefault).isEqualTo(42);
+            assertThat(bean.notSet).isEqualTo("initial");
+            assertThat(bean.fromSetter).isEqualTo(7L);
+        }
+    }
+
+    @Test
+    public void injectorReportsConversionErrors() {
+        try {
+            configure(config("bean.name", "aName", "bean.count", "notANumber"), false);
+            fail("ConfigException expected.");
+        } catch (ConfigException e) {
+            assertThat(e.getMessage()).contains(Bean.class.getName() + ".count");
+        }
+    }
+
+    @Test
+    public void customConverterIsCreatedOnce() {
+        Configuration config = config("bean.name", "aName");
+        ConfiguredTypeImpl type = new ConfiguredTypeImpl(ConvertedBean.class);
+        int instances = UpperCaseConverter.INSTANCES.get();
+        for (int i = 0; i < 10; i++) {
+            ConvertedBean bean = new ConvertedBean();
+            type.configure(bean, config);
+            assertThat(bean.name).isEqualTo("ANAME");
+        }
+        assertThat(UpperCaseConverter.INSTANCES.get() - instances).isLessThanOrEqualTo(1);
+    }
+}
@@ -22,14 +22,22 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.naming.Binding;
 import javax.naming.Context;
 import javax.naming.InitialContext;
 import javax.naming.NameClassPair;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
+import javax.naming.event.EventContext;
+import javax.naming.event.NamespaceChangeListener;
+import javax.naming.event.NamingEvent;
+import javax.naming.event.NamingExceptionEvent;
+import javax.naming.event.ObjectChangeListener;
 
 import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertyValue;
@@ -38,6 +46,11 @@ import org.osgi.service.component.annotations.Component;
 
 /**
  * Propertysource that accesses JNDI as source for configuration entries.
+ *
+ * By default each access is delegated to JNDI. When a refresh interval is set (see
+ * {@link #setRefreshInterval(long)}), lookups and the scanned JNDI tree are cached. If the context
+ * supports {@link EventContext}, the caches are invalidated by a {@link javax.naming.event.NamingListener}
+ * on changes, otherwise they are discarded after the refresh interval.
  */
 @Component
 public class JNDIPropertySource extends BasePropertySource {
@@ -53,6 +66,23 @@ public class JNDIPropertySource extends BasePropertySource {
     private Context context;
     /** The scanable property, default is {@code false}. */
     private boolean scannable = false;
+    /** The refresh interval of the caches in milliseconds, 0 disables caching. */
+    private volatile long refreshInterval = 0L;
+    /** The time, when the caches expire. */
+    private volatile long validUntil = 0L;
+    /** The cached snapshot of the JNDI tree, or null. */
+    private volatile Map<String, PropertyValue> snapshot;
+    /** The cached lookups, including misses. */
+    private final Map<String, Optional<PropertyValue>> lookupCache = new ConcurrentHashMap<>();
+    /** Lock guarding the publication of scans and lookups to the caches. */
+    private final Object cacheLock = new Object();
+    /**
+     * Incremented on each invalidation, results of scans and lookups started before are not cached, since
+     * they may be stale.
+     */
+    private volatile long generation;
+    /** The naming listener registered, or null. */
+    private volatile CacheInvalidationListener listener;
 
     /**
      * Creates a new instance.
@@ -96,11 +126,30 @@ public class JNDIPropertySource extends BasePropertySource {
     @Override
     public Map<String, PropertyValue> getProperties() {
         if(scannable){
-            try {
-                return PropertyValue.mapProperties(toMap(this.context), getName());
-            } catch (NamingException e) {
-                LOG.log(Level.WARNING, "Error scanning JNDI tree.", e);
+            if(isCaching()){
+                checkCacheValidity();
+                Map<String, PropertyValue> snapshot = this.snapshot;
+                if(snapshot==null){
+                    long scanGeneration = this.generation;
+                    snapshot = scan();
+                    synchronized (cacheLock) {
+                        if(scanGeneration==this.generation){
+                            this.snapshot = snapshot;
+                        }
+                    }
+                }
+                return snapshot;
             }
+            return scan();
+        }
+        return Collections.emptyMap();
+    }
+
+    private Map<String, PropertyValue> scan(){
+        try {
+            return Collections.unmodifiableMap(PropertyValue.mapProperties(toMap(this.context), getName()));
+        } catch (NamingException e) {
+            LOG.log(Level.WARNING, "Error scanning JNDI tree.", e);
         }
         return Collections.emptyMap();
     }
@@ -120,8 +169,98 @@ public class JNDIPropertySource extends BasePropertySource {
         this.scannable = val;
     }
 
+    /**
+     * Sets the refresh interval of the lookup and scan caches. If the context supports
+     * {@link EventContext}, the caches are invalidated on changes only.
+     * @param millis the refresh interval in milliseconds, 0 disables caching (default).
+     */
+    public void setRefreshInterval(long millis){
+        this.refreshInterval = Math.max(0L, millis);
+        invalidateCache();
+        if(isCaching()){
+            registerListener();
+        }else{
+            unregisterListener();
+        }
+    }
+
+    /**
+     * Get the refresh interval of the lookup and scan caches.
+     * @return the refresh interval in milliseconds, 0 if caching is disabled.
+     */
+    public long getRefreshInterval(){
+        return refreshInterval;
+    }
+
+    /**
+     * Discards all cached lookups and the cached JNDI tree.
+     */
+    public void invalidateCache(){
+        synchronized (cacheLock) {
+            this.generation++;
+            this.snapshot = null;
+            this.lookupCache.clear();
+            this.validUntil = System.currentTimeMillis() + refreshInterval;
+        }
+    }
+
+    private boolean isCaching(){
+        return refreshInterval > 0L;
+    }
+
+    private void checkCacheValidity(){
+        if(listener==null && validUntil < System.currentTimeMillis()){
+            invalidateCache();
+        }
+    }
+
+    private synchronized void registerListener(){
+        if(listener==null && context instanceof EventContext){
+            CacheInvalidationListener listener = new CacheInvalidationListener();
+            try {
+                ((EventContext) context).addNamingListener("", EventContext.SUBTREE_SCOPE, listener);
+                this.listener = listener;
+            } catch (NamingException | RuntimeException e) {
+                LOG.log(Level.FINE, "Naming events not supported, using refresh interval.", e);
+            }
+        }
+    }
+
+    private synchronized void unregisterListener(){
+        if(listener!=null){
+            try {
+                ((EventContext) context).removeNamingListener(listener);
+            } catch (NamingException e) {
+                LOG.log(Level.FINE, "Failed to remove naming listener.", e);
+            }
+            listener = null;
+        }
+    }
+
     @Override
     public PropertyValue get(String key) {
+        if(isCaching()){
+            checkCacheValidity();
+            Optional<PropertyValue> cached = lookupCache.get(key);
+            if(cached!=null){
+                return cached.orElse(null);
+            }
+            long lookupGeneration = this.generation;
+            PropertyValue value = lookup(key);
+            synchronized (cacheLock) {
+                if(lookupGeneration==this.generation){
+                    cached = lookupCache.putIfAbsent(key, Optional.ofNullable(value));
+                    if(cached!=null){
+                        return cached.orElse(null);
+                    }
+                }
+            }
+            return value;
+        }
+        return lookup(key);
+    }
+
+    private PropertyValue lookup(String key) {
         try {
             key = key.replace('.', '/');
             Object o = context.lookup(key);
@@ -135,7 +274,8 @@ public class JNDIPropertySource extends BasePropertySource {
     @Override
     protected String toStringValues() {
         return super.toStringValues() +
-                "\n  context=" + context + '\'';
+                "\n  context=" + context +
+                "\n  refreshInterval=" + refreshInterval + '\'';
     }
 
     /**
@@ -153,36 +293,106 @@ public class JNDIPropertySource extends BasePropertySource {
     public static Map<String,String> toMap(Context ctx) throws NamingException {
         String namespace = ctx instanceof InitialContext ? ctx.getNameInNamespace() : "";
         Map<String, String> map = new HashMap<>();
-        NamingEnumeration<NameClassPair> list = ctx.list(namespace);
-        while (list.hasMoreElements()) {
-            NameClassPair next = list.next();
-            String name = next.getName();
-            String jndiPath = namespace + name;
-            try {
-                Object lookup = ctx.lookup(jndiPath);
-                if (namespace.isEmpty()) {
-                    if (lookup instanceof Context) {
-                        Map<String, String> childMap = toMap((Context) lookup);
-                        for (Map.Entry<String, String> en : childMap.entrySet()) {
-                            map.put(name + "." + en.getKey(), en.getValue());
-                        }
+        collect(ctx, namespace, namespace.isEmpty() ? "" : namespace + ".", map);
+        return map;
+    }
+
+    /**
+     * Adds all leave entries of the given context to the given map. The bindings are listed
+     * including their objects, so no additional lookup is needed per entry. If listing the bindings fails, e.g.
+     * because the object of a single binding cannot be created, the entries are looked up one by one instead.
+     * @param ctx the JNDI context, not null.
+     * @param namespace the namespace to list, not null.
+     * @param prefix the key prefix, not null.
+     * @param map the target map, not null.
+     * @throws NamingException If some JNDI issues occur.
+     */
+    private static void collect(Context ctx, String namespace, String prefix, Map<String,String> map)
+            throws NamingException {
+        try {
+            collectBindings(ctx, namespace, prefix, map);
+        } catch (NamingException | RuntimeException e) {
+            LOG.log(Level.FINE, "Failed to list bindings of '" + prefix + "', looking up entries one by one.", e);
+            collectByLookup(ctx, namespace, prefix, map);
+        }
+    }
+
+    private static void collectBindings(Context ctx, String namespace, String prefix, Map<String,String> map)
+            throws NamingException {
+        NamingEnumeration<Binding> bindings = ctx.listBindings(namespace);
+        try {
+            while (bindings.hasMore()) {
+                Binding next = bindings.next();
+                String key = prefix + next.getName();
+                try {
+                    Object value = next.getObject();
+                    if (value instanceof Context) {
+                        collect((Context) value, "", key + ".", map);
                     } else {
-                        map.put(name, String.valueOf(lookup));
+                        map.put(key, String.valueOf(value));
                     }
-                }else{
-                    if (lookup instanceof Context) {
-                        Map<String, String> childMap = toMap((Context) lookup);
-                        for (Map.Entry<String, String> en : childMap.entrySet()) {
-                            map.put(namespace + "." + name + "." + en.getKey(), en.getValue());
-                        }
+                } catch (Exception t) {
+                    map.put(key, "ERROR: " + t.getMessage());
+                }
+            }
+        }finally{
+            bindings.close();
+        }
+    }
+
+    private static void collectByLookup(Context ctx, String namespace, String prefix, Map<String,String> map)
+            throws NamingException {
+        NamingEnumeration<NameClassPair> names = ctx.list(namespace);
+        try {
+            while (names.hasMore()) {
+                String name = names.next().getName();
+                String key = prefix + name;
+                try {
+                    Object value = ctx.lookup(namespace.isEmpty() ? name : ctx.composeName(name, namespace));
+                    if (value instanceof Context) {
+                        collect((Context) value, "", key + ".", map);
                     } else {
-                        map.put(namespace + "." + name, String.valueOf(lookup));
+                        map.put(key, String.valueOf(value));
                     }
+                } catch (Exception t) {
+                    map.put(key, "ERROR: " + t.getMessage());
                 }
-            } catch (Exception t) {
-                map.put(namespace + "." + name, "ERROR: " + t.getMessage());
             }
+        }finally{
+            names.close();
+        }
+    }
+
+    /**
+     * Listener invalidating the caches on any change of the JNDI tree.
+     */
+    private final class CacheInvalidationListener implements NamespaceChangeListener, ObjectChangeListener {
+
+        @Override
+        public void objectAdded(NamingEvent evt) {
+            invalidateCache();
+        }
+
+        @Override
+        public void objectRemoved(NamingEvent evt) {
+            invalidateCache();
+        }
+
+        @Override
+        public void objectRenamed(NamingEvent evt) {
+            invalidateCache();
+        }
+
+        @Override
+        public void objectChanged(NamingEvent evt) {
+            invalidateCache();
+        }
+
+        @Override
+        public void namingExceptionThrown(NamingExceptionEvent evt) {
+            LOG.log(Level.FINE, "Naming listener failed, using refresh interval.", evt.getException());
+            listener = null;
+            invalidateCache();
         }
-        return map;
     }
 }
@@ -18,14 +18,24 @@
  */
 package org.apache.tamaya.jndi;
 
+import org.apache.tamaya.spi.PropertyValue;
 import org.junit.Test;
 
+import javax.naming.Binding;
 import javax.naming.Context;
 import javax.naming.InitialContext;
+import javax.naming.NameClassPair;
+import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 import java.io.File;
+import java.lang.reflect.Proxy;
 import java.net.MalformedURLException;
+import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -42,6 +52,38 @@ public class JNDIPropertySourceTest{
         return (Context)ctx.lookup(new File("./src/test/jndi-dir").getAbsolutePath());
     }
 
+    /**
+     * Creates a flat context with the given entries, entries with a null value cannot be resolved. The given
+     * action is run on each access, e.g. for simulating concurrent changes.
+     */
+    private static Context createContext(Map<String, String> entries, Runnable onAccess) {
+        return (Context) Proxy.newProxyInstance(JNDIPropertySourceTest.class.getClassLoader(),
+                new Class<?>[]{Context.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "listBindings":
+                            onAccess.run();
+                            List<Binding> bindings = new ArrayList<>();
+                            entries.forEach((k, v) -> bindings.add(v == null ? null : new Binding(k, v)));
+                            return new TestEnumeration<>(bindings);
+                        case "list":
+                            List<NameClassPair> names = new ArrayList<>();
+                            entries.keySet().forEach(k -> names.add(new NameClassPair(k, String.class.getName())));
+                            return new TestEnumeration<>(names);
+                        case "lookup":
+                            onAccess.run();
+                            String value = entries.get(String.valueOf(args[0]));
+                            if (value == null) {
+                                throw new NamingException("Cannot resolve: " + args[0]);
+                            }
+                            return value;
+                        case "toString":
+                            return "test-context";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
     @Test
     public void testCreateWithContext() throws NamingException, MalformedURLException {
         new JNDIPropertySource("jndi-test", createFSContext());
@@ -58,4 +100,101 @@ public class JNDIPropertySourceTest{
             .containsKeys("a.test1", "b.test2", "c.test3", "c.test4", "c.c1.test5");
     }
 
+    @Test
+    public void testCachedScan() throws NamingException, MalformedURLException {
+        JNDIPropertySource ps = new JNDIPropertySource("jndi-test", getTestDirContext(createFSContext()));
+        ps.setScannable(true);
+        ps.setRefreshInterval(60_000L);
+        assertThat(ps.getRefreshInterval()).isEqualTo(60_000L);
+        Map<String, PropertyValue> props = ps.getProperties();
+        assertThat(props).hasSize(5)
+            .containsKeys("a.test1", "b.test2", "c.test3", "c.test4", "c.c1.test5");
+        assertThat(ps.getProperties()).isSameAs(props);
+        PropertyValue val = ps.get("a.test1");
+        assertThat(val).isNotNull();
+        assertThat(ps.get("a.test1")).isSameAs(val);
+        ps.invalidateCache();
+        assertThat(ps.getProperties()).isNotSameAs(props).hasSize(5);
+        ps.setRefreshInterval(0L);
+        assertThat(ps.getProperties()).isNotSameAs(ps.getProperties());
+    }
+
+    @Test
+    public void testScanWithFailingBinding() throws NamingException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("a", "1");
+        entries.put("b", null);
+        entries.put("c", "3");
+        Map<String, String> map = JNDIPropertySource.toMap(createContext(entries, () -> {}));
+        assertThat(map).containsEntry("a", "1").containsEntry("c", "3").containsKey("b");
+        assertThat(map.get("b")).startsWith("ERROR: ");
+    }
+
+    @Test
+    public void testInvalidationDuringScanAndLookup() {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("a", "1");
+        JNDIPropertySource[] ps = new JNDIPropertySource[1];
+        boolean[] invalidate = {true};
+        ps[0] = new JNDIPropertySource("jndi-test", createContext(entries, () -> {
+            if (invalidate[0]) {
+                ps[0].invalidateCache();
+            }
+        }));
+        ps[0].setScannable(true);
+        ps[0].setRefreshInterval(60_000L);
+        Map<String, PropertyValue> props = ps[0].getProperties();
+        assertThat(props).containsKeys("a");
+        PropertyValue val = ps[0].get("a");
+        assertThat(val).isNotNull();
+        // results of accesses overlapping an invalidation must not be cached
+        invalidate[0] = false;
+        assertThat(ps[0].getProperties()).isNotSameAs(props);
+        assertThat(ps[0].get("a")).isNotSameAs(val);
+        assertThat(ps[0].getProperties()).isSameAs(ps[0].getProperties());
+    }
+
+    /**
+     * Enumeration over the given elements, null elements fail when accessed.
+     */
+    private static final class TestEnumeration<T> implements NamingEnumeration<T> {
+
+        private final Iterator<T> elements;
+
+        TestEnumeration(List<T> elements) {
+            this.elements = elements.iterator();
+        }
+
+        @Override
+        public T next() throws NamingException {
+            T next = elements.next();
+            if (next == null) {
+                throw new NamingException("Cannot create binding.");
+            }
+            return next;
+        }
+
+        @Override
+        public boolean hasMore() {
+            return elements.hasNext();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            return hasMore();
+        }
+
+        @Override
+        public T nextElement() {
+            try {
+                return next();
+            } catch (NamingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
 }
@@ -22,12 +22,19 @@ import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -48,6 +55,10 @@ public abstract class AbstractPathPropertySourceProvider implements PropertySour
     private String[] resourcePaths;
 
     private ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    /** The maximal number of resources loaded concurrently. */
+    private volatile int parallelism = 1;
+    /** The executor used for concurrent loading, null for a temporary pool. */
+    private volatile ExecutorService executor;
 
     /**
      * Creates a new instance using the given resource paths.
@@ -73,27 +84,114 @@ public abstract class AbstractPathPropertySourceProvider implements PropertySour
 
     @Override
     public Collection<PropertySource> getPropertySources() {
-        List<PropertySource> propertySources = new ArrayList<>();
+        List<URL> urls = new ArrayList<>();
         for (String resource : getResourcePaths()) {
             try {
-                Collection<URL> resources = ResourceResolver.getInstance(getClassLoader()).getResources(resource);
-                for (URL url : resources) {
-                    try {
-                        Collection<PropertySource>  propertySourcesToInclude = getPropertySources(url);
-                        if(propertySourcesToInclude!=null){
-                            propertySources.addAll(propertySourcesToInclude);
-                        }
-                    } catch (Exception e) {
-                        LOG.log(Level.WARNING, "Failed to read configuration from " + url, e);
-                    }
-                }
+                urls.addAll(ResourceResolver.getInstance(getClassLoader()).getResources(resource));
             } catch (Exception e) {
                 LOG.log(Level.SEVERE, "Invalid resource path: " + resource, e);
             }
         }
+        List<PropertySource> propertySources = new ArrayList<>();
+        if (parallelism <= 1 || urls.size() < 2) {
+            for (URL url : urls) {
+                propertySources.addAll(loadPropertySources(url));
+            }
+            return propertySources;
+        }
+        ExecutorService executorService = this.executor;
+        boolean ownExecutor = executorService == null;
+        if (ownExecutor) {
+            executorService = createExecutor(Math.min(parallelism, urls.size()));
+        }
+        try {
+            List<Future<Collection<PropertySource>>> results = new ArrayList<>(urls.size());
+            for (URL url : urls) {
+                results.add(executorService.submit(() -> loadPropertySources(url)));
+            }
+            // collect in resolution order, so the result does not depend on the loading order.
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    propertySources.addAll(results.get(i).get());
+                } catch (ExecutionException e) {
+                    LOG.log(Level.WARNING, "Failed to read configuration from " + urls.get(i), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    LOG.log(Level.WARNING, "Interrupted while reading configuration from " + urls.get(i), e);
+                    break;
+                }
+            }
+        } finally {
+            if (ownExecutor) {
+                executorService.shutdownNow();
+            }
+        }
         return propertySources;
     }
 
+    /**
+     * Loads the property sources of a single URL, hereby logging the time taken.
+     * @param url the URL, not null.
+     * @return the property sources read, never null.
+     */
+    private Collection<PropertySource> loadPropertySources(URL url) {
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(getClassLoader());
+        long start = System.nanoTime();
+        try {
+            Collection<PropertySource> propertySourcesToInclude = getPropertySources(url);
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine("Loaded " + (propertySourcesToInclude == null ? 0 : propertySourcesToInclude.size())
+                        + " property sources from " + url + " in "
+                        + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / 1000.0 + " ms.");
+            }
+            if (propertySourcesToInclude != null) {
+                return propertySourcesToInclude;
+            }
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Failed to read configuration from " + url, e);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+        return Collections.emptyList();
+    }
+
+    private static ExecutorService createExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "tamaya-resource-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the maximal number of resources loaded concurrently.
+     * @return the parallelism, by default {@code 1}, meaning resources are loaded on the calling thread.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximal number of resources loaded concurrently. Regardless of the parallelism the property
+     * sources are always returned in the order their resources were resolved.
+     * @param parallelism the parallelism, {@code 1} or less loads all resources on the calling thread.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the executor used for loading resources concurrently. If not set, a temporary pool of
+     * {@link #getParallelism()} threads is used for each call to {@link #getPropertySources()}.
+     * @param executor the executor, or null.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
     protected String[] getResourcePaths() {
         return resourcePaths;
     }
@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Build time tool that resolves resource expressions on the build's classpath and writes the results to
+ * {@code META-INF/tamaya-resources.idx}. At runtime the default {@link ResourceResolver} uses the index instead of
+ * scanning the classpath for indexed expressions, it still looks up the indexed resource names on the
+ * classloader. Expressions only match resources that already existed when the index was built, so the index
+ * should be generated when packaging the final application, e.g. using the exec-maven-plugin:
+ * <pre>
+ * &lt;plugin&gt;
+ *     &lt;groupId&gt;org.codehaus.mojo&lt;/groupId&gt;
+ *     &lt;artifactId&gt;exec-maven-plugin&lt;/artifactId&gt;
+ *     &lt;executions&gt;
+ *         &lt;execution&gt;
+ *             &lt;phase&gt;prepare-package&lt;/phase&gt;
+ *             &lt;goals&gt;&lt;goal&gt;java&lt;/goal&gt;&lt;/goals&gt;
+ *             &lt;configuration&gt;
+ *                 &lt;mainClass&gt;org.apache.tamaya.resource.ResourceIndexGenerator&lt;/mainClass&gt;
+ *                 &lt;classpathScope&gt;runtime&lt;/classpathScope&gt;
+ *                 &lt;arguments&gt;
+ *                     &lt;argument&gt;${project.build.outputDirectory}&lt;/argument&gt;
+ *                     &lt;argument&gt;META-INF/javaconfiguration.*&lt;/argument&gt;
+ *                 &lt;/arguments&gt;
+ *             &lt;/configuration&gt;
+ *         &lt;/execution&gt;
+ *     &lt;/executions&gt;
+ * &lt;/plugin&gt;
+ * </pre>
+ * Only classpath expressions are indexed, file system expressions are always resolved at runtime. An index
+ * describes the classpath root it is packaged with only, so just the matches located in the output directory are
+ * listed. Other classpath roots, e.g. dependency jars, are still scanned at runtime unless they ship their own index.
+ * The output directory must therefore be part of the classpath used for generating the index.
+ */
+public final class ResourceIndexGenerator {
+
+    /** The location of the generated index, relative to the output directory. */
+    public static final String INDEX_LOCATION = "META-INF/tamaya-resources.idx";
+    /** The prefix for explicit classpath expressions. */
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private static final Logger LOG = Logger.getLogger(ResourceIndexGenerator.class.getName());
+
+    /** The classloader used to resolve the expressions. */
+    private final ClassLoader classLoader;
+    /** The output directory, i.e. the classpath root the index describes. */
+    private final Path outputDirectory;
+    /** The indexed expressions with their resource names. */
+    private final Map<String, Set<String>> entries = new TreeMap<>();
+
+    /**
+     * Creates a new generator.
+     *
+     * @param classLoader the classloader representing the application's classpath, not null.
+     * @param outputDirectory the output directory the index is written to, must be a root of the classpath, not null.
+     */
+    public ResourceIndexGenerator(ClassLoader classLoader, File outputDirectory) {
+        this.classLoader = Objects.requireNonNull(classLoader);
+        this.outputDirectory = outputDirectory.toPath().toAbsolutePath().normalize();
+    }
+
+    /**
+     * Resolves the given expression and adds the matches located in the output directory to the index.
+     *
+     * @param expression the resource expression as used by the property source providers, not null.
+     * @return true, if the expression was indexed, false, if it does not refer to classpath resources.
+     */
+    public boolean addExpression(String expression) {
+        String path = expression;
+        if (path.startsWith(CLASSPATH_PREFIX)) {
+            path = path.substring(CLASSPATH_PREFIX.length());
+        }
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        String rootPath = getRootPath(path);
+        List<String> roots = new ArrayList<>();
+        try {
+            Enumeration<URL> rootUrls = classLoader.getResources(rootPath);
+            while (rootUrls.hasMoreElements()) {
+                String root = rootUrls.nextElement().toExternalForm();
+                roots.add(root.endsWith("/") ? root.substring(0, root.length() - 1) : root);
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to evaluate classpath roots of: " + expression, e);
+            return false;
+        }
+        if (roots.isEmpty() && !expression.startsWith(CLASSPATH_PREFIX)) {
+            LOG.info("Not indexing expression, which is not located on the classpath: " + expression);
+            return false;
+        }
+        Set<String> names = new TreeSet<>();
+        for (URL url : resolve(expression)) {
+            String root = getRoot(url.toExternalForm(), roots);
+            if (root == null) {
+                LOG.info("Not indexing expression, which also matches non classpath resources: " + expression);
+                return false;
+            }
+            if (isOutputDirectory(root, rootPath)) {
+                String relative = url.toExternalForm().substring(root.length() + 1);
+                names.add(rootPath.isEmpty() ? relative : rootPath + '/' + relative);
+            }
+        }
+        entries.put(expression, names);
+        return true;
+    }
+
+    /**
+     * Resolves the expression using the registered locators, hereby ignoring any existing index.
+     */
+    private Collection<URL> resolve(String expression) {
+        for (ResourceLocator locator : ResourceResolver.getInstance(classLoader).getResourceLocators()) {
+            Collection<URL> found = locator.lookup(classLoader, expression);
+            if (!found.isEmpty()) {
+                return found;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private static String getRootPath(String path) {
+        int wildcard = path.length();
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '*' || c == '?') {
+                wildcard = i;
+                break;
+            }
+        }
+        int slash = path.lastIndexOf('/', wildcard);
+        return slash < 0 ? "" : path.substring(0, slash);
+    }
+
+    private static String getRoot(String url, List<String> roots) {
+        for (String root : roots) {
+            if (url.startsWith(root + '/')) {
+                return root;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if the given base directory, e.g. {@code file:/app/classes/META-INF}, is located in the output directory.
+     */
+    private boolean isOutputDirectory(String root, String rootPath) {
+        if (!root.startsWith("file:")) {
+            return false;
+        }
+        try {
+            return Paths.get(new URI(root)).toAbsolutePath().normalize()
+                    .equals(outputDirectory.resolve(rootPath).normalize());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            LOG.log(Level.FINEST, "Not a directory: " + root, e);
+            return false;
+        }
+    }
+
+    /**
+     * Access the indexed expressions and their resource names.
+     *
+     * @return the index entries, never null.
+     */
+    public Map<String, Set<String>> getEntries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Writes the index.
+     *
+     * @param writer the target writer, not null.
+     * @throws IOException if writing fails.
+     */
+    public void write(Writer writer) throws IOException {
+        writer.write("# Generated by " + getClass().getName() + ", do not edit.\n");
+        for (Map.Entry<String, Set<String>> en : entries.entrySet()) {
+            writer.write('[' + en.getKey() + "]\n");
+            for (String name : en.getValue()) {
+                writer.write(name);
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes the index to {@code META-INF/tamaya-resources.idx} in the given output directory.
+     *
+     * @param outputDirectory the output directory, not null.
+     * @return the file written.
+     * @throws IOException if writing fails.
+     */
+    public File write(File outputDirectory) throws IOException {
+        File file = new File(outputDirectory, INDEX_LOCATION);
+        Files.createDirectories(file.getParentFile().toPath());
+        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+            write(writer);
+        }
+        return file;
+    }
+
+    /**
+     * Generates an index using the current thread's context classloader.
+     *
+     * @param args the output directory followed by the expressions to be indexed.
+     * @throws IOException if writing the index fails.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ResourceIndexGenerator <outputDirectory> <expression>...");
+            System.exit(1);
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = ResourceIndexGenerator.class.getClassLoader();
+        }
+        File outputDirectory = new File(args[0]);
+        ResourceIndexGenerator generator = new ResourceIndexGenerator(classLoader, outputDirectory);
+        for (int i = 1; i < args.length; i++) {
+            generator.addExpression(args[i]);
+        }
+        File file = generator.write(outputDirectory);
+        LOG.info("Written resource index for " + generator.getEntries().size() + " expressions to " + file);
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.tamaya.spi.ServiceContextManager;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.JarURLConnection;
@@ -29,7 +30,9 @@ import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.net.URLDecoder;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.logging.Level;
@@ -106,6 +109,18 @@ public class ClasspathCollector {
      * @return the resources found.
      */
     public Collection<URL> collectFiles(String expression) {
+        return collectFiles(expression, root -> true);
+    }
+
+    /**
+     * Collect the classpath resources given the expression, hereby only scanning the selected classpath roots.
+     *
+     * @param expression the expression, not null.
+     * @param rootFilter selects the base directories to be scanned, e.g. {@code jar:file:/app.jar!/META-INF/},
+     *                   not null.
+     * @return the resources found.
+     */
+    public Collection<URL> collectFiles(String expression, Predicate<URL> rootFilter) {
         if (expression.startsWith(CLASSPATH_PREFIX)) {
             expression = expression.substring(CLASSPATH_PREFIX.length());
         }
@@ -119,6 +134,9 @@ public class ClasspathCollector {
                     this.classLoader
             ).getResources(locator.getRootPath());
             for (URL resource:rootResources) {
+                if (!rootFilter.test(resource)) {
+                    continue;
+                }
                 try {
                     if (isJarFile(resource)) {
                         result.addAll(doFindPathMatchingJarResources(resource, locator.getSubPath()));
@@ -126,7 +144,7 @@ public class ClasspathCollector {
                         result.addAll(findMatchingVfsResources(resource, locator.getSubPath()));
                     } else {
                         result.addAll(FileCollector.traverseAndSelectFromChildren(getFile(resource),
-                                locator.getSubPathTokens(), 0));
+                                locator.getSubPathMatcher(), 0));
                     }
                 } catch (URISyntaxException | IOException e) {
                     LOG.log(Level.SEVERE, "Error locating resources for: " + expression, e);
@@ -141,7 +159,9 @@ public class ClasspathCollector {
 
     /**
      * Find all resources in jar files that match the given location pattern
-     * via the Ant-style PathMatcher.
+     * via the Ant-style PathMatcher. Within archives {@code **} matches one or more path segments.
+     * Local jar files are looked up using a cached {@link JarIndex}, so they are only read once as long as
+     * they are not modified. Archives nested in other archives are scanned using the URL's connection.
      *
      * @param rootDirResource the root directory as Resource
      * @param subPattern      the sub pattern to match (below the root directory)
@@ -152,13 +172,30 @@ public class ClasspathCollector {
      */
     protected Collection<URL> doFindPathMatchingJarResources(URL rootDirResource, String subPattern)
             throws IOException, URISyntaxException {
-        subPattern = subPattern.replace("*", ".*").replace("?", ".?").replace(".*.*", ".*");
-        URLConnection con = rootDirResource.toURI().toURL().openConnection();
+        GlobMatcher matcher = GlobMatcher.of(subPattern, 1);
+        String resourceFile = rootDirResource.getFile();
+        int separator = resourceFile.indexOf(JAR_URL_SEPARATOR);
+        String entryPart = separator > 0 ? resourceFile.substring(separator + JAR_URL_SEPARATOR.length()) : null;
+        // nested archives (e.g. jar:file:/app.jar!/lib/x.jar!/config/) are left to the connection based scan
+        File localJar = entryPart != null && !entryPart.contains(JAR_URL_SEPARATOR) ?
+                getLocalFile(resourceFile.substring(0, separator)) : null;
+        if (localJar != null) {
+            String rootEntryPath = decode(entryPart);
+            if (!rootEntryPath.isEmpty() && !rootEntryPath.endsWith("/")) {
+                rootEntryPath = rootEntryPath + '/';
+            }
+            List<URL> result = new ArrayList<>();
+            for (String relativePath : JarIndex.of(classLoader, localJar).find(rootEntryPath, matcher)) {
+                result.add(createRelativeFrom(rootDirResource, relativePath));
+            }
+            return result;
+        }
+        // keep the URL's own handler, which may support nested archives
+        URLConnection con = rootDirResource.openConnection();
         JarFile jarFile;
         boolean newJarFile = false;
         String jarFileUrl;
         String rootEntryPath;
-        boolean isFileExpression = !subPattern.contains("/");
 
         if (con instanceof JarURLConnection) {
             JarURLConnection jarCon = (JarURLConnection) con;
@@ -193,19 +230,14 @@ public class ClasspathCollector {
                 rootEntryPath = rootEntryPath + '/';
             }
             Collection<URL> result = new ArrayList<>(10);
+            Set<String> found = new HashSet<>();
             for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
                 JarEntry entry = entries.nextElement();
                 String entryPath = entry.getName();
                 if (entryPath.startsWith(rootEntryPath)) {
                     String relativePath = entryPath.substring(rootEntryPath.length());
-                    if (relativePath.contains("/") && isFileExpression) {
-                        continue;
-                    }
-                    if (relativePath.matches(subPattern)) {
-                        URL url = createRelativeFrom(rootDirResource, relativePath);
-                        if(!result.contains(url)) {
-                            result.add(url);
-                        }
+                    if (matcher.matches(relativePath) && found.add(relativePath)) {
+                        result.add(createRelativeFrom(rootDirResource, relativePath));
                     }
                 }
             }
@@ -275,6 +307,41 @@ public class ClasspathCollector {
         }
     }
 
+    /**
+     * Evaluates the local jar file referenced by the given jar file URL.
+     *
+     * @param jarFileUrl the URL of the jar file, e.g. {@code file:/opt/app/lib/foo.jar}, not null.
+     * @return the jar file, or null, if the URL does not reference a local and existing file.
+     */
+    private static File getLocalFile(String jarFileUrl) {
+        if (!jarFileUrl.startsWith("file:")) {
+            return null;
+        }
+        try {
+            File file = new File(new URL(jarFileUrl).toURI());
+            return file.isFile() ? file : null;
+        } catch (Exception e) {
+            LOG.log(Level.FINEST, "Not a local jar file: " + jarFileUrl, e);
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the given URL path part, e.g. {@code %20} or encoded non-ASCII characters, so it can be compared
+     * with the jar's entry names.
+     *
+     * @param path the encoded path, not null.
+     * @return the decoded path.
+     * @throws UnsupportedEncodingException never, UTF-8 is always supported.
+     */
+    private static String decode(String path) throws UnsupportedEncodingException {
+        if (path.indexOf('%') < 0) {
+            return path;
+        }
+        // URLDecoder decodes form data, so a '+' must be kept as is.
+        return URLDecoder.decode(path.replace("+", "%2B"), "UTF-8");
+    }
+
     /**
      * Method that collects resources from a JBoss classloading system using Vfs.
      * @param rootResource the root resource for evaluating its getPropertyValues.
@@ -296,9 +363,13 @@ public class ClasspathCollector {
      */
     private static class PatternVfsVisitor implements InvocationHandler {
         /**
-         * The regex pattern to match agains all child resources of the root path against.
+         * The pattern to match agains all child resources of the root path against.
          */
         private final String subPattern;
+        /**
+         * The compiled pattern.
+         */
+        private final GlobMatcher matcher;
         /**
          * The resource path before yny placeholders/whitespaces are occurring.
          */
@@ -316,6 +387,7 @@ public class ClasspathCollector {
          */
         public PatternVfsVisitor(String rootPath, String subPattern) {
             this.subPattern = subPattern;
+            this.matcher = GlobMatcher.of(subPattern, 1);
             this.rootPath = (rootPath.length() == 0 || rootPath.endsWith("/") ? rootPath : rootPath + "/");
         }
 
@@ -357,7 +429,7 @@ public class ClasspathCollector {
          */
         public void visit(Object vfsResource) {
             String subPath = VfsSupport.getPath(vfsResource).substring(this.rootPath.length());
-            if (subPath.matches(this.subPattern)) {
+            if (this.matcher.matches(subPath)) {
                 try {
                     this.resources.add(VfsSupport.getURL(vfsResource));
                 } catch (Exception e) {
@@ -34,6 +34,9 @@ import java.util.logging.Logger;
 
 /**
  * Simple default implementation of the resource loader, which does only support direct references to files.
+ * Classpath roots shipping a build time generated resource index (see
+ * {@link org.apache.tamaya.resource.ResourceIndexGenerator}) listing an expression are resolved without scanning,
+ * only the remaining classpath roots are scanned for indexed expressions.
  */
 @Priority(0)
 @Component
@@ -45,7 +48,15 @@ public class DefaultResourceResolver implements ResourceResolver, ClassloaderAwa
     @Override
     public List<URL> getResources(Collection<String> expressions) {
         List<URL> resources = new ArrayList<>();
+        ResourceIndex index = ResourceIndex.of(classLoader);
         for (String expression : expressions) {
+            ResourceIndex.Result indexed = index.lookup(expression);
+            if(indexed!=null){
+                resources.addAll(indexed.getResources());
+                resources.addAll(new ClasspathCollector(classLoader).collectFiles(expression,
+                        root -> !indexed.covers(root)));
+                continue;
+            }
             for(ResourceLocator locator: getResourceLocators()){
                 Collection<URL> found = locator.lookup(classLoader, expression);
                 if(!found.isEmpty()) {
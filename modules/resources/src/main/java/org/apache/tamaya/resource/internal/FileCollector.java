@@ -19,12 +19,23 @@
 package org.apache.tamaya.resource.internal;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -44,6 +55,21 @@ public class FileCollector {
     /** The logger instance. */
     private static final Logger LOG = Logger.getLogger(FileCollector.class.getName());
 
+    /** The minimal number of matching subdirectories, for which the subdirectories are evaluated in parallel. */
+    private static final int FORK_THRESHOLD = 4;
+
+    /**
+     * The pool used for traversing the file system. Traversal blocks on file system access, so a separate pool
+     * with a small number of threads is used instead of the common pool.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+            Math.min(4, Runtime.getRuntime().availableProcessors()), pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("tamaya-file-collector-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+
     /**
      * private constructor.
      */
@@ -65,80 +91,167 @@ public class FileCollector {
         }
         File file = new File(rootPath);
         if (file.exists()) {
-            List<String> subTokens = locator.getSubPathTokens();
-            result.addAll(traverseAndSelectFromChildren(file, subTokens, 0));
+            result.addAll(traverseAndSelectFromChildren(file, locator.getSubPathMatcher(), 0));
         }
         return result;
     }
 
     /**
      * Internal method to traverse the file system down, hereby comparing the new path elements with the
-     * elements given by {@code subTokens}, starting at the given {@code tokenIndex}.
+     * segments of the given {@code matcher}, starting at the given {@code tokenIndex}. Directories are only
+     * entered, if they match the corresponding segment, segments without wildcards are resolved directly
+     * and sibling subtrees are evaluated in parallel, if there are at least a few of them.
      * @param dir the directory to start
-     * @param subTokens the overall subtoken to be analyzed
+     * @param matcher the compiled sub expression to be analyzed
      * @param tokenIndex the getIndex where in the token createList to start comparing
      * @return the URLs matching the tokens
      */
-    static Collection<URL> traverseAndSelectFromChildren(File dir, List<String> subTokens, int tokenIndex) {
-        if (tokenIndex >= subTokens.size() || dir.isFile() || !dir.isDirectory()) {
+    static Collection<URL> traverseAndSelectFromChildren(File dir, GlobMatcher matcher, int tokenIndex) {
+        if (dir == null || tokenIndex >= matcher.size()) {
             return Collections.emptyList();
         }
-        List<URL> result = new ArrayList<>();
-        String token = subTokens.get(tokenIndex);
-        if (token.equals("**")) {
-            result.addAll(traverseAndSelectFromChildren(dir, getSubExpression(subTokens, tokenIndex + 1)));
-        } else {
-            token = token.replace("*", ".*").replace("?", ".?");
-            File[] files = dir.listFiles();
-            if (tokenIndex == subTokens.size() - 1) {
-                // select files!
-                if(files!=null) {
-                    for (File f : files) {
-                        if (f.isFile() && f.getName().matches(token)) {
-                            result.add(getURL(f));
-                        }
-                    }
+        Path path = dir.toPath();
+        if (!Files.isDirectory(path)) {
+            return Collections.emptyList();
+        }
+        return POOL.invoke(new CollectTask(path, matcher, tokenIndex,
+                matcher.isDoubleStar(tokenIndex) ? "" : null));
+    }
+
+    /**
+     * Reads the attributes of the given path, following symbolic links.
+     * @param path the path, not null.
+     * @return the attributes, or null, if the path does not exist or cannot be accessed.
+     */
+    private static BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            LOG.finest("Cannot access file: " + path + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Task evaluating the entries of a single directory. Matching subdirectories are evaluated by child tasks.
+     */
+    private static final class CollectTask extends RecursiveTask<List<URL>> {
+
+        private static final long serialVersionUID = 1L;
+
+        /** The directory to be evaluated. */
+        private final transient Path dir;
+        /** The compiled sub expression. */
+        private final transient GlobMatcher matcher;
+        /** The index of the segment to be matched against the directory entries. */
+        private final int tokenIndex;
+        /**
+         * The path of the directory relative to the directory where the {@code **} segment at {@code tokenIndex}
+         * was evaluated, or null, if the entries are matched segment by segment.
+         */
+        private final String relativePath;
+        /** The URLs found, lazily created. */
+        private List<URL> result;
+
+        CollectTask(Path dir, GlobMatcher matcher, int tokenIndex, String relativePath) {
+            this.dir = dir;
+            this.matcher = matcher;
+            this.tokenIndex = tokenIndex;
+            this.relativePath = relativePath;
+        }
+
+        @Override
+        protected List<URL> compute() {
+            List<CollectTask> subTasks = new ArrayList<>();
+            String literal = relativePath == null ? matcher.getLiteral(tokenIndex) : null;
+            if (literal != null) {
+                Path child;
+                try {
+                    child = dir.resolve(literal);
+                } catch (InvalidPathException e) {
+                    // not a valid file name on this file system, so nothing can match.
+                    LOG.finest("Invalid path: " + dir + ", " + literal + ": " + e);
+                    return Collections.emptyList();
+                }
+                BasicFileAttributes attributes = readAttributes(child);
+                if (attributes != null) {
+                    select(child, literal, attributes, subTasks);
                 }
             } else {
-                // check directory pattern
-                if(files!=null) {
-                    for (File f : files) {
-                        if (f.isDirectory() && f.getName().matches(token)) {
-                            result.addAll(traverseAndSelectFromChildren(f, subTokens, tokenIndex + 1));
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                    for (Path child : stream) {
+                        BasicFileAttributes attributes = readAttributes(child);
+                        if (attributes != null) {
+                            select(child, child.getFileName().toString(), attributes, subTasks);
                         }
                     }
+                } catch (IOException | DirectoryIteratorException e) {
+                    LOG.log(Level.FINEST, "Cannot read directory: " + dir, e);
                 }
             }
+            if (subTasks.size() < FORK_THRESHOLD) {
+                for (CollectTask task : subTasks) {
+                    addAll(task.compute());
+                }
+            } else {
+                invokeAll(subTasks);
+                for (CollectTask task : subTasks) {
+                    addAll(task.join());
+                }
+            }
+            return result == null ? Collections.<URL>emptyList() : result;
         }
-        return result;
-    }
 
-    /**
-     * Internal method to traverse the file system and comparing all child file names with the given expression.
-     * @param file the root directory
-     * @param expression the regular expression to match
-     * @return the URLs matching the expression
-     */
-    static Collection<URL> traverseAndSelectFromChildren(File file, String expression) {
-        List<URL> result = new ArrayList<>();
-        File[] files = file.listFiles();
-        if(files==null){
-            return result;
-        }
-        for (File childFile : files) {
-            if (childFile.isFile()) {
-                if (childFile.getName().matches(expression)) {
-                    try {
-                        result.add(getURL(childFile));
-                    } catch (Exception e) {
-                        LOG.warning("File not convertible to URL: " + childFile);
+        /**
+         * Evaluates a single directory entry, selecting matching files and scheduling matching directories.
+         * @param child the entry, not null.
+         * @param name the entry's file name, not null.
+         * @param attributes the entry's attributes, not null.
+         * @param subTasks the tasks for the subdirectories to be evaluated.
+         */
+        private void select(Path child, String name, BasicFileAttributes attributes, List<CollectTask> subTasks) {
+            if (relativePath != null) {
+                String childPath = relativePath.isEmpty() ? name : relativePath + '/' + name;
+                if (attributes.isRegularFile()) {
+                    if (matcher.matches(tokenIndex, childPath)) {
+                        add(child);
                     }
+                } else if (attributes.isDirectory()) {
+                    subTasks.add(new CollectTask(child, matcher, tokenIndex, childPath));
+                }
+            } else if (tokenIndex == matcher.size() - 1) {
+                // select files!
+                if (attributes.isRegularFile() && matcher.matchesSegment(tokenIndex, name)) {
+                    add(child);
                 }
-            } else if (childFile.isDirectory()) {
-                result.addAll(traverseAndSelectFromChildren(childFile, expression));
+            } else if (attributes.isDirectory() && matcher.matchesSegment(tokenIndex, name)) {
+                int next = tokenIndex + 1;
+                subTasks.add(new CollectTask(child, matcher, next, matcher.isDoubleStar(next) ? "" : null));
+            }
+        }
+
+        private void add(Path file) {
+            try {
+                URL url = getURL(file.toFile());
+                if (result == null) {
+                    result = new ArrayList<>();
+                }
+                result.add(url);
+            } catch (Exception e) {
+                LOG.warning("File not convertible to URL: " + file);
+            }
+        }
+
+        private void addAll(List<URL> urls) {
+            if (urls.isEmpty()) {
+                return;
+            }
+            if (result == null) {
+                result = urls;
+            } else {
+                result.addAll(urls);
             }
         }
-        return result;
     }
 
     /**
@@ -156,23 +269,4 @@ public class FileCollector {
             throw new IllegalStateException("Failed to createObject URL from file: " + file);
         }
     }
-
-    /**
-     * Constructs a sub expression, using the tokens from {@code subTokens} starting at getIndex {@code startIndex}.
-     *
-     * @param subTokens  the token createList, not null
-     * @param startIndex the start getIndex from where tokens should be taken to produce the path.
-     * @return the constructed path, never null.
-     */
-    private static String getSubExpression(List<String> subTokens, int startIndex) {
-        StringBuilder b = new StringBuilder();
-        for (int i = startIndex; i < subTokens.size(); i++) {
-            b.append(subTokens.get(i));
-            b.append('/');
-        }
-        if (b.length() > 0) {
-            b.setLength(b.length() - 1);
-        }
-        return b.toString().replaceAll("\\*", ".*").replaceAll("\\?", ".?");
-    }
 }
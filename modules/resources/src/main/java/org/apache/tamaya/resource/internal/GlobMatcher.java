@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.resource.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled form of an Ant styled path pattern, as used by the collectors. The pattern is split into its
+ * path segments, each compiled once:
+ * <ul>
+ *     <li>{@code **} matches any number of path segments.</li>
+ *     <li>{@code *} matches any number of characters within a segment.</li>
+ *     <li>{@code ?} matches exactly one character within a segment.</li>
+ *     <li>All other characters are matched literally.</li>
+ * </ul>
+ * Segments without wildcards, as well as simple prefix or suffix patterns such as {@code *.properties}, are
+ * matched without any regular expressions.
+ */
+final class GlobMatcher {
+
+    /** The marker segment for {@code **}. */
+    private static final SegmentMatcher DOUBLE_STAR = name -> true;
+    /** The segment matcher for {@code *}. */
+    private static final SegmentMatcher ANY = name -> true;
+
+    /** The compiled segments. */
+    private final SegmentMatcher[] segments;
+    /** The segment tokens without any wildcards, null for wildcard segments. */
+    private final String[] literals;
+    /** The minimal number of path segments matched by {@code **}. */
+    private final int minDoubleStarSegments;
+
+    /**
+     * Matcher for a single path segment.
+     */
+    @FunctionalInterface
+    private interface SegmentMatcher {
+        boolean matches(String name);
+    }
+
+    private GlobMatcher(SegmentMatcher[] segments, String[] literals, int minDoubleStarSegments) {
+        this.segments = segments;
+        this.literals = literals;
+        this.minDoubleStarSegments = minDoubleStarSegments;
+    }
+
+    /**
+     * Compiles the given tokens, where {@code **} matches zero or more path segments.
+     *
+     * @param tokens the pattern tokens, not null.
+     * @return the compiled matcher, never null.
+     */
+    static GlobMatcher of(List<String> tokens) {
+        return of(tokens, 0);
+    }
+
+    /**
+     * Compiles the given tokens.
+     *
+     * @param tokens the pattern tokens, not null.
+     * @param minDoubleStarSegments the minimal number of path segments to be matched by {@code **}.
+     * @return the compiled matcher, never null.
+     */
+    static GlobMatcher of(List<String> tokens, int minDoubleStarSegments) {
+        SegmentMatcher[] segments = new SegmentMatcher[tokens.size()];
+        String[] literals = new String[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            String token = Objects.requireNonNull(tokens.get(i));
+            segments[i] = compileSegment(token);
+            if (token.indexOf('*') < 0 && token.indexOf('?') < 0) {
+                literals[i] = token;
+            }
+        }
+        return new GlobMatcher(segments, literals, minDoubleStarSegments);
+    }
+
+    /**
+     * Compiles the given '/' separated pattern.
+     *
+     * @param pattern the pattern, not null.
+     * @param minDoubleStarSegments the minimal number of path segments to be matched by {@code **}.
+     * @return the compiled matcher, never null.
+     */
+    static GlobMatcher of(String pattern, int minDoubleStarSegments) {
+        return of(Arrays.asList(pattern.split("/")), minDoubleStarSegments);
+    }
+
+    private static SegmentMatcher compileSegment(String token) {
+        if ("**".equals(token)) {
+            return DOUBLE_STAR;
+        }
+        if ("*".equals(token)) {
+            return ANY;
+        }
+        int wildcards = 0;
+        int questionMarks = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '*') {
+                wildcards++;
+            } else if (c == '?') {
+                questionMarks++;
+            }
+        }
+        if (wildcards == 0 && questionMarks == 0) {
+            return token::equals;
+        }
+        if (questionMarks == 0 && wildcards == 1) {
+            if (token.charAt(0) == '*') {
+                String suffix = token.substring(1);
+                return name -> name.endsWith(suffix);
+            }
+            if (token.charAt(token.length() - 1) == '*') {
+                String prefix = token.substring(0, token.length() - 1);
+                return name -> name.startsWith(prefix);
+            }
+        }
+        Pattern pattern = Pattern.compile(toRegex(token));
+        return name -> pattern.matcher(name).matches();
+    }
+
+    /**
+     * Converts a segment pattern to a regular expression, quoting all literal parts.
+     *
+     * @param token the segment pattern, not null.
+     * @return the regular expression, never null.
+     */
+    private static String toRegex(String token) {
+        StringBuilder b = new StringBuilder(token.length() + 16);
+        int literalStart = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > literalStart) {
+                    b.append(Pattern.quote(token.substring(literalStart, i)));
+                }
+                b.append(c == '*' ? "[^/]*" : "[^/]");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < token.length()) {
+            b.append(Pattern.quote(token.substring(literalStart)));
+        }
+        return b.toString();
+    }
+
+    /**
+     * Get the number of segments of the pattern.
+     *
+     * @return the number of segments.
+     */
+    int size() {
+        return segments.length;
+    }
+
+    /**
+     * Checks if the segment at the given index is {@code **}.
+     *
+     * @param index the segment index.
+     * @return true, if the segment matches any number of path segments.
+     */
+    boolean isDoubleStar(int index) {
+        return segments[index] == DOUBLE_STAR;
+    }
+
+    /**
+     * Access the plain name of the segment at the given index, if it does not contain any wildcards.
+     *
+     * @param index the segment index.
+     * @return the literal segment, or null, if the segment contains wildcards.
+     */
+    String getLiteral(int index) {
+        return literals[index];
+    }
+
+    /**
+     * Checks if a single file or directory name matches the segment at the given index.
+     *
+     * @param index the segment index.
+     * @param name the name, not null.
+     * @return true, if the name matches.
+     */
+    boolean matchesSegment(int index, String name) {
+        return segments[index].matches(name);
+    }
+
+    /**
+     * Checks if the given '/' separated relative path matches the pattern.
+     *
+     * @param path the path, not null.
+     * @return true, if the path matches.
+     */
+    boolean matches(String path) {
+        return matches(0, path);
+    }
+
+    /**
+     * Checks if the given '/' separated relative path matches the pattern, starting at the given segment.
+     *
+     * @param fromIndex the first segment index to match.
+     * @param path the path, not null.
+     * @return true, if the path matches.
+     */
+    boolean matches(int fromIndex, String path) {
+        return matches(fromIndex, path.split("/", -1), 0);
+    }
+
+    private boolean matches(int segment, String[] parts, int part) {
+        if (segment == segments.length) {
+            return part == parts.length;
+        }
+        if (segments[segment] == DOUBLE_STAR) {
+            for (int next = part + minDoubleStarSegments; next <= parts.length; next++) {
+                if (matches(segment + 1, parts, next)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return part < parts.length && segments[segment].matches(parts[part])
+                && matches(segment + 1, parts, part + 1);
+    }
+
+}
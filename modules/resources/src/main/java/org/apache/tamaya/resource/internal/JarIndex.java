@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.resource.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Sorted index of the entry names of a jar file. Indexes are cached per classloader and keyed by the jar file,
+ * they are rebuilt only when the jar file's modification time or size changes. So only the first scan of a jar
+ * actually reads the jar's directory, all subsequent scans are in-memory lookups.
+ */
+final class JarIndex {
+
+    /** The cached indexes, per classloader and jar file path. */
+    private static final Map<ClassLoader, Map<String, JarIndex>> INDEXES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** The sorted entry names. */
+    private final String[] entries;
+    /** The jar file's modification time when the index was built. */
+    private final long lastModified;
+    /** The jar file's size when the index was built. */
+    private final long length;
+
+    private JarIndex(String[] entries, long lastModified, long length) {
+        this.entries = entries;
+        this.lastModified = lastModified;
+        this.length = length;
+    }
+
+    /**
+     * Get the index of the given jar file, building it if not yet cached or if the jar file has changed.
+     *
+     * @param classLoader the classloader the jar is visible on, not null.
+     * @param jarFile the jar file, not null.
+     * @return the index, never null.
+     * @throws IOException if the jar file cannot be read.
+     */
+    static JarIndex of(ClassLoader classLoader, File jarFile) throws IOException {
+        Map<String, JarIndex> indexes = INDEXES.computeIfAbsent(Objects.requireNonNull(classLoader),
+                k -> new ConcurrentHashMap<>());
+        String key = jarFile.getAbsolutePath();
+        long lastModified = jarFile.lastModified();
+        long length = jarFile.length();
+        JarIndex index = indexes.get(key);
+        if (index == null || index.lastModified != lastModified || index.length != length) {
+            index = read(jarFile, lastModified, length);
+            indexes.put(key, index);
+        }
+        return index;
+    }
+
+    /**
+     * Removes all cached indexes.
+     */
+    static void clear() {
+        INDEXES.clear();
+    }
+
+    private static JarIndex read(File file, long lastModified, long length) throws IOException {
+        try (JarFile jarFile = new JarFile(file)) {
+            List<String> names = new ArrayList<>(jarFile.size());
+            for (Enumeration<JarEntry> en = jarFile.entries(); en.hasMoreElements(); ) {
+                names.add(en.nextElement().getName());
+            }
+            String[] entries = names.toArray(new String[names.size()]);
+            Arrays.sort(entries);
+            return new JarIndex(entries, lastModified, length);
+        }
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return the number of entries in the jar.
+     */
+    int size() {
+        return entries.length;
+    }
+
+    /**
+     * Get all entry names starting with the given prefix, in sorted order.
+     *
+     * @param prefix the prefix, not null. Use an empty String for all entries.
+     * @return the matching entry names, never null.
+     */
+    List<String> getEntries(String prefix) {
+        int from = Arrays.binarySearch(entries, prefix);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        int to = from;
+        while (to < entries.length && entries[to].startsWith(prefix)) {
+            to++;
+        }
+        return Collections.unmodifiableList(Arrays.asList(entries).subList(from, to));
+    }
+
+    /**
+     * Get the paths, relative to the given prefix, of all entries below the prefix that match the given pattern.
+     *
+     * @param prefix the prefix, not null. If not empty it should end with '/'.
+     * @param matcher the pattern to match the relative paths against, not null.
+     * @return the matching relative paths in sorted order, never null.
+     */
+    List<String> find(String prefix, GlobMatcher matcher) {
+        List<String> result = new ArrayList<>();
+        for (String entry : getEntries(prefix)) {
+            String relativePath = entry.substring(prefix.length());
+            if (matcher.matches(relativePath)) {
+                result.add(relativePath);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "JarIndex{" +
+                "entries=" + entries.length +
+                ", lastModified=" + lastModified +
+                '}';
+    }
+}
@@ -116,6 +116,16 @@ final class Locator {
         return subTokens;
     }
 
+    /**
+     * Compiles the sub expression into a matcher, where {@code **} matches zero or more path segments.
+     *
+     * @return the compiled sub path, never null.
+     * @see #getSubPathTokens()
+     */
+    GlobMatcher getSubPathMatcher() {
+        return GlobMatcher.of(getSubPathTokens());
+    }
+
     /**
      * Access the full reconstructed path. In most cases this should match the original expression.
      *
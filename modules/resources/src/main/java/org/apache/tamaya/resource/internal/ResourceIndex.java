@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.resource.internal;
+
+import org.apache.tamaya.resource.ResourceIndexGenerator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Precomputed results of resource expressions, read from all {@code META-INF/tamaya-resources.idx} files visible
+ * on a classloader. The index files are created at build time, e.g. by
+ * {@link org.apache.tamaya.resource.ResourceIndexGenerator}. Each expression is listed as a section, followed by
+ * the classpath resource names it resolved to:
+ * <pre>
+ * [classpath:META-INF/config/*.json]
+ * META-INF/config/a.json
+ * META-INF/config/b.json
+ * </pre>
+ * Indexed expressions are resolved by direct classloader lookups of the listed names, so no jar or directory
+ * must be scanned. An index file only describes the classpath root (jar or directory) it is contained in, so only
+ * the roots shipping an index listing the expression are resolved by the index, all other roots containing the
+ * expression's base directory must still be scanned. Index lookups can be disabled
+ * by setting the system property {@code tamaya.resources.index} to {@code false}.
+ */
+final class ResourceIndex {
+
+    /** System property to disable the index. */
+    static final String INDEX_ENABLED_PROPERTY = "tamaya.resources.index";
+
+    private static final Logger LOG = Logger.getLogger(ResourceIndex.class.getName());
+
+    /** The empty index. */
+    private static final ResourceIndex EMPTY = new ResourceIndex(null, Collections.emptyMap());
+    /** The loaded indexes per classloader. */
+    private static final Map<ClassLoader, ResourceIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** The classloader used for resolving the resource names. */
+    private final ClassLoader classLoader;
+    /** The indexed expressions per classpath root, mapped to their resource names. */
+    private final Map<String, Map<String, Set<String>>> roots;
+
+    private ResourceIndex(ClassLoader classLoader, Map<String, Map<String, Set<String>>> roots) {
+        this.classLoader = classLoader;
+        this.roots = roots;
+    }
+
+    /**
+     * Get the index of the given classloader. The index files are read on first access only.
+     *
+     * @param classLoader the classloader, not null.
+     * @return the index, never null.
+     */
+    static ResourceIndex of(ClassLoader classLoader) {
+        if (!isEnabled()) {
+            return EMPTY;
+        }
+        return INDEXES.computeIfAbsent(classLoader, ResourceIndex::load);
+    }
+
+    /**
+     * Removes all loaded indexes, so the index files are read again on next access.
+     */
+    static void clear() {
+        INDEXES.clear();
+    }
+
+    private static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(INDEX_ENABLED_PROPERTY));
+    }
+
+    private static ResourceIndex load(ClassLoader classLoader) {
+        Map<String, Map<String, Set<String>>> roots = new LinkedHashMap<>();
+        try {
+            Enumeration<URL> indexFiles = classLoader.getResources(ResourceIndexGenerator.INDEX_LOCATION);
+            while (indexFiles.hasMoreElements()) {
+                URL indexFile = indexFiles.nextElement();
+                String root = getRoot(indexFile, ResourceIndexGenerator.INDEX_LOCATION);
+                Map<String, Set<String>> entries = new HashMap<>();
+                try (Reader reader = new InputStreamReader(indexFile.openStream(), StandardCharsets.UTF_8)) {
+                    read(reader, entries);
+                    roots.put(root, entries);
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "Failed to read resource index: " + indexFile, e);
+                }
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to locate resource indexes.", e);
+        }
+        if (roots.isEmpty()) {
+            return EMPTY;
+        }
+        return new ResourceIndex(classLoader, roots);
+    }
+
+    /**
+     * Evaluates the classpath root of a resource.
+     *
+     * @param url the resource's URL, not null.
+     * @param path the resource's path relative to the root, not null.
+     * @return the root's URL without trailing slash, e.g. {@code jar:file:/app.jar!} or {@code file:/app/classes}.
+     */
+    private static String getRoot(URL url, String path) {
+        String root = url.toExternalForm();
+        if (root.endsWith("/")) {
+            root = root.substring(0, root.length() - 1);
+        }
+        if (!path.isEmpty() && root.endsWith('/' + path)) {
+            root = root.substring(0, root.length() - path.length() - 1);
+        }
+        return root;
+    }
+
+    /**
+     * Reads an index file, adding the entries found to the given map.
+     *
+     * @param reader the reader, not null.
+     * @param entries the target map, not null.
+     * @throws IOException if reading fails.
+     */
+    static void read(Reader reader, Map<String, Set<String>> entries) throws IOException {
+        BufferedReader in = new BufferedReader(reader);
+        Set<String> current = null;
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (line.startsWith("[") && line.endsWith("]")) {
+                current = entries.computeIfAbsent(line.substring(1, line.length() - 1),
+                        k -> new LinkedHashSet<>());
+            } else if (current != null) {
+                current.add(line);
+            }
+        }
+    }
+
+    /**
+     * Checks if the given expression is contained in the index of at least one classpath root.
+     *
+     * @param expression the expression, not null.
+     * @return true, if the expression was indexed.
+     */
+    boolean contains(String expression) {
+        for (Map<String, Set<String>> entries : roots.values()) {
+            if (entries.containsKey(expression)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolves the given expression using the indexes of the classpath roots listing it. Roots not listing the
+     * expression, e.g. dependencies without an index, are not covered and must still be scanned.
+     *
+     * @param expression the expression, not null.
+     * @return the result, or null, if no classpath root has indexed the expression.
+     */
+    Result lookup(String expression) {
+        Set<String> covered = new LinkedHashSet<>();
+        Set<String> names = new LinkedHashSet<>();
+        for (Map.Entry<String, Map<String, Set<String>>> en : roots.entrySet()) {
+            Set<String> rootNames = en.getValue().get(expression);
+            if (rootNames != null) {
+                covered.add(en.getKey());
+                names.addAll(rootNames);
+            }
+        }
+        if (covered.isEmpty()) {
+            return null;
+        }
+        Result result = new Result(covered);
+        Map<String, URL> resources = new LinkedHashMap<>();
+        for (String name : names) {
+            try {
+                Enumeration<URL> urls = classLoader.getResources(name);
+                while (urls.hasMoreElements()) {
+                    URL url = urls.nextElement();
+                    if (result.covers(url)) {
+                        resources.putIfAbsent(url.toExternalForm(), url);
+                    }
+                }
+            } catch (IOException e) {
+                LOG.log(Level.FINEST, "Failed to load indexed resource: " + name, e);
+            }
+        }
+        result.resources.addAll(resources.values());
+        LOG.fine(() -> "Resolved by resource index: " + expression + " -> " + resources.size() + " resources in "
+                + covered.size() + " classpath roots");
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceIndex{" +
+                "roots=" + roots.keySet() +
+                '}';
+    }
+
+    /**
+     * The result of an index lookup: the resources found and the classpath roots covered by the index.
+     */
+    static final class Result {
+
+        /** The covered classpath roots, without trailing slash. */
+        private final Set<String> roots;
+        /** The indexed resources found. */
+        private final List<URL> resources = new ArrayList<>();
+
+        private Result(Set<String> roots) {
+            this.roots = roots;
+        }
+
+        /**
+         * Access the indexed resources found.
+         *
+         * @return the resources, never null.
+         */
+        List<URL> getResources() {
+            return resources;
+        }
+
+        /**
+         * Checks if the given resource or directory is located in a classpath root covered by the index.
+         *
+         * @param url the URL, not null.
+         * @return true, if the index lists all matches below the given URL.
+         */
+        boolean covers(URL url) {
+            String externalForm = url.toExternalForm();
+            for (String root : roots) {
+                if (externalForm.startsWith(root + '/')) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -49,6 +49,29 @@ public class AbstractPathPropertySourceProviderTest {
         assertThat(myProvider.getPropertySources()).isNotNull();
     }
 
+    @Test
+    public void testGetPropertySourcesParallel() throws Exception {
+        AbstractPathPropertySourceProvider provider = new AbstractPathPropertySourceProvider("*.properties",
+                "resources_testroot/**/*.file") {
+            @Override
+            protected Collection<PropertySource> getPropertySources(URL url) {
+                return Collections.singletonList(createPropertiesPropertySource(url));
+            }
+        };
+        List<String> expected = getNames(provider.getPropertySources());
+        provider.setParallelism(4);
+        assertThat(provider.getParallelism()).isEqualTo(4);
+        assertThat(getNames(provider.getPropertySources())).isEqualTo(expected);
+    }
+
+    private static List<String> getNames(Collection<PropertySource> propertySources) {
+        List<String> names = new ArrayList<>();
+        for (PropertySource ps : propertySources) {
+            names.add(ps.getName());
+        }
+        return names;
+    }
+
     @Test
     public void testCreatePropertiesPropertySource() throws Exception {
         PropertySource ps = AbstractPathPropertySourceProvider.createPropertiesPropertySource(
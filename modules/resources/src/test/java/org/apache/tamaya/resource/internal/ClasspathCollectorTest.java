@@ -18,8 +18,17 @@
  */
 package org.apache.tamaya.resource.internal;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.JarURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
 import java.util.Collection;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -82,4 +91,63 @@ public class ClasspathCollectorTest {
         Collection<URL> found2 = cpc.collectFiles("resources_testroot/**/*.file");
         assertThat(found).isEqualTo(found2);
     }
+
+    private static File createJar(String... entries) throws IOException {
+        File file = File.createTempFile("classpathcollector", ".jar");
+        file.deleteOnExit();
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+            for (String entry : entries) {
+                out.putNextEntry(new JarEntry(entry));
+                out.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    @org.junit.Test
+    public void testCollectFromEncodedEntryPath() throws Exception {
+        File jar = createJar("my config/", "my config/app.properties", "my config/app.yaml",
+                "conf\u00ecg/app.properties");
+        ClasspathCollector cpc = new ClasspathCollector(Thread.currentThread().getContextClassLoader());
+        Collection<URL> found = cpc.doFindPathMatchingJarResources(
+                new URL("jar:" + jar.toURI() + "!/my%20config/"), "*.properties");
+        assertThat(found).hasSize(1);
+        assertThat(found.iterator().next().toString()).endsWith("!/my%20config/app.properties");
+        found = cpc.doFindPathMatchingJarResources(
+                new URL("jar:" + jar.toURI() + "!/conf%C3%ACg/"), "*.properties");
+        assertThat(found).hasSize(1);
+    }
+
+    @org.junit.Test
+    public void testCollectFromNestedJar() throws Exception {
+        final File inner = createJar("META-INF/config/", "META-INF/config/a.json", "META-INF/config/b.json");
+        File outer = createJar("BOOT-INF/lib/", "BOOT-INF/lib/inner.jar");
+        // simulates a loader supporting nested archives, the JDK's jar handler does not.
+        URLStreamHandler nestedHandler = new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL u) throws IOException {
+                return new JarURLConnection(u) {
+                    @Override
+                    public JarFile getJarFile() throws IOException {
+                        return new JarFile(inner);
+                    }
+
+                    @Override
+                    public JarEntry getJarEntry() throws IOException {
+                        return getJarFile().getJarEntry("META-INF/config/");
+                    }
+
+                    @Override
+                    public void connect() {
+                        connected = true;
+                    }
+                };
+            }
+        };
+        URL root = new URL(null, "jar:" + outer.toURI() + "!/BOOT-INF/lib/inner.jar!/META-INF/config/",
+                nestedHandler);
+        ClasspathCollector cpc = new ClasspathCollector(Thread.currentThread().getContextClassLoader());
+        Collection<URL> found = cpc.doFindPathMatchingJarResources(root, "*.json");
+        assertThat(found).hasSize(2);
+    }
 }
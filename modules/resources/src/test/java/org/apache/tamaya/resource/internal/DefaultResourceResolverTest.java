@@ -21,9 +21,15 @@ package org.apache.tamaya.resource.internal;
 import java.io.File;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Collection;
 
+import org.apache.tamaya.resource.ResourceIndexGenerator;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -34,6 +40,9 @@ public class DefaultResourceResolverTest {
 
     private final DefaultResourceResolver resolver = new DefaultResourceResolver();
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
 
     @Test
     public void testGetResources_CP() throws Exception {
@@ -52,6 +61,34 @@ public class DefaultResourceResolverTest {
         assertThat(found).isEqualTo(found2);
     }
 
+    @Test
+    public void testGetResources_IndexedAndScannedRoots() throws Exception {
+        File app = tempFolder.newFolder();
+        File dependency = tempFolder.newFolder();
+        File appConfig = new File(app, "META-INF/indextest/app.json");
+        File dependencyConfig = new File(dependency, "META-INF/indextest/dependency.json");
+        for (File config : new File[]{appConfig, dependencyConfig}) {
+            assertThat(config.getParentFile().mkdirs()).isTrue();
+            Files.write(config.toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+        }
+        String expression = "classpath:META-INF/indextest/*.json";
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{app.toURI().toURL(), dependency.toURI().toURL()}, getClass().getClassLoader())) {
+            ResourceIndexGenerator generator = new ResourceIndexGenerator(classLoader, app);
+            assertThat(generator.addExpression(expression)).isTrue();
+            assertThat(generator.getEntries().get(expression)).containsExactly("META-INF/indextest/app.json");
+            generator.write(app);
+
+            DefaultResourceResolver indexedResolver = new DefaultResourceResolver();
+            indexedResolver.init(classLoader);
+            assertThat(ResourceIndex.of(classLoader).contains(expression)).isTrue();
+            assertThat(indexedResolver.getResources(expression)).containsExactlyInAnyOrder(
+                    appConfig.toURI().toURL(), dependencyConfig.toURI().toURL());
+        } finally {
+            ResourceIndex.clear();
+        }
+    }
+
     private String getResourceDir() throws URISyntaxException {
         URL res = getClass().getResource("/resources_testroot/");
         return new File(res.toURI()).getParentFile().getAbsolutePath();
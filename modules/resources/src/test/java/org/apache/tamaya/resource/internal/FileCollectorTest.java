@@ -68,5 +68,26 @@ public class FileCollectorTest {
         assertThat(found).isEqualTo(found2);
     }
 
+    @Test
+    public void testCollectResourcesFromLocalFSPath_WithFolderBelowAnyDepth() throws Exception {
+        String resDir = getResourceDir();
+        Collection<URL> found = FileCollector.collectFiles("file:" + resDir + "/**/b2/*.file");
+        assertThat(found).hasSize(2);
+        Collection<URL> found2 = FileCollector.collectFiles(resDir + "/**/b2/*.file");
+        assertThat(found).containsExactlyInAnyOrderElementsOf(found2);
+    }
+
+    @Test
+    public void testCollectResourcesFromLocalFSPath_WithLiteralFolder() throws Exception {
+        String resDir = getResourceDir();
+        Collection<URL> found = FileCollector.collectFiles(resDir + "/b?/b2/*.file");
+        assertThat(found).isEqualTo(FileCollector.collectFiles(resDir + "/bb/b2/*.file"));
+        assertThat(FileCollector.collectFiles(resDir + "/b?/missing/*.file")).isEmpty();
+    }
 
+    @Test
+    public void testCollectResourcesFromLocalFSPath_WithInvalidLiteralFolder() throws Exception {
+        String resDir = getResourceDir();
+        assertThat(FileCollector.collectFiles(resDir + "/b?/in\u0000valid/*.file")).isEmpty();
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.resource.internal;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for the compiled path patterns used by the collectors.
+ */
+public class GlobMatcherTest {
+
+    @Test
+    public void testSegmentWildcards() {
+        GlobMatcher matcher = GlobMatcher.of(Arrays.asList("aa?a", "*.file"));
+        assertThat(matcher.matches("aa_a/test.file")).isTrue();
+        assertThat(matcher.matches("aaa/test.file")).isFalse();
+        assertThat(matcher.matches("aa_a/test.files")).isFalse();
+        assertThat(matcher.matches("aa_a/sub/test.file")).isFalse();
+        assertThat(matcher.matchesSegment(0, "aaXa")).isTrue();
+    }
+
+    @Test
+    public void testLiteralCharactersAreQuoted() {
+        GlobMatcher matcher = GlobMatcher.of(Arrays.asList("a.b*", "x+y?.txt"));
+        assertThat(matcher.matches("a.bc/x+y1.txt")).isTrue();
+        assertThat(matcher.matches("aXbc/x+y1.txt")).isFalse();
+        assertThat(matcher.matches("a.bc/xxy1.txt")).isFalse();
+    }
+
+    @Test
+    public void testDoubleStar() {
+        GlobMatcher matcher = GlobMatcher.of(Arrays.asList("**", "b2", "*.file"));
+        assertThat(matcher.isDoubleStar(0)).isTrue();
+        assertThat(matcher.matches("b2/test.file")).isTrue();
+        assertThat(matcher.matches("bb/b1/b2/test.file")).isTrue();
+        assertThat(matcher.matches("bb/b1/test.file")).isFalse();
+    }
+
+    @Test
+    public void testDoubleStarWithMinimalSegments() {
+        GlobMatcher matcher = GlobMatcher.of("**/R*.class", 1);
+        assertThat(matcher.matches("Resource.class")).isFalse();
+        assertThat(matcher.matches("security/RolesAllowed.class")).isTrue();
+        assertThat(GlobMatcher.of("**/*", 1).matches("spec/")).isTrue();
+    }
+}
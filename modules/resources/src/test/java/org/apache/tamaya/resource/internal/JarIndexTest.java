@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.resource.internal;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for the cached jar entry index.
+ */
+public class JarIndexTest {
+
+    private static File createJar(String... entries) throws IOException {
+        File file = File.createTempFile("jarindex", ".jar");
+        file.deleteOnExit();
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+            for (String entry : entries) {
+                out.putNextEntry(new JarEntry(entry));
+                out.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    @Test
+    public void testFindByPrefixAndPattern() throws Exception {
+        File jar = createJar("a/", "a/b/x.properties", "a/b/y.yaml", "a/c/z.properties", "ab/x.properties");
+        JarIndex index = JarIndex.of(getClass().getClassLoader(), jar);
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.getEntries("a/")).containsExactly("a/", "a/b/x.properties", "a/b/y.yaml",
+                "a/c/z.properties");
+        assertThat(index.getEntries("b/")).isEmpty();
+        assertThat(index.find("a/", GlobMatcher.of("**/*.properties", 1)))
+                .containsExactly("b/x.properties", "c/z.properties");
+    }
+
+    @Test
+    public void testIndexIsCachedUntilModified() throws Exception {
+        File jar = createJar("a/x.properties");
+        JarIndex index = JarIndex.of(getClass().getClassLoader(), jar);
+        assertThat(JarIndex.of(getClass().getClassLoader(), jar)).isSameAs(index);
+        File other = createJar("a/x.properties", "a/y.properties");
+        assertThat(other.renameTo(jar)).isTrue();
+        assertThat(jar.setLastModified(jar.lastModified() + 2000L)).isTrue();
+        JarIndex updated = JarIndex.of(getClass().getClassLoader(), jar);
+        assertThat(updated).isNotSameAs(index);
+        assertThat(updated.size()).isEqualTo(2);
+    }
+}
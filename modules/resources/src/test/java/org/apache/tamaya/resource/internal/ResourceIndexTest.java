@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.resource.internal;
+
+import org.apache.tamaya.resource.ResourceIndexGenerator;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for the build time generated resource index.
+ */
+public class ResourceIndexTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @After
+    public void clearIndexes() {
+        ResourceIndex.clear();
+    }
+
+    private File createRoot(String index, String... files) throws Exception {
+        File root = tempFolder.newFolder();
+        for (String file : files) {
+            File config = new File(root, file);
+            config.getParentFile().mkdirs();
+            Files.write(config.toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+        }
+        if (index != null) {
+            File indexFile = new File(root, ResourceIndexGenerator.INDEX_LOCATION);
+            indexFile.getParentFile().mkdirs();
+            Files.write(indexFile.toPath(), index.getBytes(StandardCharsets.UTF_8));
+        }
+        return root;
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        Map<String, Set<String>> entries = new HashMap<>();
+        ResourceIndex.read(new StringReader("# comment\n[cfg/*.json]\ncfg/a.json\n\ncfg/b.json\n[other/*]\n"),
+                entries);
+        assertThat(entries).containsOnlyKeys("cfg/*.json", "other/*");
+        assertThat(entries.get("cfg/*.json")).containsExactly("cfg/a.json", "cfg/b.json");
+        assertThat(entries.get("other/*")).isEmpty();
+    }
+
+    @Test
+    public void testLookup() throws Exception {
+        File root = createRoot("[cfg/*.json]\ncfg/a.json\ncfg/missing.json\n", "cfg/a.json");
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{root.toURI().toURL()}, null)) {
+            ResourceIndex resourceIndex = ResourceIndex.of(classLoader);
+            assertThat(resourceIndex.contains("cfg/*.json")).isTrue();
+            ResourceIndex.Result found = resourceIndex.lookup("cfg/*.json");
+            assertThat(found.getResources()).containsExactly(new File(root, "cfg/a.json").toURI().toURL());
+            assertThat(found.covers(new File(root, "cfg").toURI().toURL())).isTrue();
+            assertThat(resourceIndex.lookup("cfg/*.yaml")).isNull();
+            assertThat(ResourceIndex.of(classLoader)).isSameAs(resourceIndex);
+        }
+    }
+
+    @Test
+    public void testLookupDoesNotCoverRootsWithoutIndex() throws Exception {
+        File indexed = createRoot("[classpath:cfg/*.json]\ncfg/a.json\n", "cfg/a.json");
+        File notIndexed = createRoot(null, "cfg/a.json", "cfg/b.json");
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{indexed.toURI().toURL(), notIndexed.toURI().toURL()}, null)) {
+            ResourceIndex.Result found = ResourceIndex.of(classLoader).lookup("classpath:cfg/*.json");
+            assertThat(found.getResources()).containsExactly(new File(indexed, "cfg/a.json").toURI().toURL());
+            assertThat(found.covers(new File(indexed, "cfg").toURI().toURL())).isTrue();
+            assertThat(found.covers(new File(notIndexed, "cfg").toURI().toURL())).isFalse();
+        }
+    }
+
+    @Test
+    public void testLookupWithMetaInfRootWithoutIndex() throws Exception {
+        File indexed = createRoot("[classpath:META-INF/javaconfiguration.*]\nMETA-INF/javaconfiguration.json\n",
+                "META-INF/javaconfiguration.json");
+        File dependency = createRoot(null, "META-INF/MANIFEST.MF");
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{indexed.toURI().toURL(), dependency.toURI().toURL()}, null)) {
+            ResourceIndex.Result found = ResourceIndex.of(classLoader).lookup(
+                    "classpath:META-INF/javaconfiguration.*");
+            assertThat(found).isNotNull();
+            assertThat(found.getResources()).containsExactly(
+                    new File(indexed, "META-INF/javaconfiguration.json").toURI().toURL());
+            assertThat(found.covers(new File(indexed, "META-INF").toURI().toURL())).isTrue();
+            assertThat(found.covers(new File(dependency, "META-INF").toURI().toURL())).isFalse();
+        }
+    }
+
+    @Test
+    public void testLookupWithIndexPerRoot() throws Exception {
+        File first = createRoot("[classpath:cfg/*.json]\ncfg/a.json\n", "cfg/a.json");
+        File second = createRoot("[classpath:cfg/*.json]\ncfg/b.json\n", "cfg/b.json");
+        File other = createRoot(null, "other/c.json");
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{first.toURI().toURL(), second.toURI().toURL(), other.toURI().toURL()}, null)) {
+            ResourceIndex.Result found = ResourceIndex.of(classLoader).lookup("classpath:cfg/*.json");
+            assertThat(found.getResources()).containsExactlyInAnyOrder(
+                    new File(first, "cfg/a.json").toURI().toURL(), new File(second, "cfg/b.json").toURI().toURL());
+        }
+    }
+}